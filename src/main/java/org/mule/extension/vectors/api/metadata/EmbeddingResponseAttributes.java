@@ -26,6 +26,42 @@ public class EmbeddingResponseAttributes implements Serializable {
    */
   private final int embeddingModelDimension;
 
+  /**
+   * The number of embeddings served from the embedding cache.
+   */
+  private final int embeddingCacheHits;
+
+  /**
+   * The number of embeddings not found in the embedding cache but served from the embedding disk store.
+   */
+  private final int embeddingDiskStoreHits;
+
+  /**
+   * The number of embeddings found in neither the embedding cache nor the disk store, and generated by the
+   * embedding model.
+   */
+  private final int embeddingCacheMisses;
+
+  /**
+   * The number of input tokens reported by the embedding model service.
+   */
+  private final Integer embeddingInputTokenCount;
+
+  /**
+   * The time spent calling the embedding model service, in milliseconds.
+   */
+  private final long embeddingLatencyMillis;
+
+  /**
+   * The number of batches sent to the embedding model service.
+   */
+  private final int embeddingBatchCount;
+
+  /**
+   * The number of requests retried after being rejected by the embedding model service.
+   */
+  private final int embeddingRetryCount;
+
   /**
    * Additional attributes not explicitly defined as fields in this class.
    */
@@ -35,13 +71,23 @@ public class EmbeddingResponseAttributes implements Serializable {
    * Constructs an {@code EmbeddingResponseAttributes} instance.
    *
    * @param requestAttributes a map containing attributes of the embedding operation response.
-   *                          Expected keys include "embeddingModelName" and "embeddingModelDimension",
-   *                          which are extracted and stored in their respective fields.
+   *                          Expected keys include "embeddingModelName", "embeddingModelDimension",
+   *                          "embeddingCacheHits", "embeddingDiskStoreHits", "embeddingCacheMisses",
+   *                          "embeddingInputTokenCount", "embeddingLatencyMillis", "embeddingBatchCount" and
+   *                          "embeddingRetryCount", which are
+   *                          extracted and stored in their respective fields.
    *                          Remaining entries are stored in {@code otherAttributes}.
    */
   public EmbeddingResponseAttributes(HashMap<String, Object> requestAttributes) {
     this.embeddingModelName = requestAttributes.containsKey("embeddingModelName") ? (String) requestAttributes.remove("embeddingModelName") : null;
     this.embeddingModelDimension = requestAttributes.containsKey("embeddingModelDimension") ? (int) requestAttributes.remove("embeddingModelDimension") : null;
+    this.embeddingCacheHits = requestAttributes.containsKey("embeddingCacheHits") ? (int) requestAttributes.remove("embeddingCacheHits") : 0;
+    this.embeddingDiskStoreHits = requestAttributes.containsKey("embeddingDiskStoreHits") ? (int) requestAttributes.remove("embeddingDiskStoreHits") : 0;
+    this.embeddingCacheMisses = requestAttributes.containsKey("embeddingCacheMisses") ? (int) requestAttributes.remove("embeddingCacheMisses") : 0;
+    this.embeddingInputTokenCount = (Integer) requestAttributes.remove("embeddingInputTokenCount");
+    this.embeddingLatencyMillis = requestAttributes.containsKey("embeddingLatencyMillis") ? (long) requestAttributes.remove("embeddingLatencyMillis") : 0;
+    this.embeddingBatchCount = requestAttributes.containsKey("embeddingBatchCount") ? (int) requestAttributes.remove("embeddingBatchCount") : 0;
+    this.embeddingRetryCount = requestAttributes.containsKey("embeddingRetryCount") ? (int) requestAttributes.remove("embeddingRetryCount") : 0;
     this.otherAttributes = requestAttributes;
   }
 
@@ -63,6 +109,70 @@ public class EmbeddingResponseAttributes implements Serializable {
     return embeddingModelDimension;
   }
 
+  /**
+   * Gets the number of embeddings served from the embedding cache.
+   *
+   * @return the embedding cache hits, {@code 0} if the cache is disabled.
+   */
+  public int getEmbeddingCacheHits() {
+    return embeddingCacheHits;
+  }
+
+  /**
+   * Gets the number of embeddings served from the embedding disk store.
+   *
+   * @return the embedding disk store hits, {@code 0} if the disk store is disabled.
+   */
+  public int getEmbeddingDiskStoreHits() {
+    return embeddingDiskStoreHits;
+  }
+
+  /**
+   * Gets the number of embeddings found in neither the embedding cache nor the disk store, that is sent to the
+   * embedding model.
+   *
+   * @return the embedding cache misses, {@code 0} if both the cache and the disk store are disabled.
+   */
+  public int getEmbeddingCacheMisses() {
+    return embeddingCacheMisses;
+  }
+
+  /**
+   * Gets the number of input tokens reported by the embedding model service.
+   *
+   * @return the input token count, or {@code null} if the service does not report it.
+   */
+  public Integer getEmbeddingInputTokenCount() {
+    return embeddingInputTokenCount;
+  }
+
+  /**
+   * Gets the time spent calling the embedding model service, retries and rate limiting waits included.
+   *
+   * @return the embedding latency in milliseconds, {@code 0} if all the embeddings were cached.
+   */
+  public long getEmbeddingLatencyMillis() {
+    return embeddingLatencyMillis;
+  }
+
+  /**
+   * Gets the number of batches sent to the embedding model service.
+   *
+   * @return the embedding batch count.
+   */
+  public int getEmbeddingBatchCount() {
+    return embeddingBatchCount;
+  }
+
+  /**
+   * Gets the number of requests retried after being rejected by the embedding model service.
+   *
+   * @return the embedding retry count.
+   */
+  public int getEmbeddingRetryCount() {
+    return embeddingRetryCount;
+  }
+
   /**
    * Gets additional attributes of the embedding response.
    * <p>
@@ -0,0 +1,151 @@
+package org.mule.extension.vectors.internal.cache;
+
+import dev.langchain4j.data.embedding.Embedding;
+import org.mule.extension.vectors.internal.util.MetadataUtils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory cache of generated embeddings.
+ * <p>
+ * Entries are keyed by the embedding model key (service, model and any parameter affecting the vectors) and by
+ * the SHA-256 hash of the embedded text. The cache is bounded both by number of entries and by the memory taken
+ * by the vectors: the least recently used entries are evicted first. Entries expire after the configured time to live.
+ */
+public class EmbeddingCache {
+
+  // Rough per-entry overhead: key string, map node, embedding and array headers.
+  private static final long ENTRY_OVERHEAD_BYTES = 160;
+
+  private final int maxEntries;
+  private final long maxSizeInBytes;
+  private final long ttlInMillis;
+
+  private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long sizeInBytes;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  public EmbeddingCache(int maxEntries, long maxSizeInBytes, long ttlInMillis) {
+
+    this.maxEntries = maxEntries;
+    this.maxSizeInBytes = maxSizeInBytes;
+    this.ttlInMillis = ttlInMillis;
+  }
+
+  /**
+   * Builds the cache key for the given text embedded with the given model.
+   *
+   * @param embeddingModelKey the key identifying the embedding model and its parameters.
+   * @param text              the embedded text.
+   * @return the cache key.
+   */
+  public static String key(String embeddingModelKey, String text) {
+
+    return embeddingModelKey + ":" + MetadataUtils.getContentHash(text);
+  }
+
+
+  /**
+   * Returns the embedding cached under the given key, or {@code null} if absent or expired.
+   *
+   * @param key the cache key.
+   * @return the cached embedding, or {@code null}.
+   */
+  public synchronized Embedding get(String key) {
+
+    Entry entry = entries.get(key);
+    if(entry != null && entry.expiresAt < System.currentTimeMillis()) {
+
+      remove(key);
+      entry = null;
+    }
+    if(entry == null) {
+
+      misses.incrementAndGet();
+      return null;
+    }
+    hits.incrementAndGet();
+    return entry.embedding;
+  }
+
+  /**
+   * Caches the given embedding under the given key, evicting least recently used entries if needed.
+   *
+   * @param key       the cache key.
+   * @param embedding the embedding to cache.
+   */
+  public synchronized void put(String key, Embedding embedding) {
+
+    long entrySize = sizeOf(key, embedding);
+    if(entrySize > maxSizeInBytes) return;
+
+    remove(key);
+    entries.put(key, new Entry(embedding, System.currentTimeMillis() + ttlInMillis, entrySize));
+    sizeInBytes += entrySize;
+
+    Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+    while((entries.size() > maxEntries || sizeInBytes > maxSizeInBytes) && iterator.hasNext()) {
+
+      sizeInBytes -= iterator.next().getValue().sizeInBytes;
+      iterator.remove();
+      evictions.incrementAndGet();
+    }
+  }
+
+  public synchronized void clear() {
+
+    entries.clear();
+    sizeInBytes = 0;
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  public synchronized long getSizeInBytes() {
+    return sizeInBytes;
+  }
+
+  public long getHits() {
+    return hits.get();
+  }
+
+  public long getMisses() {
+    return misses.get();
+  }
+
+  public long getEvictions() {
+    return evictions.get();
+  }
+
+  private void remove(String key) {
+
+    Entry removed = entries.remove(key);
+    if(removed != null) sizeInBytes -= removed.sizeInBytes;
+  }
+
+  private static long sizeOf(String key, Embedding embedding) {
+
+    return ENTRY_OVERHEAD_BYTES + 2L * key.length() + 4L * embedding.dimension();
+  }
+
+  private static class Entry {
+
+    private final Embedding embedding;
+    private final long expiresAt;
+    private final long sizeInBytes;
+
+    private Entry(Embedding embedding, long expiresAt, long sizeInBytes) {
+
+      this.embedding = embedding;
+      this.expiresAt = expiresAt;
+      this.sizeInBytes = sizeInBytes;
+    }
+  }
+}
@@ -0,0 +1,508 @@
+package org.mule.extension.vectors.internal.cache;
+
+import dev.langchain4j.data.embedding.Embedding;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * Persistent, content-addressed store of generated embeddings.
+ * <p>
+ * Embeddings are appended to a single data file, keyed the same way as the {@link EmbeddingCache}: by embedding model
+ * key and SHA-256 hash of the embedded text. The in-memory index is rebuilt by scanning the file when the store is
+ * opened, so embeddings survive restarts and re-ingesting an unchanged corpus does not call the embedding model again.
+ * Records are validated by their checksum: a corrupted record is skipped, the scan resuming at the next valid one,
+ * and a record left incomplete at the end of the file by a crash is truncated.
+ * <p>
+ * When the file grows beyond its maximum size it is compacted: the least recently used records are dropped and the
+ * remaining ones are rewritten to a new file which replaces the current one. The store is guarded against concurrent
+ * use by a lock on a separate lock file, held from opening to closing, so that it is also held while the data file
+ * is replaced.
+ * <p>
+ * Record layout: magic, key length, key (UTF-8), dimension, vector (float32), CRC32 of key and vector.
+ */
+public class EmbeddingDiskStore implements Closeable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(EmbeddingDiskStore.class);
+
+  public static final String DATA_FILE_NAME = "embeddings.dat";
+  private static final String LOCK_FILE_NAME = "embeddings.lock";
+  private static final String COMPACTION_FILE_NAME = "embeddings.dat.compact";
+
+  private static final int RECORD_MAGIC = 0x454D4231;
+  private static final int MAX_KEY_LENGTH = 4096;
+  private static final int MAX_DIMENSION = 65536;
+  private static final int RESYNC_BLOCK_SIZE = 65536;
+
+  private final Path dataFile;
+  private final Path lockFile;
+  private final long maxSizeInBytes;
+  private final int compactionRetainedPercentage;
+
+  private final Map<String, IndexEntry> index = new ConcurrentHashMap<>();
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final AtomicLong accessClock = new AtomicLong();
+
+  private RandomAccessFile file;
+  private FileChannel channel;
+  private FileChannel lockChannel;
+  private FileLock fileLock;
+  private long size;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  /**
+   * Opens the store in the given directory, creating it if needed, and rebuilds the index from the data file.
+   *
+   * @param directory                    the directory holding the data file.
+   * @param maxSizeInBytes               the size of the data file beyond which it is compacted.
+   * @param compactionRetainedPercentage the percentage of the maximum size retained, by most recent use, on compaction.
+   * @throws IOException if the data file cannot be opened or is locked by another store.
+   */
+  public EmbeddingDiskStore(Path directory, long maxSizeInBytes, int compactionRetainedPercentage) throws IOException {
+
+    this.dataFile = directory.resolve(DATA_FILE_NAME);
+    this.lockFile = directory.resolve(LOCK_FILE_NAME);
+    this.maxSizeInBytes = maxSizeInBytes;
+    this.compactionRetainedPercentage = Math.max(0, Math.min(100, compactionRetainedPercentage));
+
+    Files.createDirectories(directory);
+    lock();
+    try {
+
+      open();
+      load();
+    } catch (IOException e) {
+
+      close();
+      throw e;
+    }
+    LOGGER.info(String.format("Embedding disk store %s opened with %s embedding(s), %s byte(s).", dataFile, index.size(), size));
+  }
+
+  /**
+   * Returns the embedding stored under the given key, or {@code null} if absent.
+   *
+   * @param key the key, as built by {@link EmbeddingCache#key(String, String)}.
+   * @return the stored embedding, or {@code null}.
+   */
+  public Embedding get(String key) {
+
+    lock.readLock().lock();
+    try {
+
+      IndexEntry entry = index.get(key);
+      if(entry == null) {
+
+        misses.incrementAndGet();
+        return null;
+      }
+
+      ByteBuffer buffer = ByteBuffer.allocate(entry.length);
+      readFully(channel, buffer, entry.offset);
+      buffer.flip();
+      Record record = Record.read(buffer);
+      if(record == null || !record.key.equals(key)) {
+
+        LOGGER.warn(String.format("Embedding disk store record at offset %s is corrupted. Ignoring it.", entry.offset));
+        index.remove(key);
+        misses.incrementAndGet();
+        return null;
+      }
+      entry.lastAccess = accessClock.incrementAndGet();
+      hits.incrementAndGet();
+      return Embedding.from(record.vector);
+    } catch (IOException e) {
+
+      LOGGER.warn(String.format("Unable to read embedding from disk store %s.", dataFile), e);
+      misses.incrementAndGet();
+      return null;
+    } finally {
+
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Appends the given embeddings to the store, skipping keys already present, and compacts the store if it
+   * grew beyond its maximum size.
+   *
+   * @param embeddings the embeddings to store, by key.
+   */
+  public void putAll(Map<String, Embedding> embeddings) {
+
+    lock.writeLock().lock();
+    try {
+
+      List<ByteBuffer> buffers = new ArrayList<>();
+      List<String> keys = new ArrayList<>();
+      for(Map.Entry<String, Embedding> embedding : embeddings.entrySet()) {
+
+        if(index.containsKey(embedding.getKey())) continue;
+        buffers.add(Record.write(embedding.getKey(), embedding.getValue().vector()));
+        keys.add(embedding.getKey());
+      }
+
+      // The index only references the records once all of them are written, so that a failed write leaves the
+      // store as it was
+      List<IndexEntry> entries = new ArrayList<>();
+      long offset = size;
+      try {
+
+        for(ByteBuffer buffer : buffers) {
+
+          int length = buffer.remaining();
+          writeFully(channel, buffer, offset);
+          entries.add(new IndexEntry(offset, length, accessClock.incrementAndGet()));
+          offset += length;
+        }
+      } catch (IOException e) {
+
+        rollback();
+        throw e;
+      }
+      for(int i = 0; i < keys.size(); i++) index.put(keys.get(i), entries.get(i));
+      size = offset;
+
+      if(size > maxSizeInBytes) compact();
+
+    } catch (IOException e) {
+
+      LOGGER.warn(String.format("Unable to write embeddings to disk store %s.", dataFile), e);
+    } finally {
+
+      lock.writeLock().unlock();
+    }
+  }
+
+  public int size() {
+    return index.size();
+  }
+
+  public long getSizeInBytes() {
+    return size;
+  }
+
+  public long getHits() {
+    return hits.get();
+  }
+
+  public long getMisses() {
+    return misses.get();
+  }
+
+  @Override
+  public void close() throws IOException {
+
+    lock.writeLock().lock();
+    try {
+
+      try {
+
+        if(channel != null && channel.isOpen()) {
+
+          channel.force(false);
+          file.close();
+        }
+      } finally {
+
+        if(lockChannel != null && lockChannel.isOpen()) {
+
+          // Closing the channel releases the lock
+          lockChannel.close();
+        }
+      }
+      index.clear();
+    } finally {
+
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Drops the bytes written past the last complete append. Must be called holding the write lock.
+   */
+  private void rollback() {
+
+    try {
+
+      channel.truncate(size);
+    } catch (IOException e) {
+
+      // The partial records are skipped when the store is next opened
+      LOGGER.warn(String.format("Unable to roll back the partial write to disk store %s.", dataFile), e);
+    }
+  }
+
+  private void lock() throws IOException {
+
+    lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    try {
+
+      fileLock = lockChannel.tryLock();
+    } catch (OverlappingFileLockException e) {
+
+      fileLock = null;
+    }
+    if(fileLock == null) {
+
+      lockChannel.close();
+      throw new IOException(String.format("Embedding disk store %s is already in use by another configuration or process.", dataFile));
+    }
+  }
+
+  private void open() throws IOException {
+
+    file = new RandomAccessFile(dataFile.toFile(), "rw");
+    channel = file.getChannel();
+  }
+
+  private void load() throws IOException {
+
+    long fileSize = channel.size();
+    long offset = 0;
+    while(offset < fileSize) {
+
+      Record record = readRecord(offset, fileSize);
+      if(record != null) {
+
+        index.put(record.key, new IndexEntry(offset, record.length, accessClock.incrementAndGet()));
+        offset += record.length;
+        continue;
+      }
+
+      long next = findNextRecord(offset + 1, fileSize);
+      if(next < 0) break;
+      LOGGER.warn(String.format("Embedding disk store %s has a corrupted record at offset %s. Skipping %s byte(s).",
+                                dataFile, offset, next - offset));
+      offset = next;
+    }
+
+    if(offset < fileSize) {
+
+      LOGGER.warn(String.format("Embedding disk store %s has an incomplete record at offset %s. Truncating %s byte(s).",
+                                dataFile, offset, fileSize - offset));
+      channel.truncate(offset);
+    }
+    size = offset;
+  }
+
+  /**
+   * Reads the record starting at the given offset, if it is complete and its checksum matches.
+   *
+   * @return the record, or {@code null} if there is no valid record at the offset.
+   */
+  private Record readRecord(long offset, long fileSize) throws IOException {
+
+    if(fileSize - offset < 12) return null;
+    ByteBuffer header = ByteBuffer.allocate(8);
+    readFully(channel, header, offset);
+    header.flip();
+    if(header.getInt() != RECORD_MAGIC) return null;
+    int keyLength = header.getInt();
+    if(keyLength <= 0 || keyLength > MAX_KEY_LENGTH || offset + 12 + keyLength > fileSize) return null;
+
+    ByteBuffer dimensionBuffer = ByteBuffer.allocate(4);
+    readFully(channel, dimensionBuffer, offset + 8 + keyLength);
+    dimensionBuffer.flip();
+    int dimension = dimensionBuffer.getInt();
+    if(dimension <= 0 || dimension > MAX_DIMENSION) return null;
+
+    int length = Record.length(keyLength, dimension);
+    if(offset + length > fileSize) return null;
+
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    readFully(channel, buffer, offset);
+    buffer.flip();
+    return Record.read(buffer);
+  }
+
+  /**
+   * Scans the data file from the given offset for the start of the next valid record.
+   *
+   * @return the offset of the next valid record, or {@code -1} if there is none.
+   */
+  private long findNextRecord(long from, long fileSize) throws IOException {
+
+    ByteBuffer block = ByteBuffer.allocate(RESYNC_BLOCK_SIZE);
+    long position = from;
+    while(fileSize - position >= 12) {
+
+      int limit = (int) Math.min(block.capacity(), fileSize - position);
+      block.clear();
+      block.limit(limit);
+      readFully(channel, block, position);
+      for(int i = 0; i + 4 <= limit; i++) {
+
+        if(block.getInt(i) == RECORD_MAGIC && readRecord(position + i, fileSize) != null) return position + i;
+      }
+      // Overlap the blocks so that a magic number spanning two of them is not missed
+      position += limit - 3;
+    }
+    return -1;
+  }
+
+  /**
+   * Rewrites the most recently used records, up to the retained percentage of the maximum size, to a new file
+   * which then replaces the data file. Must be called holding the write lock.
+   */
+  private void compact() throws IOException {
+
+    long retainedBytes = maxSizeInBytes * compactionRetainedPercentage / 100;
+    List<Map.Entry<String, IndexEntry>> entries = new ArrayList<>(index.entrySet());
+    entries.sort(Comparator.comparingLong((Map.Entry<String, IndexEntry> entry) -> entry.getValue().lastAccess).reversed());
+
+    Path compactionFile = dataFile.resolveSibling(COMPACTION_FILE_NAME);
+    Map<String, IndexEntry> compactedIndex = new ConcurrentHashMap<>();
+    long offset = 0;
+    try (FileChannel target = FileChannel.open(compactionFile, StandardOpenOption.CREATE,
+                                               StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+
+      for(Map.Entry<String, IndexEntry> entry : entries) {
+
+        IndexEntry indexEntry = entry.getValue();
+        if(offset + indexEntry.length > retainedBytes) break;
+
+        ByteBuffer buffer = ByteBuffer.allocate(indexEntry.length);
+        readFully(channel, buffer, indexEntry.offset);
+        buffer.flip();
+        writeFully(target, buffer, offset);
+        compactedIndex.put(entry.getKey(), new IndexEntry(offset, indexEntry.length, indexEntry.lastAccess));
+        offset += indexEntry.length;
+      }
+      target.force(false);
+    }
+
+    // The lock file stays locked while the data file is replaced
+    file.close();
+    try {
+
+      Files.move(compactionFile, dataFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+
+      // Reopen the data file, compacted or not, so the store remains usable.
+      open();
+    }
+
+    LOGGER.info(String.format("Embedding disk store %s compacted from %s to %s embedding(s), %s to %s byte(s).",
+                              dataFile, index.size(), compactedIndex.size(), size, offset));
+    index.clear();
+    index.putAll(compactedIndex);
+    size = offset;
+  }
+
+  private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+
+    while(buffer.hasRemaining()) {
+
+      int read = channel.read(buffer, position + buffer.position());
+      if(read < 0) throw new IOException("Unexpected end of embedding disk store file.");
+    }
+  }
+
+  private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+
+    while(buffer.hasRemaining()) {
+
+      channel.write(buffer, position + buffer.position());
+    }
+  }
+
+  private static class IndexEntry {
+
+    private final long offset;
+    private final int length;
+    private volatile long lastAccess;
+
+    private IndexEntry(long offset, int length, long lastAccess) {
+
+      this.offset = offset;
+      this.length = length;
+      this.lastAccess = lastAccess;
+    }
+  }
+
+  private static class Record {
+
+    private final String key;
+    private final float[] vector;
+    private final int length;
+
+    private Record(String key, float[] vector, int length) {
+
+      this.key = key;
+      this.vector = vector;
+      this.length = length;
+    }
+
+    private static int length(int keyLength, int dimension) {
+
+      return 4 + 4 + keyLength + 4 + 4 * dimension + 4;
+    }
+
+    private static ByteBuffer write(String key, float[] vector) {
+
+      byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+      ByteBuffer buffer = ByteBuffer.allocate(length(keyBytes.length, vector.length));
+      buffer.putInt(RECORD_MAGIC);
+      buffer.putInt(keyBytes.length);
+      buffer.put(keyBytes);
+      buffer.putInt(vector.length);
+      for(float value : vector) buffer.putFloat(value);
+      buffer.putInt(checksum(buffer.array(), 4, buffer.position() - 4));
+      buffer.flip();
+      return buffer;
+    }
+
+    /**
+     * Reads a record from the given buffer, positioned at the start of the record.
+     *
+     * @return the record, or {@code null} if it is malformed or its checksum does not match.
+     */
+    private static Record read(ByteBuffer buffer) {
+
+      if(buffer.remaining() < 12 || buffer.getInt() != RECORD_MAGIC) return null;
+      int start = buffer.position();
+      int keyLength = buffer.getInt();
+      if(keyLength <= 0 || keyLength > MAX_KEY_LENGTH || buffer.remaining() < keyLength + 4) return null;
+      byte[] keyBytes = new byte[keyLength];
+      buffer.get(keyBytes);
+      int dimension = buffer.getInt();
+      if(dimension <= 0 || dimension > MAX_DIMENSION || buffer.remaining() < 4 * dimension + 4) return null;
+      float[] vector = new float[dimension];
+      for(int i = 0; i < dimension; i++) vector[i] = buffer.getFloat();
+      int end = buffer.position();
+      if(buffer.getInt() != checksum(buffer.array(), buffer.arrayOffset() + start, end - start)) return null;
+      return new Record(new String(keyBytes, StandardCharsets.UTF_8), vector, length(keyLength, dimension));
+    }
+
+    private static int checksum(byte[] bytes, int offset, int length) {
+
+      CRC32 crc = new CRC32();
+      crc.update(bytes, offset, length);
+      return (int) crc.getValue();
+    }
+  }
+}
@@ -0,0 +1,241 @@
+package org.mule.extension.vectors.internal.cache;
+
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import org.mule.extension.vectors.internal.constant.Constants;
+import org.mule.extension.vectors.internal.util.MetadataUtils;
+import org.mule.extension.vectors.internal.util.VectorUtils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory cache of query results.
+ * <p>
+ * Entries are keyed by the store name, the metadata filter, the maximum number of results, the minimum score and
+ * the hash of the query vector quantized to int8, so that vectors differing only by floating point noise share an
+ * entry. The cache is bounded by number of entries, the least recently used being evicted first, and entries expire
+ * after the configured time to live.
+ * <p>
+ * With a similarity threshold, a query missing the cache reuses the results of the most similar cached query with
+ * the same store, filter, maximum number of results and minimum score, if the cosine similarity of their vectors
+ * reaches the threshold. This scans the cached entries, which is cheap next to a round trip to the store.
+ * <p>
+ * The entries of a store are invalidated when data is added to or removed from it. Each store has a generation,
+ * incremented on invalidation, so that the results of a query started before an invalidation are not cached.
+ */
+public class QueryResultCache {
+
+  private final int maxEntries;
+  private final long ttlInMillis;
+  private final Double similarityThreshold;
+
+  private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final Map<String, Long> generations = new HashMap<>();
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  /**
+   * @param maxEntries          the maximum number of cached query results.
+   * @param ttlInMillis         the time after which cached query results expire.
+   * @param similarityThreshold the minimum cosine similarity for the results of a similar query to be reused,
+   *                            {@code null} to only reuse the results of identical queries.
+   */
+  public QueryResultCache(int maxEntries, long ttlInMillis, Double similarityThreshold) {
+
+    this.maxEntries = maxEntries;
+    this.ttlInMillis = ttlInMillis;
+    this.similarityThreshold = similarityThreshold;
+  }
+
+  /**
+   * Builds the key of the queries sharing a store, a filter, a maximum number of results and a minimum score.
+   *
+   * @param storeName  the name of the store.
+   * @param filter     the description of the metadata filter, {@code null} if none.
+   * @param maxResults the maximum number of results.
+   * @param minScore   the minimum score.
+   * @return the query key, to be completed with the query vector.
+   */
+  public static String queryKey(String storeName, String filter, int maxResults, double minScore) {
+
+    return storeName + '\0' + (filter != null ? filter : "") + '\0' + maxResults + '\0' + minScore;
+  }
+
+  /**
+   * Returns the current generation of the given store, to be passed to {@link #put} once the query is done.
+   *
+   * @param storeName the name of the store.
+   * @return the generation.
+   */
+  public synchronized long getGeneration(String storeName) {
+
+    return generations.getOrDefault(storeName, 0L);
+  }
+
+  /**
+   * Returns the cached results of the given query, or of the most similar cached query if a similarity threshold
+   * is set.
+   *
+   * @param queryKey the query key, as built by {@link #queryKey}.
+   * @param vector   the query vector.
+   * @return the cached results, or {@code null} if absent or expired.
+   */
+  public List<EmbeddingMatch<TextSegment>> get(String queryKey, float[] vector) {
+
+    String key = queryKey + '\0' + vectorHash(vector);
+    float[] normalizedVector = similarityThreshold != null ? normalize(vector) : null;
+    long now = System.currentTimeMillis();
+
+    synchronized (this) {
+
+      Entry entry = entries.get(key);
+      if(entry != null && entry.expiresAt < now) {
+
+        entries.remove(key);
+        entry = null;
+      }
+      if(entry == null && normalizedVector != null) {
+
+        String similarKey = null;
+        double bestSimilarity = similarityThreshold;
+        for(Map.Entry<String, Entry> candidate : entries.entrySet()) {
+
+          Entry candidateEntry = candidate.getValue();
+          if(candidateEntry.expiresAt < now || !candidateEntry.queryKey.equals(queryKey) ||
+              candidateEntry.normalizedVector.length != normalizedVector.length) continue;
+          double similarity = dot(normalizedVector, candidateEntry.normalizedVector);
+          if(similarity >= bestSimilarity) {
+
+            bestSimilarity = similarity;
+            similarKey = candidate.getKey();
+          }
+        }
+        // Looked up again, so that the entry becomes the most recently used
+        if(similarKey != null) entry = entries.get(similarKey);
+      }
+      if(entry == null) {
+
+        misses.incrementAndGet();
+        return null;
+      }
+      hits.incrementAndGet();
+      return entry.matches;
+    }
+  }
+
+  /**
+   * Caches the results of a query, evicting least recently used entries if needed. Results are not cached if the
+   * store was invalidated since the given generation.
+   *
+   * @param storeName  the name of the store.
+   * @param queryKey   the query key, as built by {@link #queryKey}.
+   * @param vector     the query vector.
+   * @param matches    the results of the query.
+   * @param generation the generation of the store when the query started.
+   */
+  public void put(String storeName, String queryKey, float[] vector, List<EmbeddingMatch<TextSegment>> matches,
+                  long generation) {
+
+    String key = queryKey + '\0' + vectorHash(vector);
+    Entry entry = new Entry(storeName, queryKey, normalize(vector), Collections.unmodifiableList(matches),
+                            System.currentTimeMillis() + ttlInMillis);
+
+    synchronized (this) {
+
+      if(generation != getGeneration(storeName)) return;
+      entries.put(key, entry);
+
+      Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+      while(entries.size() > maxEntries && iterator.hasNext()) {
+
+        iterator.next();
+        iterator.remove();
+        evictions.incrementAndGet();
+      }
+    }
+  }
+
+  /**
+   * Invalidates the cached results of the given store.
+   *
+   * @param storeName the name of the store.
+   */
+  public synchronized void invalidate(String storeName) {
+
+    generations.merge(storeName, 1L, Long::sum);
+    entries.values().removeIf(entry -> entry.storeName.equals(storeName));
+  }
+
+  public synchronized void clear() {
+
+    entries.clear();
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  public long getHits() {
+    return hits.get();
+  }
+
+  public long getMisses() {
+    return misses.get();
+  }
+
+  public long getEvictions() {
+    return evictions.get();
+  }
+
+  private static String vectorHash(float[] vector) {
+
+    VectorUtils.QuantizedVector quantized = VectorUtils.quantize(vector, Constants.EMBEDDING_QUANTIZATION_INT8);
+    return MetadataUtils.sha256Hex(quantized.getData());
+  }
+
+
+  private static float[] normalize(float[] vector) {
+
+    double norm = 0;
+    for(float value : vector) norm += value * value;
+    norm = Math.sqrt(norm);
+    float[] normalized = new float[vector.length];
+    if(norm == 0) return normalized;
+    for(int i = 0; i < vector.length; i++) normalized[i] = (float) (vector[i] / norm);
+    return normalized;
+  }
+
+  private static double dot(float[] a, float[] b) {
+
+    double dot = 0;
+    for(int i = 0; i < a.length; i++) dot += a[i] * b[i];
+    return dot;
+  }
+
+  private static class Entry {
+
+    private final String storeName;
+    private final String queryKey;
+    private final float[] normalizedVector;
+    private final List<EmbeddingMatch<TextSegment>> matches;
+    private final long expiresAt;
+
+    private Entry(String storeName, String queryKey, float[] normalizedVector, List<EmbeddingMatch<TextSegment>> matches,
+                  long expiresAt) {
+
+      this.storeName = storeName;
+      this.queryKey = queryKey;
+      this.normalizedVector = normalizedVector;
+      this.matches = matches;
+      this.expiresAt = expiresAt;
+    }
+  }
+}
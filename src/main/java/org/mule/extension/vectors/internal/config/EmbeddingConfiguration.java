@@ -1,14 +1,29 @@
 package org.mule.extension.vectors.internal.config;
 
+import org.mule.extension.vectors.internal.cache.EmbeddingCache;
+import org.mule.extension.vectors.internal.cache.EmbeddingDiskStore;
 import org.mule.extension.vectors.internal.connection.model.azureopenai.AzureOpenAIModelConnectionProvider;
 import org.mule.extension.vectors.internal.connection.model.einstein.EinsteinModelConnectionProvider;
 import org.mule.extension.vectors.internal.connection.model.huggingface.HuggingFaceModelConnectionProvider;
 import org.mule.extension.vectors.internal.connection.model.mistralai.MistralAIModelConnectionProvider;
 import org.mule.extension.vectors.internal.connection.model.nomic.NomicModelConnectionProvider;
+import org.mule.extension.vectors.internal.connection.model.onnx.OnnxModelConnectionProvider;
 import org.mule.extension.vectors.internal.connection.model.openai.OpenAIModelConnectionProvider;
+import org.mule.extension.vectors.internal.error.MuleVectorsErrorType;
+import org.mule.extension.vectors.internal.helper.parameter.EmbeddingCacheParameters;
+import org.mule.extension.vectors.internal.helper.parameter.EmbeddingDiskStoreParameters;
 import org.mule.extension.vectors.internal.operation.EmbeddingOperations;
+import org.mule.runtime.api.lifecycle.Disposable;
 import org.mule.runtime.extension.api.annotation.Operations;
 import org.mule.runtime.extension.api.annotation.connectivity.ConnectionProviders;
+import org.mule.runtime.extension.api.annotation.param.ParameterGroup;
+import org.mule.runtime.extension.api.exception.ModuleException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
 
 @org.mule.runtime.extension.api.annotation.Configuration(name = "embeddingConfig")
 @ConnectionProviders({
@@ -17,9 +32,82 @@ import org.mule.runtime.extension.api.annotation.connectivity.ConnectionProvider
     HuggingFaceModelConnectionProvider.class,
     MistralAIModelConnectionProvider.class,
     NomicModelConnectionProvider.class,
+    OnnxModelConnectionProvider.class,
     OpenAIModelConnectionProvider.class})
 @Operations({EmbeddingOperations.class})
-public class EmbeddingConfiguration {
+public class EmbeddingConfiguration implements Disposable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(EmbeddingConfiguration.class);
+
+  @ParameterGroup(name = "Embedding Cache")
+  private EmbeddingCacheParameters embeddingCacheParameters;
+
+  @ParameterGroup(name = "Embedding Disk Store")
+  private EmbeddingDiskStoreParameters embeddingDiskStoreParameters;
+
+  private EmbeddingCache embeddingCache;
+  private EmbeddingDiskStore embeddingDiskStore;
+
+  /**
+   * Returns the embedding cache shared by the operations using this configuration, creating it on first use.
+   *
+   * @return the embedding cache, or {@code null} if caching is disabled.
+   */
+  public synchronized EmbeddingCache getEmbeddingCache() {
+
+    if(embeddingCacheParameters == null || !embeddingCacheParameters.isCacheEnabled()) return null;
+    if(embeddingCache == null) {
+
+      embeddingCache = new EmbeddingCache(
+          embeddingCacheParameters.getCacheMaxEntries(),
+          (long) embeddingCacheParameters.getCacheMaxSizeInMB() * 1024 * 1024,
+          TimeUnit.SECONDS.toMillis(embeddingCacheParameters.getCacheTtlInSeconds()));
+    }
+    return embeddingCache;
+  }
+
+  /**
+   * Returns the embedding disk store used by the operations using this configuration, opening it on first use.
+   *
+   * @return the embedding disk store, or {@code null} if no directory is configured.
+   */
+  public synchronized EmbeddingDiskStore getEmbeddingDiskStore() {
+
+    if(embeddingDiskStoreParameters == null || embeddingDiskStoreParameters.getDiskStoreDirectory() == null ||
+        embeddingDiskStoreParameters.getDiskStoreDirectory().isEmpty()) return null;
+    if(embeddingDiskStore == null) {
+
+      try {
+
+        embeddingDiskStore = new EmbeddingDiskStore(
+            Paths.get(embeddingDiskStoreParameters.getDiskStoreDirectory()),
+            (long) embeddingDiskStoreParameters.getDiskStoreMaxSizeInMB() * 1024 * 1024,
+            embeddingDiskStoreParameters.getDiskStoreCompactionRetainedPercentage());
+      } catch (IOException e) {
+
+        throw new ModuleException(
+            String.format("Unable to open embedding disk store in \"%s\"", embeddingDiskStoreParameters.getDiskStoreDirectory()),
+            MuleVectorsErrorType.EMBEDDING_OPERATIONS_FAILURE,
+            e);
+      }
+    }
+    return embeddingDiskStore;
+  }
+
+  @Override
+  public synchronized void dispose() {
+
+    if(embeddingCache != null) embeddingCache.clear();
+    if(embeddingDiskStore != null) {
+
+      try {
 
+        embeddingDiskStore.close();
+      } catch (IOException e) {
 
+        LOGGER.warn("Unable to close embedding disk store.", e);
+      }
+      embeddingDiskStore = null;
+    }
+  }
 }
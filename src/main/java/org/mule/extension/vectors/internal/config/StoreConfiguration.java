@@ -1,5 +1,6 @@
 package org.mule.extension.vectors.internal.config;
 
+import org.mule.extension.vectors.internal.cache.QueryResultCache;
 import org.mule.extension.vectors.internal.connection.store.aisearch.AISearchStoreConnectionProvider;
 import org.mule.extension.vectors.internal.connection.store.chroma.ChromaStoreConnectionProvider;
 import org.mule.extension.vectors.internal.connection.store.elasticsearch.ElasticsearchStoreConnectionProvider;
@@ -8,9 +9,14 @@ import org.mule.extension.vectors.internal.connection.store.opensearch.OpenSearc
 import org.mule.extension.vectors.internal.connection.store.pgvector.PGVectorStoreConnectionProvider;
 import org.mule.extension.vectors.internal.connection.store.pinecone.PineconeStoreConnectionProvider;
 import org.mule.extension.vectors.internal.connection.store.qdrant.QdrantStoreConnectionProvider;
+import org.mule.extension.vectors.internal.helper.parameter.QueryCacheParameters;
 import org.mule.extension.vectors.internal.operation.StoreOperations;
+import org.mule.runtime.api.lifecycle.Disposable;
 import org.mule.runtime.extension.api.annotation.Operations;
 import org.mule.runtime.extension.api.annotation.connectivity.ConnectionProviders;
+import org.mule.runtime.extension.api.annotation.param.ParameterGroup;
+
+import java.util.concurrent.TimeUnit;
 
 @org.mule.runtime.extension.api.annotation.Configuration(name = "storeConfig")
 @ConnectionProviders({
@@ -23,6 +29,34 @@ import org.mule.runtime.extension.api.annotation.connectivity.ConnectionProvider
     PineconeStoreConnectionProvider.class,
     QdrantStoreConnectionProvider.class})
 @Operations({StoreOperations.class})
-public class StoreConfiguration {
+public class StoreConfiguration implements Disposable {
+
+  @ParameterGroup(name = "Query Cache")
+  private QueryCacheParameters queryCacheParameters;
+
+  private QueryResultCache queryResultCache;
+
+  /**
+   * Returns the query result cache shared by the operations using this configuration, creating it on first use.
+   *
+   * @return the query result cache, or {@code null} if caching is disabled.
+   */
+  public synchronized QueryResultCache getQueryResultCache() {
+
+    if(queryCacheParameters == null || !queryCacheParameters.isQueryCacheEnabled()) return null;
+    if(queryResultCache == null) {
+
+      queryResultCache = new QueryResultCache(
+          queryCacheParameters.getQueryCacheMaxEntries(),
+          TimeUnit.SECONDS.toMillis(queryCacheParameters.getQueryCacheTtlInSeconds()),
+          queryCacheParameters.getQueryCacheSimilarityThreshold());
+    }
+    return queryResultCache;
+  }
+
+  @Override
+  public synchronized void dispose() {
 
+    if(queryResultCache != null) queryResultCache.clear();
+  }
 }
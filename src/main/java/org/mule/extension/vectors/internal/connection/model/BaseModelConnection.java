@@ -1,20 +1,148 @@
 package org.mule.extension.vectors.internal.connection.model;
 
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import org.mule.extension.vectors.internal.metrics.EmbeddingMetricsRegistry;
 import org.mule.runtime.api.connection.ConnectionException;
-import org.mule.runtime.api.connection.ConnectionValidationResult;
-import org.mule.runtime.extension.api.annotation.param.display.DisplayName;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Objects;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
-public interface BaseModelConnection {
+/**
+ * Base class for all embedding model service connections.
+ * <p>
+ * Besides the connection lifecycle, it owns the embedding model instances built on top of the connection so that
+ * the underlying provider clients (HTTP clients, JSON mappers, retry wrappers) are reused across operations.
+ * The same applies to the dimensions of those models. Cached entries are evicted when the connection is disconnected.
+ * <p>
+ * It also holds the {@link EmbeddingRateLimiter} shared by all the flows sending requests through the connection,
+ * and the settings used to coalesce their concurrent requests.
+ * The metrics of the models are registered for the lifetime of the connection and unregistered on disconnection.
+ */
+public abstract class BaseModelConnection {
 
-  String getEmbeddingModelService();
+  private static final Logger LOGGER = LoggerFactory.getLogger(BaseModelConnection.class);
 
-  void connect() throws ConnectionException;
+  private final Map<String, EmbeddingModel> embeddingModels = new ConcurrentHashMap<>();
+  private final Map<String, Integer> embeddingModelDimensions = new ConcurrentHashMap<>();
+  private EmbeddingRateLimiter rateLimiter = EmbeddingRateLimiter.unlimited();
+  private int coalescingWindowMillis;
+  private int coalescingMaxTexts;
+  private int coalescingMaxWaitMillis;
+  private EmbeddingMetricsRegistry metricsRegistry;
 
-  void disconnect();
+  public abstract String getEmbeddingModelService();
 
-  boolean isValid();
+  public abstract void connect() throws ConnectionException;
+
+  public abstract boolean isValid();
+
+  /**
+   * Returns what identifies the service instance the connection sends requests to, such as its endpoint, so that
+   * the models and embeddings of different instances serving the same model name are not mixed up in caches.
+   *
+   * @return the connection fingerprint, empty for services with a single endpoint.
+   */
+  public String getConnectionFingerprint() {
+
+    return "";
+  }
+
+  /**
+   * Releases the resources held by the connection. Subclasses overriding this method must call it.
+   */
+  public synchronized void disconnect() {
+
+    if(metricsRegistry != null) {
+
+      metricsRegistry.close();
+      metricsRegistry = null;
+    }
+    LOGGER.debug(String.format("Evicting %s cached embedding model(s) for %s.", embeddingModels.size(), getEmbeddingModelService()));
+    embeddingModels.clear();
+    embeddingModelDimensions.clear();
+  }
+
+  public EmbeddingRateLimiter getRateLimiter() {
+    return rateLimiter;
+  }
+
+  public void setRateLimiter(EmbeddingRateLimiter rateLimiter) {
+    this.rateLimiter = rateLimiter;
+  }
+
+  /**
+   * Enables the coalescing of the concurrent requests sent through the connection.
+   *
+   * @param windowMillis  the time the first request waits for concurrent requests.
+   * @param maxTexts      the number of texts which triggers the call before the window elapses.
+   * @param maxWaitMillis the time a request waits for the embeddings of the call it was coalesced into.
+   */
+  public void setCoalescing(int windowMillis, int maxTexts, int maxWaitMillis) {
+    this.coalescingWindowMillis = windowMillis;
+    this.coalescingMaxTexts = maxTexts;
+    this.coalescingMaxWaitMillis = maxWaitMillis;
+  }
+
+  public boolean isCoalescingEnabled() {
+    return coalescingWindowMillis > 0 && coalescingMaxTexts > 1;
+  }
+
+  public int getCoalescingWindowMillis() {
+    return coalescingWindowMillis;
+  }
+
+  public int getCoalescingMaxTexts() {
+    return coalescingMaxTexts;
+  }
+
+  public int getCoalescingMaxWaitMillis() {
+    return coalescingMaxWaitMillis;
+  }
+
+  /**
+   * Returns the registry of the metrics of the embedding models used through the connection, created on first use.
+   *
+   * @return the embedding metrics registry.
+   */
+  public synchronized EmbeddingMetricsRegistry getEmbeddingMetricsRegistry() {
+
+    if(metricsRegistry == null) {
+
+      metricsRegistry = new EmbeddingMetricsRegistry(
+          getEmbeddingModelService().toLowerCase() + "-" + Integer.toHexString(System.identityHashCode(this)));
+    }
+    return metricsRegistry;
+  }
+
+  /**
+   * Returns the embedding model cached under the given key, building and caching it if not yet present.
+   *
+   * @param key     the key identifying the model and its parameters.
+   * @param builder the supplier used to build the model when it is not cached.
+   * @return the cached embedding model.
+   */
+  public EmbeddingModel getEmbeddingModel(String key, Supplier<EmbeddingModel> builder) {
+
+    return embeddingModels.computeIfAbsent(key, k -> {
+
+      LOGGER.debug(String.format("Building embedding model %s for %s.", k, getEmbeddingModelService()));
+      return builder.get();
+    });
+  }
+
+  /**
+   * Returns the dimension registered for the given embedding model key, resolving and registering it if not yet
+   * known. Once registered, the dimension is served locally without any call to the embedding model service.
+   *
+   * @param key      the key identifying the model and its parameters.
+   * @param resolver the supplier used to resolve the dimension when it is not registered.
+   * @return the embedding model dimension.
+   */
+  public int getEmbeddingModelDimension(String key, Supplier<Integer> resolver) {
+
+    return embeddingModelDimensions.computeIfAbsent(key, k -> resolver.get());
+  }
 }
@@ -0,0 +1,45 @@
+package org.mule.extension.vectors.internal.connection.model;
+
+import org.mule.runtime.extension.api.annotation.param.ParameterGroup;
+
+/**
+ * Base class for the connection providers of the embedding model services called over the network, with the
+ * settings protecting the service and sharing it between flows. They do not apply to in-process models.
+ */
+public abstract class BaseRemoteModelConnectionProvider extends BaseModelConnectionProvider {
+
+  @ParameterGroup(name = "Rate Limiting")
+  private EmbeddingRateLimitParameters embeddingRateLimitParameters;
+
+  @ParameterGroup(name = "Request Coalescing")
+  private EmbeddingCoalescingParameters embeddingCoalescingParameters;
+
+  /**
+   * Creates the rate limiter shared by all the flows using the connection.
+   *
+   * @return the rate limiter.
+   */
+  private EmbeddingRateLimiter createRateLimiter() {
+
+    if(embeddingRateLimitParameters == null) return EmbeddingRateLimiter.unlimited();
+    return new EmbeddingRateLimiter(embeddingRateLimitParameters.getRequestsPerMinute(),
+                                    embeddingRateLimitParameters.getTokensPerMinute(),
+                                    embeddingRateLimitParameters.getMaxRateLimitRetries());
+  }
+
+  /**
+   * Applies the settings shared by all the embedding model connections.
+   *
+   * @param connection the connection to configure.
+   */
+  protected void configure(BaseModelConnection connection) {
+
+    connection.setRateLimiter(createRateLimiter());
+    if(embeddingCoalescingParameters != null && embeddingCoalescingParameters.isCoalescingEnabled()) {
+
+      connection.setCoalescing(embeddingCoalescingParameters.getCoalescingWindowMillis(),
+                               embeddingCoalescingParameters.getCoalescingMaxTexts(),
+                               embeddingCoalescingParameters.getCoalescingMaxWaitMillis());
+    }
+  }
+}
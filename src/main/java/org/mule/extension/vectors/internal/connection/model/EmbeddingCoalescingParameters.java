@@ -0,0 +1,67 @@
+package org.mule.extension.vectors.internal.connection.model;
+
+import org.mule.runtime.api.meta.ExpressionSupport;
+import org.mule.runtime.extension.api.annotation.Alias;
+import org.mule.runtime.extension.api.annotation.Expression;
+import org.mule.runtime.extension.api.annotation.param.Optional;
+import org.mule.runtime.extension.api.annotation.param.Parameter;
+import org.mule.runtime.extension.api.annotation.param.display.DisplayName;
+import org.mule.runtime.extension.api.annotation.param.display.Placement;
+import org.mule.runtime.extension.api.annotation.param.display.Summary;
+
+public class EmbeddingCoalescingParameters {
+
+  @Parameter
+  @Alias("coalescingEnabled")
+  @DisplayName("Coalesce Concurrent Requests")
+  @Summary("Collect the texts of concurrent requests arriving within a short window and embed them with a single call " +
+      "to the embedding model service.")
+  @Expression(ExpressionSupport.NOT_SUPPORTED)
+  @Placement(order = 1)
+  @Optional(defaultValue = "false")
+  private boolean coalescingEnabled;
+
+  @Parameter
+  @Alias("coalescingWindowMillis")
+  @DisplayName("Coalescing Window (ms)")
+  @Summary("Time the first request waits for concurrent requests before the call is sent. Defaults to 10.")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 2)
+  @Optional(defaultValue = "10")
+  private int coalescingWindowMillis;
+
+  @Parameter
+  @Alias("coalescingMaxTexts")
+  @DisplayName("Coalescing Max Texts")
+  @Summary("Number of texts which triggers the call before the window elapses. Defaults to 64.")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 3)
+  @Optional(defaultValue = "64")
+  private int coalescingMaxTexts;
+
+  @Parameter
+  @Alias("coalescingMaxWaitMillis")
+  @DisplayName("Coalescing Max Wait (ms)")
+  @Summary("Maximum time a request waits for the embeddings of the call it was coalesced into, after which it fails " +
+      "with an AI_SERVICES_FAILURE error. Defaults to 120000.")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 4)
+  @Optional(defaultValue = "120000")
+  private int coalescingMaxWaitMillis;
+
+  public boolean isCoalescingEnabled() {
+    return coalescingEnabled;
+  }
+
+  public int getCoalescingWindowMillis() {
+    return coalescingWindowMillis;
+  }
+
+  public int getCoalescingMaxTexts() {
+    return coalescingMaxTexts;
+  }
+
+  public int getCoalescingMaxWaitMillis() {
+    return coalescingMaxWaitMillis;
+  }
+}
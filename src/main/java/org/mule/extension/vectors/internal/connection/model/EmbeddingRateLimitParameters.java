@@ -0,0 +1,55 @@
+package org.mule.extension.vectors.internal.connection.model;
+
+import org.mule.runtime.api.meta.ExpressionSupport;
+import org.mule.runtime.extension.api.annotation.Alias;
+import org.mule.runtime.extension.api.annotation.Expression;
+import org.mule.runtime.extension.api.annotation.param.Optional;
+import org.mule.runtime.extension.api.annotation.param.Parameter;
+import org.mule.runtime.extension.api.annotation.param.display.DisplayName;
+import org.mule.runtime.extension.api.annotation.param.display.Placement;
+import org.mule.runtime.extension.api.annotation.param.display.Summary;
+
+public class EmbeddingRateLimitParameters {
+
+  @Parameter
+  @Alias("requestsPerMinute")
+  @DisplayName("Requests Per Minute")
+  @Summary("Maximum number of requests sent per minute to the embedding model service by all the flows sharing the connection. " +
+      "0 for no limit.")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 1)
+  @Optional(defaultValue = "0")
+  private int requestsPerMinute;
+
+  @Parameter
+  @Alias("tokensPerMinute")
+  @DisplayName("Tokens Per Minute")
+  @Summary("Maximum number of tokens, estimated, sent per minute to the embedding model service by all the flows sharing " +
+      "the connection. 0 for no limit.")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 2)
+  @Optional(defaultValue = "0")
+  private int tokensPerMinute;
+
+  @Parameter
+  @Alias("maxRateLimitRetries")
+  @DisplayName("Max Rate Limit Retries")
+  @Summary("Maximum number of retries of a request rejected by the embedding model service because of rate limiting. " +
+      "Defaults to 3.")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 3)
+  @Optional(defaultValue = "3")
+  private int maxRateLimitRetries;
+
+  public int getRequestsPerMinute() {
+    return requestsPerMinute;
+  }
+
+  public int getTokensPerMinute() {
+    return tokensPerMinute;
+  }
+
+  public int getMaxRateLimitRetries() {
+    return maxRateLimitRetries;
+  }
+}
@@ -0,0 +1,256 @@
+package org.mule.extension.vectors.internal.connection.model;
+
+import org.mule.extension.vectors.internal.error.AIServicesException;
+import org.mule.extension.vectors.internal.error.MuleVectorsErrorType;
+import org.mule.extension.vectors.internal.metrics.EmbeddingCallStatistics;
+import org.mule.runtime.extension.api.exception.ModuleException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Client-side rate limiter for the requests sent to an embedding model service.
+ * <p>
+ * One instance is held by each {@link BaseModelConnection}, so all the flows using the same configuration share it.
+ * Requests wait for capacity in two token buckets, refilled continuously: one counting requests per minute and
+ * one counting tokens per minute. A limit of {@code 0} disables the corresponding bucket.
+ * <p>
+ * Requests rejected by the service because of rate limiting (429) or overload (503) are retried after the delay
+ * requested by the service, when it can be found, or else after an exponential backoff with full jitter, so that
+ * concurrent flows do not retry in lockstep. While backing off, the limiter holds all the requests sharing it.
+ */
+public class EmbeddingRateLimiter {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(EmbeddingRateLimiter.class);
+
+  private static final long INITIAL_BACKOFF_MILLIS = 500;
+  private static final long MAX_BACKOFF_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+  private static final Pattern RETRY_AFTER_PATTERN =
+      Pattern.compile("(?i)retry[- ]after\\D{0,3}(\\d+(?:\\.\\d+)?)\\s*(ms|s|sec|seconds?)?");
+  private static final Pattern TRY_AGAIN_PATTERN =
+      Pattern.compile("(?i)try again in\\s*(\\d+(?:\\.\\d+)?)\\s*(ms|s|sec|seconds?)");
+  // Only status codes introduced as such, so that numbers elsewhere in a message are not mistaken for one.
+  private static final Pattern STATUS_CODE_PATTERN =
+      Pattern.compile("(?i)(?:\\bstatus(?:[ _]?code)?\\s*[:=]?\\s*|\\bHTTP(?:/\\d(?:\\.\\d)?)?\\s+)([1-5]\\d\\d)\\b");
+
+  private final Bucket requestBucket;
+  private final Bucket tokenBucket;
+  private final int maxRetries;
+
+  private long pausedUntil;
+
+  /**
+   * @param requestsPerMinute the maximum number of requests per minute, {@code 0} for no limit.
+   * @param tokensPerMinute   the maximum number of tokens per minute, {@code 0} for no limit.
+   * @param maxRetries        the maximum number of retries of a rate limited request.
+   */
+  public EmbeddingRateLimiter(int requestsPerMinute, int tokensPerMinute, int maxRetries) {
+
+    this.requestBucket = requestsPerMinute > 0 ? new Bucket(requestsPerMinute) : null;
+    this.tokenBucket = tokensPerMinute > 0 ? new Bucket(tokensPerMinute) : null;
+    this.maxRetries = Math.max(0, maxRetries);
+  }
+
+  /**
+   * Returns a limiter which does not limit the rate of requests, but still retries rate limited ones.
+   *
+   * @return an unbounded rate limiter.
+   */
+  public static EmbeddingRateLimiter unlimited() {
+
+    return new EmbeddingRateLimiter(0, 0, 3);
+  }
+
+  /**
+   * Sends a request through the limiter, waiting for capacity first and retrying it while rate limited.
+   *
+   * @param estimatedTokens the estimated number of tokens in the request.
+   * @param request         the request to send.
+   * @param onRateLimited   called each time the request is rate limited, may be {@code null}.
+   * @return the response of the request.
+   */
+  public <T> T execute(long estimatedTokens, Supplier<T> request, Runnable onRateLimited) {
+
+    int attempt = 0;
+    while(true) {
+
+      acquire(estimatedTokens);
+      try {
+
+        return request.get();
+
+      } catch (RuntimeException e) {
+
+        int statusCode = resolveStatusCode(e);
+        if((statusCode != 429 && statusCode != 503) || attempt >= maxRetries) throw e;
+
+        if(onRateLimited != null) onRateLimited.run();
+        EmbeddingCallStatistics.recordRetry();
+
+        long retryAfterMillis = resolveRetryAfterMillis(e);
+        long delayMillis = retryAfterMillis >= 0 ?
+            retryAfterMillis + ThreadLocalRandom.current().nextLong(INITIAL_BACKOFF_MILLIS) :
+            ThreadLocalRandom.current().nextLong(Math.min(MAX_BACKOFF_MILLIS, INITIAL_BACKOFF_MILLIS << (attempt + 1)));
+        pause(delayMillis);
+        attempt++;
+        LOGGER.debug(String.format("Embedding request rejected with status %s. Retrying in %s ms (attempt %s of %s).",
+                                   statusCode, delayMillis, attempt, maxRetries));
+      }
+    }
+  }
+
+  /**
+   * Waits until the buckets hold capacity for one request of the given number of tokens, and takes it.
+   * A request larger than the token bucket waits for the bucket to be full.
+   *
+   * @param estimatedTokens the estimated number of tokens in the request.
+   */
+  public void acquire(long estimatedTokens) {
+
+    while(true) {
+
+      long waitMillis;
+      synchronized (this) {
+
+        long now = System.currentTimeMillis();
+        waitMillis = pausedUntil - now;
+        if(waitMillis <= 0) {
+
+          long requestWait = requestBucket != null ? requestBucket.waitMillis(1, now) : 0;
+          long tokenWait = tokenBucket != null ? tokenBucket.waitMillis(estimatedTokens, now) : 0;
+          waitMillis = Math.max(requestWait, tokenWait);
+          if(waitMillis <= 0) {
+
+            if(requestBucket != null) requestBucket.take(1);
+            if(tokenBucket != null) tokenBucket.take(estimatedTokens);
+            return;
+          }
+        }
+      }
+      sleep(waitMillis);
+    }
+  }
+
+  private synchronized void pause(long delayMillis) {
+
+    pausedUntil = Math.max(pausedUntil, System.currentTimeMillis() + delayMillis);
+  }
+
+  /**
+   * Resolves the HTTP status code of a failed request. Provider clients do not share an exception type, so the
+   * cause chain is inspected for a status code accessor first. Only when no exception of the chain reports one,
+   * the messages are searched for a status code introduced as such, as in "status code: 429" or "HTTP 429".
+   * Shared by the retries of embedding requests and of store upserts.
+   *
+   * @return the status code, or {@code -1} if it cannot be resolved.
+   */
+  public static int resolveStatusCode(Throwable throwable) {
+
+    for(Throwable cause = throwable; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+
+      if(cause instanceof AIServicesException) return ((AIServicesException) cause).getStatusCode();
+      if(cause instanceof ModuleException &&
+          ((ModuleException) cause).getType() == MuleVectorsErrorType.AI_SERVICES_RATE_LIMITING_ERROR) {
+        return 429;
+      }
+      for(String accessor : new String[] {"code", "statusCode", "getStatusCode"}) {
+
+        try {
+
+          Method method = cause.getClass().getMethod(accessor);
+          Object value = method.invoke(cause);
+          if(value instanceof Integer) return (Integer) value;
+        } catch (ReflectiveOperationException | RuntimeException ignored) {
+          // No such accessor on this exception type.
+        }
+      }
+    }
+    for(Throwable cause = throwable; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+
+      if(cause.getMessage() != null) {
+
+        Matcher matcher = STATUS_CODE_PATTERN.matcher(cause.getMessage());
+        if(matcher.find()) return Integer.parseInt(matcher.group(1));
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Resolves the delay requested by the service before retrying, from a "Retry-After" value or a
+   * "try again in" hint found in the messages of the cause chain.
+   *
+   * @return the delay in milliseconds, or {@code -1} if none was found.
+   */
+  static long resolveRetryAfterMillis(Throwable throwable) {
+
+    for(Throwable cause = throwable; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+
+      String message = cause.getMessage();
+      if(message == null) continue;
+      for(Pattern pattern : new Pattern[] {RETRY_AFTER_PATTERN, TRY_AGAIN_PATTERN}) {
+
+        Matcher matcher = pattern.matcher(message);
+        if(matcher.find()) {
+
+          double value = Double.parseDouble(matcher.group(1));
+          boolean millis = "ms".equalsIgnoreCase(matcher.group(2));
+          return Math.min(MAX_BACKOFF_MILLIS, (long) (millis ? value : value * 1000));
+        }
+      }
+    }
+    return -1;
+  }
+
+  private static void sleep(long millis) {
+
+    try {
+
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+
+      Thread.currentThread().interrupt();
+      throw new ModuleException("Interrupted while waiting for the embedding model service rate limit.",
+                                MuleVectorsErrorType.AI_SERVICES_FAILURE, e);
+    }
+  }
+
+  /**
+   * Token bucket holding up to one minute worth of capacity, refilled continuously.
+   */
+  private static class Bucket {
+
+    private final long capacity;
+    private final double refillPerMillis;
+    private double available;
+    private long lastRefill;
+
+    private Bucket(long perMinute) {
+
+      this.capacity = perMinute;
+      this.refillPerMillis = perMinute / (double) TimeUnit.MINUTES.toMillis(1);
+      this.available = perMinute;
+      this.lastRefill = System.currentTimeMillis();
+    }
+
+    private long waitMillis(long amount, long now) {
+
+      available = Math.min(capacity, available + (now - lastRefill) * refillPerMillis);
+      lastRefill = now;
+      double needed = Math.min(amount, capacity) - available;
+      return needed <= 0 ? 0 : (long) Math.ceil(needed / refillPerMillis);
+    }
+
+    private void take(long amount) {
+
+      available -= Math.min(amount, capacity);
+    }
+  }
+}
@@ -22,7 +22,7 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
-public class AzureOpenAIModelConnection implements BaseModelConnection {
+public class AzureOpenAIModelConnection extends BaseModelConnection {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(AzureOpenAIModelConnection.class);
 
@@ -52,6 +52,12 @@ public class AzureOpenAIModelConnection implements BaseModelConnection {
     return Constants.EMBEDDING_MODEL_SERVICE_AZURE_OPENAI;
   }
 
+  // The deployment is the embedding model name, already part of the embedding model key
+  @Override
+  public String getConnectionFingerprint() {
+    return endpoint != null ? endpoint.replaceAll("/+$", "") : "";
+  }
+
   @Override
   public void connect() throws ConnectionException {
 
@@ -94,6 +100,7 @@ public class AzureOpenAIModelConnection implements BaseModelConnection {
       // Add logic to invalidate connection
       LOGGER.debug("Disconnecting from Azure Open AI.");
     }
+    super.disconnect();
   }
 
   @Override
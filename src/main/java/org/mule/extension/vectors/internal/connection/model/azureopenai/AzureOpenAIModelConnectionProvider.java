@@ -1,7 +1,7 @@
 package org.mule.extension.vectors.internal.connection.model.azureopenai;
 
 import org.mule.extension.vectors.internal.connection.model.BaseModelConnection;
-import org.mule.extension.vectors.internal.connection.model.BaseModelConnectionProvider;
+import org.mule.extension.vectors.internal.connection.model.BaseRemoteModelConnectionProvider;
 import org.mule.extension.vectors.internal.connection.model.einstein.EinsteinModelConnection;
 import org.mule.runtime.api.connection.ConnectionException;
 import org.mule.runtime.api.connection.ConnectionValidationResult;
@@ -14,7 +14,7 @@ import org.slf4j.LoggerFactory;
 
 @Alias("azureOpenAI")
 @DisplayName("Azure OpenAI")
-public class AzureOpenAIModelConnectionProvider  extends BaseModelConnectionProvider {
+public class AzureOpenAIModelConnectionProvider  extends BaseRemoteModelConnectionProvider {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(AzureOpenAIModelConnectionProvider.class);
 
@@ -30,6 +30,7 @@ public class AzureOpenAIModelConnectionProvider  extends BaseModelConnectionProv
           new AzureOpenAIModelConnection(azureOpenAIModelConnectionParameters.getEndpoint(),
                                          azureOpenAIModelConnectionParameters.getApiKey());
 
+      configure(azureOpenAIModelConnection);
       azureOpenAIModelConnection.connect();
       return azureOpenAIModelConnection;
 
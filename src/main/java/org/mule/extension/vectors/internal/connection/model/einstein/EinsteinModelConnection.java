@@ -1,25 +1,41 @@
 package org.mule.extension.vectors.internal.connection.model.einstein;
 
-import org.json.JSONArray;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
+import org.apache.commons.io.IOUtils;
 import org.json.JSONObject;
 import org.mule.extension.vectors.internal.connection.model.BaseModelConnection;
 import org.mule.extension.vectors.internal.constant.Constants;
+import org.mule.extension.vectors.internal.error.AIServicesException;
 import org.mule.extension.vectors.internal.error.MuleVectorsErrorType;
+import org.mule.extension.vectors.internal.util.ExecutorUtils;
 import org.mule.runtime.api.connection.ConnectionException;
 import org.mule.runtime.extension.api.exception.ModuleException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
 
-public class EinsteinModelConnection implements BaseModelConnection {
+public class EinsteinModelConnection extends BaseModelConnection {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(EinsteinModelConnection.class);
 
@@ -29,18 +45,58 @@ public class EinsteinModelConnection implements BaseModelConnection {
   private static final String PARAM_CLIENT_SECRET = "client_secret";
   private static final String GRANT_TYPE_CLIENT_CREDENTIALS = "client_credentials";
   private static final String EINSTEIN_PLATFORM_MODELS_URL = "https://api.salesforce.com/einstein/platform/v1/models/";
+  private static final int DEFAULT_VECTOR_CAPACITY = 1536;
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+  private static final long DEFAULT_TOKEN_VALIDITY_MILLIS = TimeUnit.MINUTES.toMillis(30);
+  private static final int QUEUED_BATCHES_PER_THREAD = 16;
 
   private final String salesforceOrg;
   private final String clientId;
   private final String clientSecret;
 
-  private String accessToken;
+  private final int maxConcurrentBatches;
+  private final int connectTimeout;
+  private final int readTimeout;
 
-  public EinsteinModelConnection(String salesforceOrg, String clientId, String clientSecret) {
+  private final EinsteinTokenManager tokenManager = new EinsteinTokenManager(this::requestAccessToken);
+  private final Semaphore inFlightBatches;
+  private ExecutorService batchExecutor;
+  private boolean disconnected;
+
+  public EinsteinModelConnection(String salesforceOrg, String clientId, String clientSecret, int maxConcurrentBatches,
+                                 int connectTimeout, int readTimeout) {
 
     this.salesforceOrg = salesforceOrg;
     this.clientId = clientId;
     this.clientSecret = clientSecret;
+    this.maxConcurrentBatches = Math.max(1, maxConcurrentBatches);
+    this.inFlightBatches = new Semaphore(this.maxConcurrentBatches, true);
+    this.connectTimeout = connectTimeout;
+    this.readTimeout = readTimeout;
+  }
+
+  public int getMaxConcurrentBatches() {
+    return maxConcurrentBatches;
+  }
+
+  /**
+   * Returns the executor used to send embedding batches concurrently. It is shared by all the operations using
+   * this connection. Once its bounded queue is full, batches are sent from the calling thread instead, which holds
+   * back the operation. Whichever thread sends them, at most {@code maxConcurrentBatches} requests are in flight on
+   * the connection: see {@link #generateEmbeddings(List, String)}.
+   *
+   * @return the batch executor
+   * @throws RejectedExecutionException if the connection is disconnected
+   */
+  public synchronized ExecutorService getBatchExecutor() {
+
+    if(disconnected) throw new RejectedExecutionException("Connection to \"EINSTEIN\" embedding model service is closed.");
+    if(batchExecutor == null) {
+
+      batchExecutor = ExecutorUtils.newCallerRunsThreadPool(
+          "einstein-embedding-batch", maxConcurrentBatches, maxConcurrentBatches * QUEUED_BATCHES_PER_THREAD);
+    }
+    return batchExecutor;
   }
 
   @Override
@@ -48,16 +104,17 @@ public class EinsteinModelConnection implements BaseModelConnection {
     return Constants.EMBEDDING_MODEL_SERVICE_EINSTEIN;
   }
 
+  @Override
+  public String getConnectionFingerprint() {
+    return salesforceOrg;
+  }
+
   @Override
   public void connect() throws ConnectionException {
 
     try {
 
-      this.accessToken = getAccessToken(salesforceOrg, clientId, clientSecret);
-      if (this.accessToken == null) {
-
-        throw new ConnectionException("Failed to connect to Salesforce: HTTP " + accessToken);
-      }
+      tokenManager.getAccessToken();
     } catch (Exception e) {
 
       throw new ConnectionException("Failed to connect to Salesforce", e);
@@ -67,13 +124,24 @@ public class EinsteinModelConnection implements BaseModelConnection {
   @Override
   public void disconnect() {
 
-    // Add logic to invalidate connection
+    synchronized (this) {
+
+      disconnected = true;
+      if(batchExecutor != null) {
+
+        batchExecutor.shutdownNow();
+        batchExecutor = null;
+      }
+    }
+    tokenManager.close();
+    super.disconnect();
   }
 
   @Override
   public boolean isValid() {
 
-    return isAccessTokenValid();
+    // Answered from the locally tracked token expiry, no call to Salesforce is needed
+    return tokenManager.isValid();
   }
 
   private  String getOAuthURL() {
@@ -90,21 +158,22 @@ public class EinsteinModelConnection implements BaseModelConnection {
 
   /**
    * Authenticates with Salesforce and obtains an access token.
+   * <p>
+   * The token expiry is computed from the time the response is received, on the local clock it is checked against,
+   * plus {@code expires_in} when Salesforce returns it, or else {@link #DEFAULT_TOKEN_VALIDITY_MILLIS}. An expired
+   * token rejected earlier is still handled by refreshing it on 401.
    *
-   * @param salesforceOrg Salesforce organization identifier
-   * @param clientId OAuth client ID
-   * @param clientSecret OAuth client secret
    * @return Access token for API calls
-   * @throws ModuleException if authentication fails
+   * @throws ConnectionException if authentication fails
    */
-  private String getAccessToken(String salesforceOrg, String clientId, String clientSecret) throws ConnectionException {
+  private EinsteinTokenManager.AccessToken requestAccessToken() throws ConnectionException {
 
     String tokenUrl = getOAuthURL();
     String oAuthParams = getOAuthParams();
 
     try {
       URL url = new URL(tokenUrl);
-      HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+      HttpURLConnection conn = openConnection(url);
 
       // Configure connection for OAuth token request
       conn.setDoOutput(true);
@@ -120,16 +189,14 @@ public class EinsteinModelConnection implements BaseModelConnection {
       int responseCode = conn.getResponseCode();
       if (responseCode == HttpURLConnection.HTTP_OK) {
         // Read and parse response
-        try (java.io.BufferedReader br = new java.io.BufferedReader(
-            new java.io.InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8))) {
-          StringBuilder response = new StringBuilder();
-          String responseLine;
-          while ((responseLine = br.readLine()) != null) {
-            response.append(responseLine.trim());
-          }
-          return new JSONObject(response.toString()).getString("access_token");
-        }
+        JSONObject jsonResponse = new JSONObject(readBody(conn));
+        // issued_at is on the clock of Salesforce, which may differ from the local one
+        long receivedAt = System.currentTimeMillis();
+        long expiresAt = jsonResponse.has("expires_in") ?
+            receivedAt + TimeUnit.SECONDS.toMillis(jsonResponse.getLong("expires_in")) : receivedAt + DEFAULT_TOKEN_VALIDITY_MILLIS;
+        return new EinsteinTokenManager.AccessToken(jsonResponse.getString("access_token"), receivedAt, expiresAt);
       } else {
+        drainErrorStream(conn);
         throw new ConnectionException("Error while getting access token for \"EINSTEIN\" embedding model service. " +
                                           "Response code: " + responseCode);
       }
@@ -144,23 +211,51 @@ public class EinsteinModelConnection implements BaseModelConnection {
     }
   }
 
-  private Boolean isAccessTokenValid() {
+  /**
+   * Opens an HTTP connection with the configured timeouts and compression settings.
+   * <p>
+   * Persistent connections are the default of HTTP/1.1 and need no header: {@link HttpURLConnection} ignores a
+   * {@code Connection} request header anyway. It returns a socket to the JVM keep-alive cache, for the next request
+   * to the same host to skip the TCP and TLS handshakes, once the response body has been fully read and closed. The
+   * cache is governed by the {@code http.keepAlive} and {@code http.maxConnections} system properties.
+   *
+   * @param url The endpoint URL
+   * @return Configured HttpURLConnection
+   * @throws IOException if connection setup fails
+   */
+  private HttpURLConnection openConnection(URL url) throws IOException {
+
+    HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+    conn.setConnectTimeout(connectTimeout);
+    conn.setReadTimeout(readTimeout);
+    conn.setRequestProperty("Accept-Encoding", "gzip");
+    return conn;
+  }
 
-    String urlString = Constants.URI_HTTPS_PREFIX + salesforceOrg + "/services/oauth2/userinfo";
+  /**
+   * Returns the response stream of the connection, decompressing it when the server sent it gzip encoded.
+   */
+  private static InputStream getResponseStream(HttpURLConnection conn, InputStream inputStream) throws IOException {
 
-    try {
-      URL url = new URL(urlString);
-      HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+    return "gzip".equalsIgnoreCase(conn.getContentEncoding()) ? new GZIPInputStream(inputStream) : inputStream;
+  }
 
-      conn.setRequestMethod("GET");
-      conn.setRequestProperty("Authorization", "Bearer " + this.accessToken);
+  private static String readBody(HttpURLConnection conn) throws IOException {
 
-     return conn.getResponseCode() == HttpURLConnection.HTTP_OK;
+    try (InputStream is = getResponseStream(conn, conn.getInputStream())) {
+      return IOUtils.toString(is, StandardCharsets.UTF_8);
+    }
+  }
 
-    } catch (Exception e) {
+  /**
+   * Reads the error response body, if any. Reading it fully also allows the socket to be reused.
+   */
+  private static String drainErrorStream(HttpURLConnection conn) throws IOException {
 
-      LOGGER.error("Error while validating access token for \"EINSTEIN\" embedding model service.", e);
-      return false;
+    InputStream errorStream = conn.getErrorStream();
+    if(errorStream == null) return "";
+    try (InputStream is = getResponseStream(conn, errorStream)) {
+      return IOUtils.toString(is, StandardCharsets.UTF_8);
     }
   }
 
@@ -168,13 +263,13 @@ public class EinsteinModelConnection implements BaseModelConnection {
    * Creates and configures an HTTP connection for Einstein API requests.
    *
    * @param url The endpoint URL
+   * @param accessToken The access token sent with the request
    * @return Configured HttpURLConnection
    * @throws IOException if connection setup fails
    */
-  private HttpURLConnection prepareHttpURLConnection(URL url) throws IOException, ConnectionException {
+  private HttpURLConnection prepareHttpURLConnection(URL url, String accessToken) throws IOException {
 
-    if(accessToken == null) connect();
-    HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+    HttpURLConnection conn = openConnection(url);
     conn.setDoOutput(true);
     conn.setRequestMethod("POST");
     conn.setRequestProperty("Authorization", "Bearer " + accessToken);
@@ -185,45 +280,160 @@ public class EinsteinModelConnection implements BaseModelConnection {
   }
 
   /**
-   * Builds JSON payload for batch text embedding request.
+   * Writes the JSON payload for batch text embedding request straight to the request stream.
    *
    * @param texts List of texts to embed
-   * @return JSON string payload
+   * @param outputStream The request stream
+   * @throws IOException if writing fails
    */
-  private String buildEmbeddingsPayload(List<String> texts) {
+  private static void writeEmbeddingsPayload(List<String> texts, OutputStream outputStream) throws IOException {
 
-    JSONArray input = new JSONArray(texts);
-    JSONObject jsonObject = new JSONObject();
-    jsonObject.put("input", input);
-    return jsonObject.toString();
+    try (JsonGenerator generator = JSON_FACTORY.createGenerator(outputStream, JsonEncoding.UTF8)) {
+      generator.writeStartObject();
+      generator.writeArrayFieldStart("input");
+      for(String text : texts) {
+        generator.writeString(text);
+      }
+      generator.writeEndArray();
+      generator.writeEndObject();
+    }
   }
 
   /**
-   * Makes the API call to Einstein to generate embeddings.
+   * Parses the Einstein embeddings response while it is read, writing vector components straight into
+   * float arrays without building an intermediate JSON tree or string.
+   *
+   * @param inputStream The response stream
+   * @return The embeddings and the total token usage
+   * @throws IOException if the response cannot be read or parsed
+   */
+  private static Response<List<Embedding>> parseEmbeddingsResponse(InputStream inputStream) throws IOException {
+
+    List<Embedding> embeddings = new ArrayList<>();
+    int totalTokens = 0;
+
+    try (JsonParser parser = JSON_FACTORY.createParser(inputStream)) {
+
+      if(parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new IOException("Unexpected embeddings response. JSON object expected.");
+      }
+
+      while(parser.nextToken() == JsonToken.FIELD_NAME) {
+
+        String fieldName = parser.getCurrentName();
+        parser.nextToken();
+
+        if("embeddings".equals(fieldName) && parser.currentToken() == JsonToken.START_ARRAY) {
+
+          while(parser.nextToken() == JsonToken.START_OBJECT) {
+
+            float[] vector = null;
+            while(parser.nextToken() == JsonToken.FIELD_NAME) {
+
+              String embeddingFieldName = parser.getCurrentName();
+              parser.nextToken();
+              if("embedding".equals(embeddingFieldName) && parser.currentToken() == JsonToken.START_ARRAY) {
+                vector = readVector(parser);
+              } else {
+                parser.skipChildren();
+              }
+            }
+            if(vector == null) {
+              throw new IOException("Unexpected embeddings response. Embedding vector missing.");
+            }
+            embeddings.add(Embedding.from(vector));
+          }
+
+        } else if("parameters".equals(fieldName) && parser.currentToken() == JsonToken.START_OBJECT) {
+
+          while(parser.nextToken() == JsonToken.FIELD_NAME) {
+
+            String parameterName = parser.getCurrentName();
+            parser.nextToken();
+            if("usage".equals(parameterName) && parser.currentToken() == JsonToken.START_OBJECT) {
+
+              while(parser.nextToken() == JsonToken.FIELD_NAME) {
+
+                String usageName = parser.getCurrentName();
+                parser.nextToken();
+                if("total_tokens".equals(usageName)) {
+                  totalTokens = parser.getIntValue();
+                } else {
+                  parser.skipChildren();
+                }
+              }
+            } else {
+              parser.skipChildren();
+            }
+          }
+
+        } else {
+
+          parser.skipChildren();
+        }
+      }
+    }
+
+    return Response.from(embeddings, new TokenUsage(totalTokens));
+  }
+
+  private static float[] readVector(JsonParser parser) throws IOException {
+
+    float[] vector = new float[DEFAULT_VECTOR_CAPACITY];
+    int size = 0;
+    while(parser.nextToken() != JsonToken.END_ARRAY) {
+      if(size == vector.length) {
+        vector = Arrays.copyOf(vector, vector.length * 2);
+      }
+      vector[size++] = parser.getFloatValue();
+    }
+    return size == vector.length ? vector : Arrays.copyOf(vector, size);
+  }
+
+  /**
+   * Makes the API call to Einstein to generate embeddings. The call waits until fewer than
+   * {@code maxConcurrentBatches} calls are in flight on the connection, so that the bound holds for the batches sent
+   * from the batch executor and from the calling threads alike.
    *
    * @param inputs text list
-   * @return JSON response string
+   * @param modelName the Einstein embedding model name
+   * @return the embeddings, in input order, and the token usage
    * @throws ModuleException if the API call fails
    */
-  public String generateEmbeddings(List<String> inputs, String modelName) {
+  public Response<List<Embedding>> generateEmbeddings(List<String> inputs, String modelName) {
 
-    return generateEmbeddings(inputs, modelName, false);
-  }
+    try {
 
-  private String generateEmbeddings(List<String> inputs, String modelName, Boolean tokenExpired) {
+      inFlightBatches.acquire();
+    } catch (InterruptedException e) {
 
-    String payload = buildEmbeddingsPayload(inputs);
+      Thread.currentThread().interrupt();
+      throw new ModuleException("Interrupted while waiting to send embeddings request to \"EINSTEIN\" embedding model service.",
+                                MuleVectorsErrorType.AI_SERVICES_FAILURE, e);
+    }
+    try {
+
+      return generateEmbeddings(inputs, modelName, false);
+    } finally {
+
+      inFlightBatches.release();
+    }
+  }
+
+  private Response<List<Embedding>> generateEmbeddings(List<String> inputs, String modelName, Boolean tokenExpired) {
 
     int responseCode = -1;
 
     try {
       // Prepare connection
       String urlString = EINSTEIN_PLATFORM_MODELS_URL + modelName + "/embeddings";
+      String accessToken;
       HttpURLConnection connection;
       try {
 
         URL url = new URL(urlString);
-        connection = prepareHttpURLConnection(url);
+        accessToken = tokenManager.getAccessToken();
+        connection = prepareHttpURLConnection(url, accessToken);
       } catch (Exception e) {
 
         throw new ModuleException(
@@ -234,62 +444,47 @@ public class EinsteinModelConnection implements BaseModelConnection {
 
       // Send request
       try (OutputStream os = connection.getOutputStream()) {
-        byte[] input = payload.getBytes(StandardCharsets.UTF_8);
-        os.write(input, 0, input.length);
+        writeEmbeddingsPayload(inputs, os);
       }
 
       responseCode = connection.getResponseCode();
 
       if (responseCode == HttpURLConnection.HTTP_OK) {
-        // Read response
-        try (BufferedReader br = new BufferedReader(
-            new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
-          StringBuilder response = new StringBuilder();
-          String responseLine;
-          while ((responseLine = br.readLine()) != null) {
-            response.append(responseLine.trim());
-          }
-          return response.toString();
+        // Parse response as it is read
+        try (InputStream is = getResponseStream(connection, connection.getInputStream())) {
+          return parseEmbeddingsResponse(is);
         }
 
       // TOKEN EXPIRED
       } else if (responseCode == 401 && !tokenExpired) {
 
         LOGGER.debug("Salesforce access token expired.");
-        // Reconnect to get new token
-        connect();
+        drainErrorStream(connection);
+        // Replace the expired token, unless a concurrent request already did
+        tokenManager.refresh(accessToken);
         // Re-try one more time
         return generateEmbeddings(inputs, modelName, true);
 
       } else {
 
         // Get response body
-        String responseBody = "";
-        if(connection.getErrorStream() != null) {
-
-          // Read error response
-          try (BufferedReader in = new BufferedReader(
-              new InputStreamReader(connection.getErrorStream(), StandardCharsets.UTF_8))) {
-            String inputLine;
-            StringBuilder response = new StringBuilder();
-            while ((inputLine = in.readLine()) != null) {
-              response.append(inputLine);
-            }
-            responseBody = response.toString();
-          }
-        }
+        String responseBody = drainErrorStream(connection);
         // Print the error response
         LOGGER.error("Error (HTTP " + responseCode + "): " + responseBody);
 
         MuleVectorsErrorType muleVectorsErrorType = responseCode == 429 ?
             MuleVectorsErrorType.AI_SERVICES_RATE_LIMITING_ERROR : MuleVectorsErrorType.AI_SERVICES_FAILURE;
+        // Surface the delay requested by Einstein so that the rate limiter waits for it
+        String retryAfter = connection.getHeaderField("Retry-After");
 
-        throw new ModuleException(
+        throw new AIServicesException(
             String.format(
-                "Error while generating embeddings with \"EINSTEIN\" embedding model service. Response code: %s. Response %s.",
+                "Error while generating embeddings with \"EINSTEIN\" embedding model service. Response code: %s. Response %s.%s",
                 responseCode,
-                responseBody),
-            muleVectorsErrorType);
+                responseBody,
+                retryAfter != null ? " Retry after " + retryAfter + " seconds." : ""),
+            muleVectorsErrorType,
+            responseCode);
       }
     } catch (ModuleException e) {
 
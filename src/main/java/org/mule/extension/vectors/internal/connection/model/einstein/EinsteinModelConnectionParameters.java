@@ -4,6 +4,7 @@ import org.mule.extension.vectors.internal.connection.model.BaseModelConnectionP
 import org.mule.runtime.api.meta.ExpressionSupport;
 import org.mule.runtime.extension.api.annotation.Alias;
 import org.mule.runtime.extension.api.annotation.Expression;
+import org.mule.runtime.extension.api.annotation.param.Optional;
 import org.mule.runtime.extension.api.annotation.param.Parameter;
 import org.mule.runtime.extension.api.annotation.param.display.*;
 
@@ -31,6 +32,33 @@ public class EinsteinModelConnectionParameters extends BaseModelConnectionParame
   @Example("<your-connected-app-client-secret>")
   private String clientSecret;
 
+  @Parameter
+  @Alias("maxConcurrentBatches")
+  @DisplayName("Max Concurrent Batches")
+  @Summary("Maximum number of embedding batches sent concurrently to Einstein. Defaults to 4.")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 4)
+  @Optional(defaultValue = "4")
+  private int maxConcurrentBatches;
+
+  @Parameter
+  @Alias("connectTimeout")
+  @DisplayName("Connect Timeout (ms)")
+  @Summary("Timeout in milliseconds to establish a connection to Einstein. Defaults to 30000.")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 5)
+  @Optional(defaultValue = "30000")
+  private int connectTimeout;
+
+  @Parameter
+  @Alias("readTimeout")
+  @DisplayName("Read Timeout (ms)")
+  @Summary("Timeout in milliseconds to read a response from Einstein. Defaults to 60000.")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 6)
+  @Optional(defaultValue = "60000")
+  private int readTimeout;
+
   public String getSalesforceOrg() {
     return salesforceOrg;
   }
@@ -42,4 +70,16 @@ public class EinsteinModelConnectionParameters extends BaseModelConnectionParame
   public String getClientSecret() {
     return clientSecret;
   }
+
+  public int getMaxConcurrentBatches() {
+    return maxConcurrentBatches;
+  }
+
+  public int getConnectTimeout() {
+    return connectTimeout;
+  }
+
+  public int getReadTimeout() {
+    return readTimeout;
+  }
 }
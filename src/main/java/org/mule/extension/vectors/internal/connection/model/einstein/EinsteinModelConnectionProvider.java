@@ -1,7 +1,7 @@
 package org.mule.extension.vectors.internal.connection.model.einstein;
 
 import org.mule.extension.vectors.internal.connection.model.BaseModelConnection;
-import org.mule.extension.vectors.internal.connection.model.BaseModelConnectionProvider;
+import org.mule.extension.vectors.internal.connection.model.BaseRemoteModelConnectionProvider;
 import org.mule.runtime.api.connection.ConnectionException;
 import org.mule.runtime.api.connection.ConnectionValidationResult;
 import org.mule.runtime.extension.api.annotation.Alias;
@@ -13,7 +13,7 @@ import org.slf4j.LoggerFactory;
 
 @Alias("einstein")
 @DisplayName("Einstein")
-public class EinsteinModelConnectionProvider extends BaseModelConnectionProvider {
+public class EinsteinModelConnectionProvider extends BaseRemoteModelConnectionProvider {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(EinsteinModelConnectionProvider.class);
 
@@ -28,8 +28,12 @@ public class EinsteinModelConnectionProvider extends BaseModelConnectionProvider
       EinsteinModelConnection einsteinModelConnection =
           new EinsteinModelConnection(einsteinModelConnectionParameters.getSalesforceOrg(),
                                       einsteinModelConnectionParameters.getClientId(),
-                                      einsteinModelConnectionParameters.getClientSecret());
+                                      einsteinModelConnectionParameters.getClientSecret(),
+                                      einsteinModelConnectionParameters.getMaxConcurrentBatches(),
+                                      einsteinModelConnectionParameters.getConnectTimeout(),
+                                      einsteinModelConnectionParameters.getReadTimeout());
 
+      configure(einsteinModelConnection);
       einsteinModelConnection.connect();
       return einsteinModelConnection;
 
@@ -0,0 +1,176 @@
+package org.mule.extension.vectors.internal.connection.model.einstein;
+
+import org.mule.runtime.api.connection.ConnectionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Manages the lifecycle of the OAuth access token used by an {@link EinsteinModelConnection}.
+ * <p>
+ * The token is shared by all the threads using the connection. Its issue and expiry times are tracked locally,
+ * so validity can be checked without calling Salesforce, and it is refreshed in the background shortly before
+ * it expires. When a request is rejected with an expired token, only one thread refreshes it: the others
+ * pick up the new token.
+ */
+public class EinsteinTokenManager {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(EinsteinTokenManager.class);
+
+  private static final long REFRESH_MARGIN_MILLIS = TimeUnit.MINUTES.toMillis(5);
+  private static final long MIN_REFRESH_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+  /**
+   * Requests a new access token from Salesforce.
+   */
+  @FunctionalInterface
+  public interface AccessTokenProvider {
+
+    AccessToken requestAccessToken() throws ConnectionException;
+  }
+
+  /**
+   * An access token along with its issue and expiry times, in milliseconds since the epoch on the local clock.
+   */
+  public static class AccessToken {
+
+    private final String value;
+    private final long issuedAt;
+    private final long expiresAt;
+
+    public AccessToken(String value, long issuedAt, long expiresAt) {
+      this.value = value;
+      this.issuedAt = issuedAt;
+      this.expiresAt = expiresAt;
+    }
+
+    public String getValue() {
+      return value;
+    }
+
+    public long getIssuedAt() {
+      return issuedAt;
+    }
+
+    public long getExpiresAt() {
+      return expiresAt;
+    }
+  }
+
+  private final AccessTokenProvider accessTokenProvider;
+
+  private volatile AccessToken accessToken;
+  private ScheduledExecutorService scheduler;
+  private ScheduledFuture<?> refreshTask;
+  private boolean closed;
+
+  public EinsteinTokenManager(AccessTokenProvider accessTokenProvider) {
+    this.accessTokenProvider = accessTokenProvider;
+  }
+
+  /**
+   * Returns the current access token, requesting a new one only if there is none or it has expired.
+   *
+   * @return the access token value
+   * @throws ConnectionException if a new token cannot be obtained
+   */
+  public String getAccessToken() throws ConnectionException {
+
+    AccessToken current = accessToken;
+    if(isValid(current)) return current.getValue();
+    return refresh(current != null ? current.getValue() : null);
+  }
+
+  /**
+   * Replaces the given stale token with a new one. If another thread already replaced it, the token obtained
+   * by that thread is returned and no request is sent to Salesforce.
+   *
+   * @param staleToken the token rejected by Salesforce, or {@code null} if none was used
+   * @return the new access token value
+   * @throws ConnectionException if a new token cannot be obtained
+   */
+  public synchronized String refresh(String staleToken) throws ConnectionException {
+
+    AccessToken current = accessToken;
+    if(isValid(current) && !current.getValue().equals(staleToken)) {
+      return current.getValue();
+    }
+
+    AccessToken refreshed = accessTokenProvider.requestAccessToken();
+    this.accessToken = refreshed;
+    scheduleRefresh(refreshed);
+    LOGGER.debug("Salesforce access token refreshed.");
+    return refreshed.getValue();
+  }
+
+  /**
+   * Checks, from local state only, whether there is an access token which has not expired.
+   *
+   * @return {@code true} if the current token is still valid
+   */
+  public boolean isValid() {
+
+    return isValid(accessToken);
+  }
+
+  /**
+   * Discards the current token and stops the background refresh. Tokens requested afterwards are not refreshed in
+   * the background, so that a refresh racing the close does not start a new scheduler.
+   */
+  public synchronized void close() {
+
+    closed = true;
+    if(scheduler != null) {
+
+      scheduler.shutdownNow();
+      scheduler = null;
+      refreshTask = null;
+    }
+    accessToken = null;
+  }
+
+  private static boolean isValid(AccessToken token) {
+
+    return token != null && System.currentTimeMillis() < token.getExpiresAt();
+  }
+
+  private void scheduleRefresh(AccessToken token) {
+
+    long lifetime = token.getExpiresAt() - token.getIssuedAt();
+    long refreshAt = token.getExpiresAt() - Math.min(REFRESH_MARGIN_MILLIS, lifetime / 10);
+    scheduleRefreshIn(Math.max(MIN_REFRESH_DELAY_MILLIS, refreshAt - System.currentTimeMillis()));
+  }
+
+  private synchronized void scheduleRefreshIn(long delayMillis) {
+
+    if(closed) return;
+    if(scheduler == null) {
+
+      scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "einstein-token-refresh");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    if(refreshTask != null) refreshTask.cancel(false);
+    refreshTask = scheduler.schedule(this::backgroundRefresh, delayMillis, TimeUnit.MILLISECONDS);
+  }
+
+  private void backgroundRefresh() {
+
+    AccessToken current = accessToken;
+    try {
+
+      refresh(current != null ? current.getValue() : null);
+    } catch (Exception e) {
+
+      // The current token, if still valid, keeps being used. Try again shortly.
+      LOGGER.warn("Unable to refresh Salesforce access token in background.", e);
+      if(isValid(current)) scheduleRefreshIn(MIN_REFRESH_DELAY_MILLIS);
+    }
+  }
+}
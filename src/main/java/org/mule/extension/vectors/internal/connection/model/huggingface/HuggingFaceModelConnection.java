@@ -16,7 +16,7 @@ import java.net.URL;
 
 @Alias("huggingFace")
 @DisplayName("Hugging Face")
-public class HuggingFaceModelConnection implements BaseModelConnection {
+public class HuggingFaceModelConnection extends BaseModelConnection {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(HuggingFaceModelConnection.class);
 
@@ -56,6 +56,7 @@ public class HuggingFaceModelConnection implements BaseModelConnection {
   @Override
   public void disconnect() {
 
+    super.disconnect();
   }
 
   @Override
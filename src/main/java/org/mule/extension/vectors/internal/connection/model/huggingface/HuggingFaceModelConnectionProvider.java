@@ -1,7 +1,7 @@
 package org.mule.extension.vectors.internal.connection.model.huggingface;
 
 import org.mule.extension.vectors.internal.connection.model.BaseModelConnection;
-import org.mule.extension.vectors.internal.connection.model.BaseModelConnectionProvider;
+import org.mule.extension.vectors.internal.connection.model.BaseRemoteModelConnectionProvider;
 import org.mule.extension.vectors.internal.connection.model.mistralai.MistralAIModelConnection;
 import org.mule.runtime.api.connection.ConnectionException;
 import org.mule.runtime.api.connection.ConnectionValidationResult;
@@ -14,7 +14,7 @@ import org.slf4j.LoggerFactory;
 
 @Alias("huggingFace")
 @DisplayName("Hugging Face")
-public class HuggingFaceModelConnectionProvider extends BaseModelConnectionProvider {
+public class HuggingFaceModelConnectionProvider extends BaseRemoteModelConnectionProvider {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(HuggingFaceModelConnectionProvider.class);
 
@@ -28,6 +28,7 @@ public class HuggingFaceModelConnectionProvider extends BaseModelConnectionProvi
 
       HuggingFaceModelConnection huggingFaceModelConnection =
           new HuggingFaceModelConnection(huggingFaceModelConnectionParameters.getApiKey());
+      configure(huggingFaceModelConnection);
       huggingFaceModelConnection.connect();
       return huggingFaceModelConnection;
 
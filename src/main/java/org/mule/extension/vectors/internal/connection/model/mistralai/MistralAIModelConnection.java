@@ -17,7 +17,7 @@ import java.net.URL;
 
 @Alias("mistralAI")
 @DisplayName("Mistral AI")
-public class MistralAIModelConnection implements BaseModelConnection {
+public class MistralAIModelConnection extends BaseModelConnection {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(MistralAIModelConnection.class);
 
@@ -57,6 +57,7 @@ public class MistralAIModelConnection implements BaseModelConnection {
   @Override
   public void disconnect() {
 
+    super.disconnect();
   }
 
   @Override
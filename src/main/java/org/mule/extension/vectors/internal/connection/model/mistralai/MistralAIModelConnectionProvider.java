@@ -1,7 +1,7 @@
 package org.mule.extension.vectors.internal.connection.model.mistralai;
 
 import org.mule.extension.vectors.internal.connection.model.BaseModelConnection;
-import org.mule.extension.vectors.internal.connection.model.BaseModelConnectionProvider;
+import org.mule.extension.vectors.internal.connection.model.BaseRemoteModelConnectionProvider;
 import org.mule.runtime.api.connection.ConnectionException;
 import org.mule.runtime.api.connection.ConnectionValidationResult;
 import org.mule.runtime.extension.api.annotation.Alias;
@@ -13,7 +13,7 @@ import org.slf4j.LoggerFactory;
 
 @Alias("mistralAI")
 @DisplayName("Mistral AI")
-public class MistralAIModelConnectionProvider  extends BaseModelConnectionProvider {
+public class MistralAIModelConnectionProvider  extends BaseRemoteModelConnectionProvider {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(MistralAIModelConnectionProvider.class);
 
@@ -27,6 +27,7 @@ public class MistralAIModelConnectionProvider  extends BaseModelConnectionProvid
 
       MistralAIModelConnection mistralAIModelConnection =
           new MistralAIModelConnection(mistralAIModelConnectionParameters.getApiKey());
+      configure(mistralAIModelConnection);
       mistralAIModelConnection.connect();
       return mistralAIModelConnection;
 
@@ -16,7 +16,7 @@ import java.net.URL;
 
 @Alias("nomic")
 @DisplayName("Nomic")
-public class NomicModelConnection implements BaseModelConnection {
+public class NomicModelConnection extends BaseModelConnection {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(NomicModelConnection.class);
 
@@ -59,6 +59,7 @@ public class NomicModelConnection implements BaseModelConnection {
   @Override
   public void disconnect() {
 
+    super.disconnect();
   }
 
   @Override
@@ -1,7 +1,7 @@
 package org.mule.extension.vectors.internal.connection.model.nomic;
 
 import org.mule.extension.vectors.internal.connection.model.BaseModelConnection;
-import org.mule.extension.vectors.internal.connection.model.BaseModelConnectionProvider;
+import org.mule.extension.vectors.internal.connection.model.BaseRemoteModelConnectionProvider;
 import org.mule.extension.vectors.internal.connection.model.openai.OpenAIModelConnection;
 import org.mule.runtime.api.connection.ConnectionException;
 import org.mule.runtime.api.connection.ConnectionValidationResult;
@@ -14,7 +14,7 @@ import org.slf4j.LoggerFactory;
 
 @Alias("nomic")
 @DisplayName("Nomic")
-public class NomicModelConnectionProvider  extends BaseModelConnectionProvider {
+public class NomicModelConnectionProvider  extends BaseRemoteModelConnectionProvider {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(NomicModelConnectionProvider.class);
 
@@ -28,6 +28,7 @@ public class NomicModelConnectionProvider  extends BaseModelConnectionProvider {
 
       NomicModelConnection nomicModelConnection =
           new NomicModelConnection(nomicModelConnectionParameters.getApiKey());
+      configure(nomicModelConnection);
       nomicModelConnection.connect();
       return nomicModelConnection;
 
@@ -0,0 +1,87 @@
+package org.mule.extension.vectors.internal.connection.model.onnx;
+
+import org.mule.extension.vectors.internal.connection.model.BaseModelConnection;
+import org.mule.extension.vectors.internal.constant.Constants;
+import org.mule.extension.vectors.internal.util.ExecutorUtils;
+import org.mule.runtime.api.connection.ConnectionException;
+import org.mule.runtime.extension.api.annotation.Alias;
+import org.mule.runtime.extension.api.annotation.param.display.DisplayName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Connection to embedding models running in-process with ONNX Runtime. No network call is involved: the connection
+ * owns the thread pool the models run their inference on.
+ */
+@Alias("onnx")
+@DisplayName("ONNX (In-process)")
+public class OnnxModelConnection extends BaseModelConnection {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(OnnxModelConnection.class);
+
+  // Inference runs one task per segment: the embedding model batches hold up to 64 segments per thread
+  private static final int QUEUED_SEGMENTS_PER_THREAD = 64;
+
+  private final int threadCount;
+  private ExecutorService inferenceExecutor;
+
+  public OnnxModelConnection(int threadCount) {
+    this.threadCount = threadCount > 0 ? threadCount : Runtime.getRuntime().availableProcessors();
+  }
+
+  public int getThreadCount() {
+    return threadCount;
+  }
+
+  /**
+   * Returns the thread pool the in-process embedding models run their inference on. Once its bounded queue is full,
+   * inference runs on the calling thread instead, which holds back the operation.
+   *
+   * @return the inference executor.
+   */
+  public synchronized ExecutorService getInferenceExecutor() {
+
+    if(inferenceExecutor == null) {
+
+      inferenceExecutor = ExecutorUtils.newCallerRunsThreadPool(
+          "onnx-embedding-inference", threadCount, threadCount * QUEUED_SEGMENTS_PER_THREAD);
+    }
+    return inferenceExecutor;
+  }
+
+  @Override
+  public String getEmbeddingModelService() {
+    return Constants.EMBEDDING_MODEL_SERVICE_ONNX;
+  }
+
+  @Override
+  public void connect() throws ConnectionException {
+
+    try {
+
+      // Fail fast when the ONNX Runtime is not available to the application
+      Class.forName("ai.onnxruntime.OrtEnvironment", false, getClass().getClassLoader());
+    } catch (ClassNotFoundException e) {
+
+      throw new ConnectionException("ONNX Runtime is not available. Add the in-process embedding model dependency.", e);
+    }
+  }
+
+  @Override
+  public synchronized void disconnect() {
+
+    if(inferenceExecutor != null) {
+
+      inferenceExecutor.shutdownNow();
+      inferenceExecutor = null;
+    }
+    super.disconnect();
+  }
+
+  @Override
+  public boolean isValid() {
+    return true;
+  }
+}
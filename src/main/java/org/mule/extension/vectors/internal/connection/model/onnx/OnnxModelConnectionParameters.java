@@ -0,0 +1,27 @@
+package org.mule.extension.vectors.internal.connection.model.onnx;
+
+import org.mule.extension.vectors.internal.connection.model.BaseModelConnectionParameters;
+import org.mule.runtime.api.meta.ExpressionSupport;
+import org.mule.runtime.extension.api.annotation.Alias;
+import org.mule.runtime.extension.api.annotation.Expression;
+import org.mule.runtime.extension.api.annotation.param.Optional;
+import org.mule.runtime.extension.api.annotation.param.Parameter;
+import org.mule.runtime.extension.api.annotation.param.display.DisplayName;
+import org.mule.runtime.extension.api.annotation.param.display.Placement;
+import org.mule.runtime.extension.api.annotation.param.display.Summary;
+
+public class OnnxModelConnectionParameters extends BaseModelConnectionParameters {
+
+  @Parameter
+  @Alias("threadCount")
+  @DisplayName("Thread Count")
+  @Summary("Number of threads running the embedding model inference. 0 to use one thread per available processor.")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 1)
+  @Optional(defaultValue = "0")
+  private int threadCount;
+
+  public int getThreadCount() {
+    return threadCount;
+  }
+}
@@ -0,0 +1,69 @@
+package org.mule.extension.vectors.internal.connection.model.onnx;
+
+import org.mule.extension.vectors.internal.connection.model.BaseModelConnection;
+import org.mule.extension.vectors.internal.connection.model.BaseModelConnectionProvider;
+import org.mule.runtime.api.connection.ConnectionException;
+import org.mule.runtime.api.connection.ConnectionValidationResult;
+import org.mule.runtime.extension.api.annotation.Alias;
+import org.mule.runtime.extension.api.annotation.param.ParameterGroup;
+import org.mule.runtime.extension.api.annotation.param.display.DisplayName;
+import org.mule.runtime.extension.api.annotation.param.display.Placement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@Alias("onnx")
+@DisplayName("ONNX (In-process)")
+public class OnnxModelConnectionProvider extends BaseModelConnectionProvider {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(OnnxModelConnectionProvider.class);
+
+  @ParameterGroup(name = Placement.CONNECTION_TAB)
+  private OnnxModelConnectionParameters onnxModelConnectionParameters;
+
+  @Override
+  public BaseModelConnection connect() throws ConnectionException {
+
+    try {
+
+      OnnxModelConnection onnxModelConnection =
+          new OnnxModelConnection(onnxModelConnectionParameters.getThreadCount());
+      onnxModelConnection.connect();
+      return onnxModelConnection;
+
+    } catch (ConnectionException e) {
+
+      throw e;
+
+    } catch (Exception e) {
+
+      throw new ConnectionException("Failed to load ONNX embedding model", e);
+    }
+  }
+
+  @Override
+  public void disconnect(BaseModelConnection connection) {
+
+    try {
+
+      connection.disconnect();
+    } catch (Exception e) {
+
+      LOGGER.error("Failed to close connection", e);
+    }
+  }
+
+  @Override
+  public ConnectionValidationResult validate(BaseModelConnection connection) {
+
+    try {
+
+      if (connection.isValid()) {
+        return ConnectionValidationResult.success();
+      } else {
+        return ConnectionValidationResult.failure("Failed to validate ONNX embedding model", null);
+      }
+    } catch (Exception e) {
+      return ConnectionValidationResult.failure("Failed to validate ONNX embedding model", e);
+    }
+  }
+}
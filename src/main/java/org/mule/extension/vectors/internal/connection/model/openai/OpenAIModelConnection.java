@@ -15,27 +15,45 @@ import java.net.URL;
 
 @Alias("openAI")
 @DisplayName("OpenAI")
-public class OpenAIModelConnection implements BaseModelConnection {
+public class OpenAIModelConnection extends BaseModelConnection {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(OpenAIModelConnection.class);
 
-  private static final String ENDPOINT = "https://api.openai.com/v1/models";
+  public static final String DEFAULT_BASE_URL = "https://api.openai.com/v1";
+  private static final String MODELS_PATH = "/models";
 
   private String apiKey;
+  private String baseUrl;
+  private int timeout;
 
-  public OpenAIModelConnection(String apiKey) {
+  public OpenAIModelConnection(String apiKey, String baseUrl, int timeout) {
     this.apiKey = apiKey;
+    this.baseUrl = baseUrl != null && !baseUrl.isEmpty() ? baseUrl.replaceAll("/+$", "") : DEFAULT_BASE_URL;
+    this.timeout = timeout;
   }
 
   public String getApiKey() {
     return apiKey;
   }
 
+  public String getBaseUrl() {
+    return baseUrl;
+  }
+
+  public int getTimeout() {
+    return timeout;
+  }
+
   @Override
   public String getEmbeddingModelService() {
     return Constants.EMBEDDING_MODEL_SERVICE_OPENAI;
   }
 
+  @Override
+  public String getConnectionFingerprint() {
+    return baseUrl;
+  }
+
   @Override
   public void connect() throws ConnectionException {
 
@@ -58,6 +76,7 @@ public class OpenAIModelConnection implements BaseModelConnection {
   @Override
   public void disconnect() {
 
+    super.disconnect();
   }
 
   @Override
@@ -79,8 +98,10 @@ public class OpenAIModelConnection implements BaseModelConnection {
 
     try {
       // Create the URL object
-      URL url = new URL(ENDPOINT);
+      URL url = new URL(baseUrl + MODELS_PATH);
       HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+      connection.setConnectTimeout(timeout);
+      connection.setReadTimeout(timeout);
 
       // Set request method to GET
       connection.setRequestMethod("GET");
@@ -90,7 +111,9 @@ public class OpenAIModelConnection implements BaseModelConnection {
 
       // Check response code
       int responseCode = connection.getResponseCode();
-      if (responseCode != 200) {
+      // Some OpenAI compatible servers only expose the embeddings endpoint: being reachable is enough
+      boolean compatibleServerWithoutModels = responseCode == 404 && !DEFAULT_BASE_URL.equals(baseUrl);
+      if (responseCode != 200 && !compatibleServerWithoutModels) {
         // Read the error response
         BufferedReader in = new BufferedReader(new InputStreamReader(connection.getErrorStream()));
         String inputLine;
@@ -2,11 +2,15 @@ package org.mule.extension.vectors.internal.connection.model.openai;
 
 import org.mule.extension.vectors.internal.connection.model.BaseModelConnectionParameters;
 import org.mule.runtime.api.meta.ExpressionSupport;
+import org.mule.runtime.extension.api.annotation.Alias;
 import org.mule.runtime.extension.api.annotation.Expression;
+import org.mule.runtime.extension.api.annotation.param.Optional;
 import org.mule.runtime.extension.api.annotation.param.Parameter;
+import org.mule.runtime.extension.api.annotation.param.display.DisplayName;
 import org.mule.runtime.extension.api.annotation.param.display.Example;
 import org.mule.runtime.extension.api.annotation.param.display.Password;
 import org.mule.runtime.extension.api.annotation.param.display.Placement;
+import org.mule.runtime.extension.api.annotation.param.display.Summary;
 
 public class OpenAIModelConnectionParameters extends BaseModelConnectionParameters {
 
@@ -17,7 +21,34 @@ public class OpenAIModelConnectionParameters extends BaseModelConnectionParamete
   @Example("<your-api-key>")
   private String apiKey;
 
+  @Parameter
+  @Alias("baseUrl")
+  @DisplayName("Base URL")
+  @Summary("Base URL of the OpenAI API, or of an OpenAI compatible embedding server (vLLM, TEI, llama.cpp server...).")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 2)
+  @Example("http://localhost:8000/v1")
+  @Optional(defaultValue = "https://api.openai.com/v1")
+  private String baseUrl;
+
+  @Parameter
+  @Alias("timeout")
+  @DisplayName("Timeout (ms)")
+  @Summary("Timeout in milliseconds of the requests sent to the embedding server. Defaults to 60000.")
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Placement(order = 3)
+  @Optional(defaultValue = "60000")
+  private int timeout;
+
   public String getApiKey() {
     return apiKey;
   }
+
+  public String getBaseUrl() {
+    return baseUrl;
+  }
+
+  public int getTimeout() {
+    return timeout;
+  }
 }
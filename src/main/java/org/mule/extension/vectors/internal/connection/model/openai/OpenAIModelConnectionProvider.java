@@ -2,7 +2,7 @@ package org.mule.extension.vectors.internal.connection.model.openai;
 
 import dev.langchain4j.model.openai.OpenAiEmbeddingModel;
 import org.mule.extension.vectors.internal.connection.model.BaseModelConnection;
-import org.mule.extension.vectors.internal.connection.model.BaseModelConnectionProvider;
+import org.mule.extension.vectors.internal.connection.model.BaseRemoteModelConnectionProvider;
 import org.mule.extension.vectors.internal.connection.model.azureopenai.AzureOpenAIModelConnection;
 import org.mule.runtime.api.connection.ConnectionException;
 import org.mule.runtime.api.connection.ConnectionValidationResult;
@@ -15,7 +15,7 @@ import org.slf4j.LoggerFactory;
 
 @Alias("openAI")
 @DisplayName("OpenAI")
-public class OpenAIModelConnectionProvider  extends BaseModelConnectionProvider {
+public class OpenAIModelConnectionProvider  extends BaseRemoteModelConnectionProvider {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(OpenAIModelConnectionProvider.class);
 
@@ -28,7 +28,10 @@ public class OpenAIModelConnectionProvider  extends BaseModelConnectionProvider
     try {
 
       OpenAIModelConnection openAIModelConnection =
-          new OpenAIModelConnection(openAIModelConnectionParameters.getApiKey());
+          new OpenAIModelConnection(openAIModelConnectionParameters.getApiKey(),
+                                    openAIModelConnectionParameters.getBaseUrl(),
+                                    openAIModelConnectionParameters.getTimeout());
+      configure(openAIModelConnection);
       openAIModelConnection.connect();
       return openAIModelConnection;
 
@@ -1,15 +1,91 @@
 package org.mule.extension.vectors.internal.connection.store;
 
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+import org.mule.extension.vectors.internal.util.ExecutorUtils;
 import org.mule.runtime.api.connection.ConnectionException;
-import org.mule.runtime.api.connection.ConnectionValidationResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-public interface BaseStoreConnection {
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
 
-  String getVectorStore();
+/**
+ * Base class for all vector store connections.
+ * <p>
+ * Besides the connection lifecycle, it owns the embedding store handles built on top of the connection so that
+ * store setup (table, index or collection checks) runs once per store instead of once per operation.
+ * Cached handles are invalidated when the connection is disconnected.
+ * <p>
+ * It also holds the thread pool running the chunk upserts and batch queries of the operations in parallel.
+ */
+public abstract class BaseStoreConnection {
 
-  void connect() throws ConnectionException;
+  private static final Logger LOGGER = LoggerFactory.getLogger(BaseStoreConnection.class);
 
-  void disconnect();
+  private static final int MAX_OPERATION_THREADS = 64;
 
-  boolean isValid();
+  private final Map<String, EmbeddingStore<TextSegment>> embeddingStores = new ConcurrentHashMap<>();
+  private ExecutorService operationExecutor;
+
+  public abstract String getVectorStore();
+
+  public abstract void connect() throws ConnectionException;
+
+  public abstract boolean isValid();
+
+  /**
+   * Releases the resources held by the connection. Subclasses overriding this method must call it.
+   */
+  public synchronized void disconnect() {
+
+    if(operationExecutor != null) {
+
+      operationExecutor.shutdown();
+      operationExecutor = null;
+    }
+    LOGGER.debug(String.format("Invalidating %s cached embedding store(s) for %s.", embeddingStores.size(), getVectorStore()));
+    embeddingStores.clear();
+  }
+
+  /**
+   * Returns the embedding store cached for the given store name, dimension and creation flag, building and
+   * caching it if not yet present.
+   *
+   * @param storeName   the name of the store.
+   * @param dimension   the dimension of the stored embeddings.
+   * @param createStore whether the store must be created when it does not exist.
+   * @param builder     the supplier used to build the embedding store when it is not cached.
+   * @return the cached embedding store.
+   */
+  public EmbeddingStore<TextSegment> getEmbeddingStore(String storeName, int dimension, boolean createStore,
+                                                       Supplier<EmbeddingStore<TextSegment>> builder) {
+
+    String key = storeName + ":" + dimension + ":" + createStore;
+    return embeddingStores.computeIfAbsent(key, k -> {
+
+      LOGGER.debug(String.format("Building embedding store %s for %s.", k, getVectorStore()));
+      return builder.get();
+    });
+  }
+
+  /**
+   * Returns the thread pool running the chunk upserts and batch queries. The number of tasks run concurrently is
+   * bounded by each operation, and across operations by the maximum number of threads of the pool: threads are
+   * created on demand, idle threads are released, and tasks submitted while all of them are busy are rejected, for
+   * the operation to run them on its own thread.
+   *
+   * @return the operation executor.
+   */
+  public synchronized ExecutorService getOperationExecutor() {
+
+    if(operationExecutor == null) {
+
+      operationExecutor = ExecutorUtils.newBoundedThreadPool(
+          "store-operation-" + getVectorStore().toLowerCase(), MAX_OPERATION_THREADS, 0);
+    }
+    return operationExecutor;
+  }
 }
@@ -12,7 +12,7 @@ import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
 import java.net.URL;
 
-public class AISearchStoreConnection implements BaseStoreConnection {
+public class AISearchStoreConnection extends BaseStoreConnection {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(AISearchStoreConnection.class);
   
@@ -56,6 +56,7 @@ public class AISearchStoreConnection implements BaseStoreConnection {
   @Override
   public void disconnect() {
 
+    super.disconnect();
   }
 
   @Override
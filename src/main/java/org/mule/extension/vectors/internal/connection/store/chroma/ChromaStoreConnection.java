@@ -11,7 +11,7 @@ import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
 import java.net.URL;
 
-public class ChromaStoreConnection implements BaseStoreConnection {
+public class ChromaStoreConnection extends BaseStoreConnection {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(ChromaStoreConnection.class);
 
@@ -51,6 +51,7 @@ public class ChromaStoreConnection implements BaseStoreConnection {
   @Override
   public void disconnect() {
 
+    super.disconnect();
   }
 
   @Override
@@ -25,7 +25,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 
-public class ElasticsearchStoreConnection implements BaseStoreConnection {
+public class ElasticsearchStoreConnection extends BaseStoreConnection {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(ElasticsearchStoreConnection.class);
 
@@ -127,6 +127,8 @@ public class ElasticsearchStoreConnection implements BaseStoreConnection {
   @Override
   public void disconnect() {
 
+    super.disconnect();
+
     try {
       this.restClient.close();
 
@@ -6,7 +6,7 @@ import org.mule.extension.vectors.internal.connection.store.BaseStoreConnection;
 import org.mule.extension.vectors.internal.constant.Constants;
 import org.mule.runtime.api.connection.ConnectionException;
 
-public class MilvusStoreConnection implements BaseStoreConnection {
+public class MilvusStoreConnection extends BaseStoreConnection {
 
   private String url;
   private MilvusServiceClient client;
@@ -41,6 +41,8 @@ public class MilvusStoreConnection implements BaseStoreConnection {
   @Override
   public void disconnect() {
 
+    super.disconnect();
+
     if(client != null) {
 
       client.close();
@@ -17,7 +17,7 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.Collections;
 
-public class OpenSearchStoreConnection implements BaseStoreConnection {
+public class OpenSearchStoreConnection extends BaseStoreConnection {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(OpenSearchStoreConnection.class);
 
@@ -103,6 +103,8 @@ public class OpenSearchStoreConnection implements BaseStoreConnection {
   @Override
   public void disconnect() {
 
+    super.disconnect();
+
     try {
       // Add logic here
 
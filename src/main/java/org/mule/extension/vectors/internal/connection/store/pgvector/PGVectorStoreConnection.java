@@ -14,7 +14,7 @@ import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
 
-public class PGVectorStoreConnection implements BaseStoreConnection {
+public class PGVectorStoreConnection extends BaseStoreConnection {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(PGVectorStoreConnection.class);
 
@@ -100,6 +100,8 @@ public class PGVectorStoreConnection implements BaseStoreConnection {
   @Override
   public void disconnect() {
 
+    super.disconnect();
+
     try {
 
       this.dataSource.getConnection().close();
@@ -7,7 +7,7 @@ import org.mule.extension.vectors.internal.connection.store.BaseStoreConnection;
 import org.mule.extension.vectors.internal.constant.Constants;
 import org.mule.runtime.api.connection.ConnectionException;
 
-public class PineconeStoreConnection implements BaseStoreConnection {
+public class PineconeStoreConnection extends BaseStoreConnection {
 
   private String cloud;
   private String region;
@@ -53,6 +53,8 @@ public class PineconeStoreConnection implements BaseStoreConnection {
   @Override
   public void disconnect() {
 
+    super.disconnect();
+
     // Add disconnection logic if any.
   }
 
@@ -20,7 +20,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 
-public class QdrantStoreConnection implements BaseStoreConnection {
+public class QdrantStoreConnection extends BaseStoreConnection {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(QdrantStoreConnection.class);
 
@@ -94,6 +94,8 @@ public class QdrantStoreConnection implements BaseStoreConnection {
   @Override
   public void disconnect() {
 
+    super.disconnect();
+
     this.client.close();
   }
 
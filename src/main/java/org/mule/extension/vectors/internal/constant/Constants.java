@@ -29,6 +29,7 @@ public class Constants {
   public static final String EMBEDDING_MODEL_SERVICE_NOMIC = "NOMIC";
   public static final String EMBEDDING_MODEL_SERVICE_HUGGING_FACE = "HUGGING_FACE";
   public static final String EMBEDDING_MODEL_SERVICE_EINSTEIN = "EINSTEIN";
+  public static final String EMBEDDING_MODEL_SERVICE_ONNX = "ONNX";
 
   public static final String EMBEDDING_MODEL_NAME_TEXT_EMBEDDING_3_SMALL = "text-embedding-3-small";
   public static final String EMBEDDING_MODEL_NAME_TEXT_EMBEDDING_3_LARGE = "text-embedding-3-large";
@@ -40,6 +41,8 @@ public class Constants {
   public static final String EMBEDDING_MODEL_NAME_SFDC_TEXT_EMBEDDING_ADA_002 = "sfdc_ai__DefaultTextEmbeddingAda_002";
   public static final String EMBEDDING_MODEL_NAME_SFDC_AZURE_TEXT_EMBEDDING_ADA_002 = "sfdc_ai__DefaultAzureOpenAITextEmbeddingAda_002";
   public static final String EMBEDDING_MODEL_NAME_SFDC_OPENAI_TEXT_EMBEDDING_ADA_002 = "sfdc_ai__DefaultOpenAITextEmbeddingAda_002";
+  public static final String EMBEDDING_MODEL_NAME_ALL_MINI_LM_L6_V2 = "all-minilm-l6-v2";
+  public static final String EMBEDDING_MODEL_NAME_BGE_SMALL_EN_V15 = "bge-small-en-v1.5";
 
   public static final String VECTOR_STORE_PGVECTOR = "PGVECTOR";
   public static final String VECTOR_STORE_ELASTICSEARCH = "ELASTICSEARCH";
@@ -64,6 +67,7 @@ public class Constants {
   public static final String METADATA_KEY_TITLE = "title";
   public static final String METADATA_KEY_INGESTION_DATETIME = "ingestion_datetime";
   public static final String METADATA_KEY_INGESTION_TIMESTAMP = "ingestion_timestamp";
+  public static final String METADATA_KEY_CONTENT_HASH = "content_hash";
 
   public static final String METADATA_FILTER_METHOD_IS_EQUAL_TO = "isEqualTo";
   public static final String METADATA_FILTER_METHOD_IS_NOT_EQUAL_TO = "isNotEqualTo";
@@ -96,9 +100,39 @@ public class Constants {
   public static final String JSON_KEY_SCORE = "score";
   public static final String JSON_KEY_METADATA = "metadata";
   public static final String JSON_KEY_INDEX = "index";
+  public static final String JSON_KEY_ENCODING = "encoding";
+  public static final String JSON_KEY_QUANTIZED_EMBEDDINGS = "quantized-embeddings";
+  public static final String JSON_KEY_QUANTIZATION = "quantization";
+  public static final String JSON_KEY_DATA = "data";
+  public static final String JSON_KEY_SCALE = "scale";
+  public static final String JSON_KEY_OFFSET = "offset";
+  public static final String JSON_KEY_CHUNKS = "chunks";
+  public static final String JSON_KEY_INGESTED_COUNT = "ingestedCount";
+  public static final String JSON_KEY_FAILED_COUNT = "failedCount";
+  public static final String JSON_KEY_SKIPPED_COUNT = "skippedCount";
+  public static final String JSON_KEY_FAILED_IDS = "failedIds";
+  public static final String JSON_KEY_ATTEMPTS = "attempts";
+  public static final String JSON_KEY_ERROR = "error";
+  public static final String JSON_KEY_QUERIES = "queries";
+  public static final String JSON_KEY_QUERY_COUNT = "queryCount";
+  public static final String JSON_KEY_RESULTS = "results";
+  public static final String JSON_KEY_FILTER = "filter";
+  public static final String JSON_KEY_METADATA_KEY = "metadataKey";
+  public static final String JSON_KEY_FILTER_METHOD = "filterMethod";
+  public static final String JSON_KEY_METADATA_VALUE = "metadataValue";
+
+  public static final String EMBEDDING_ENCODING_FLOAT_ARRAY = "float";
+  public static final String EMBEDDING_ENCODING_BASE64_FLOAT32 = "base64-float32";
+  public static final String EMBEDDING_ENCODING_BASE64_FLOAT16 = "base64-float16";
+
+  public static final String EMBEDDING_QUANTIZATION_NONE = "none";
+  public static final String EMBEDDING_QUANTIZATION_INT8 = "int8";
+  public static final String EMBEDDING_QUANTIZATION_BINARY = "binary";
 
   public static final String OPERATION_STATUS_UPDATED = "updated";
   public static final String OPERATION_STATUS_DELETED = "deleted";
+  public static final String OPERATION_STATUS_PARTIAL = "partial";
+  public static final String OPERATION_STATUS_FAILED = "failed";
 
   public static final String PARAM_DISPLAY_NAME_STORAGE_OVERRIDE = "Storage (Override Module Configuration)";
 
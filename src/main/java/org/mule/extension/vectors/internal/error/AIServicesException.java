@@ -0,0 +1,22 @@
+package org.mule.extension.vectors.internal.error;
+
+import org.mule.runtime.extension.api.exception.ModuleException;
+
+/**
+ * Error response of an AI service called directly over HTTP, carrying its status code so that rate limited and
+ * overloaded requests can be told apart from the other failures and retried.
+ */
+public class AIServicesException extends ModuleException {
+
+  private final int statusCode;
+
+  public AIServicesException(String message, MuleVectorsErrorType errorType, int statusCode) {
+
+    super(message, errorType);
+    this.statusCode = statusCode;
+  }
+
+  public int getStatusCode() {
+    return statusCode;
+  }
+}
@@ -0,0 +1,117 @@
+package org.mule.extension.vectors.internal.helper;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingJsonFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+/**
+ * Input stream producing a JSON document lazily, as it is read.
+ * <p>
+ * The document is described as a sequence of steps, each writing a small part of it (a field, a text segment,
+ * a vector) with a Jackson generator. A step runs only once the bytes of the previous ones have been read, so
+ * only the output of one step is held in memory at any time, whatever the size of the document.
+ */
+public class JsonStreamingInputStream extends InputStream {
+
+  // Mapping factory, so that steps can write maps and lists with writeObject
+  private static final JsonFactory JSON_FACTORY = new MappingJsonFactory();
+
+  /**
+   * Writes a part of the JSON document.
+   */
+  @FunctionalInterface
+  public interface Step {
+
+    void write(JsonGenerator generator) throws IOException;
+  }
+
+  private final Iterator<? extends Step> steps;
+  private final Buffer buffer = new Buffer();
+  private final JsonGenerator generator;
+  private int position;
+  private boolean completed;
+
+  /**
+   * @param steps the steps writing the JSON document, in order.
+   */
+  public JsonStreamingInputStream(Iterator<? extends Step> steps) {
+
+    this.steps = steps;
+    try {
+
+      this.generator = JSON_FACTORY.createGenerator(buffer, JsonEncoding.UTF8);
+    } catch (IOException e) {
+
+      throw new IllegalStateException("Unable to create JSON generator.", e);
+    }
+  }
+
+  @Override
+  public int read() throws IOException {
+
+    if(!ensureAvailable()) return -1;
+    return buffer.bytes()[position++] & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] bytes, int offset, int length) throws IOException {
+
+    if(length == 0) return 0;
+    if(!ensureAvailable()) return -1;
+    int count = Math.min(length, buffer.size() - position);
+    System.arraycopy(buffer.bytes(), position, bytes, offset, count);
+    position += count;
+    return count;
+  }
+
+  @Override
+  public int available() {
+
+    return buffer.size() - position;
+  }
+
+  @Override
+  public void close() throws IOException {
+
+    completed = true;
+    generator.close();
+  }
+
+  /**
+   * Runs the next steps until there are bytes to read.
+   *
+   * @return {@code false} if the document is complete and fully read.
+   */
+  private boolean ensureAvailable() throws IOException {
+
+    while(position >= buffer.size()) {
+
+      if(completed) return false;
+      buffer.reset();
+      position = 0;
+      if(steps.hasNext()) {
+
+        steps.next().write(generator);
+        generator.flush();
+      } else {
+
+        generator.close();
+        completed = true;
+      }
+    }
+    return true;
+  }
+
+  private static class Buffer extends ByteArrayOutputStream {
+
+    private byte[] bytes() {
+      return buf;
+    }
+  }
+}
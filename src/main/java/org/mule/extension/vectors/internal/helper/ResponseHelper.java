@@ -46,6 +46,18 @@ public final class ResponseHelper {
         .build();
   }
 
+  public static Result<InputStream, EmbeddingResponseAttributes> createEmbeddingResponse(
+      InputStream response,
+      Map<String, Object> embeddingAttributes) {
+
+    return Result.<InputStream, EmbeddingResponseAttributes>builder()
+        .attributes(new EmbeddingResponseAttributes((HashMap<String, Object>) embeddingAttributes))
+        .attributesMediaType(MediaType.APPLICATION_JAVA)
+        .output(response)
+        .mediaType(MediaType.APPLICATION_JSON)
+        .build();
+  }
+
   public static Result<InputStream, DocumentResponseAttributes> createDocumentResponse(
       String response,
       Map<String, Object> documentAttributes) {
@@ -0,0 +1,372 @@
+package org.mule.extension.vectors.internal.helper;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingJsonFactory;
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import org.mule.extension.vectors.internal.constant.Constants;
+import org.mule.extension.vectors.internal.util.VectorUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming reader of text segments and embeddings documents, as generated by the embedding operations.
+ * <p>
+ * The document is parsed with a Jackson streaming parser: vectors are read straight into {@code float[]}, with no
+ * intermediate tree. When the text segments come before the embeddings and the vectors are arrays of numbers, which
+ * is the layout written by the embedding operations, segments and embeddings are handed over in batches while the
+ * vectors are read, so that only one batch of vectors is held in memory. Otherwise, they are handed over once the
+ * whole document is read. Other fields are skipped, unless a field reader is registered for them.
+ */
+public class TextSegmentsAndEmbeddingsReader {
+
+  // Mapping factory, so that metadata objects can be read as maps
+  private static final JsonFactory JSON_FACTORY = new MappingJsonFactory();
+  private static final TypeReference<HashMap<String, Object>> METADATA_TYPE = new TypeReference<HashMap<String, Object>>() {};
+  private static final int INITIAL_VECTOR_CAPACITY = 1024;
+
+  /**
+   * Receives the text segments and embeddings read, in order.
+   */
+  @FunctionalInterface
+  public interface BatchHandler {
+
+    /**
+     * @param textSegments the text segments of the batch.
+     * @param embeddings   the embeddings of the text segments.
+     * @param dimension    the dimension of the embeddings.
+     */
+    void handle(List<TextSegment> textSegments, List<Embedding> embeddings, int dimension);
+  }
+
+  /**
+   * Reads the value of an additional field of the document.
+   */
+  @FunctionalInterface
+  public interface FieldReader {
+
+    /**
+     * @param parser the parser, positioned on the first token of the value, which must be fully read.
+     */
+    void read(JsonParser parser) throws IOException;
+  }
+
+  private final Map<String, Object> additionalMetadata;
+  private final int batchSize;
+  private final BatchHandler handler;
+  private final Map<String, FieldReader> fieldReaders = new HashMap<>();
+
+  private List<TextSegment> textSegments;
+  private List<float[]> vectors;
+  private List<String> encodedVectors;
+  private List<VectorUtils.QuantizedVector> quantizedVectors;
+  private String encoding;
+  private String quantization;
+  private Integer dimension;
+  private int handledCount;
+  private float[] vectorBuffer = new float[INITIAL_VECTOR_CAPACITY];
+
+  /**
+   * @param additionalMetadata metadata added to the metadata of each text segment.
+   * @param batchSize          the maximum number of text segments handed over at once.
+   * @param handler            the handler receiving the text segments and embeddings.
+   */
+  public TextSegmentsAndEmbeddingsReader(Map<String, Object> additionalMetadata, int batchSize, BatchHandler handler) {
+
+    this.additionalMetadata = additionalMetadata != null ? additionalMetadata : Collections.emptyMap();
+    this.batchSize = Math.max(1, batchSize);
+    this.handler = handler;
+  }
+
+  /**
+   * Registers a reader for an additional field of the document.
+   *
+   * @param field  the name of the field.
+   * @param reader the reader of its value.
+   * @return this reader.
+   */
+  public TextSegmentsAndEmbeddingsReader withFieldReader(String field, FieldReader reader) {
+
+    fieldReaders.put(field, reader);
+    return this;
+  }
+
+  /**
+   * Reads a whole document, handing over all its text segments and embeddings at once.
+   *
+   * @param content            the document.
+   * @param additionalMetadata metadata added to the metadata of each text segment.
+   * @param handler            the handler receiving the text segments and embeddings.
+   */
+  public static void readAll(InputStream content, Map<String, Object> additionalMetadata, BatchHandler handler)
+      throws IOException {
+
+    new TextSegmentsAndEmbeddingsReader(additionalMetadata, Integer.MAX_VALUE, handler).read(content);
+  }
+
+  /**
+   * Reads the document, handing over its text segments and embeddings to the handler.
+   *
+   * @param content the document.
+   * @return the number of text segments read.
+   */
+  public int read(InputStream content) throws IOException {
+
+    try (JsonParser parser = JSON_FACTORY.createParser(content)) {
+
+      expect(parser.nextToken(), JsonToken.START_OBJECT, "document");
+      while(parser.nextToken() == JsonToken.FIELD_NAME) {
+
+        String field = parser.getCurrentName();
+        JsonToken token = parser.nextToken();
+        switch (field) {
+
+          case Constants.JSON_KEY_TEXT_SEGMENTS:
+            readTextSegments(parser, token);
+            break;
+
+          case Constants.JSON_KEY_EMBEDDINGS:
+            readEmbeddings(parser, token);
+            break;
+
+          case Constants.JSON_KEY_QUANTIZED_EMBEDDINGS:
+            readQuantizedEmbeddings(parser, token);
+            break;
+
+          case Constants.JSON_KEY_DIMENSION:
+            int declaredDimension = parser.getIntValue();
+            if(dimension != null && dimension != declaredDimension) {
+
+              throw new IllegalArgumentException(String.format("Embeddings of dimension %s do not match the declared dimension %s.",
+                                                               dimension, declaredDimension));
+            }
+            dimension = declaredDimension;
+            break;
+
+          case Constants.JSON_KEY_ENCODING:
+            encoding = parser.getValueAsString();
+            break;
+
+          case Constants.JSON_KEY_QUANTIZATION:
+            quantization = parser.getValueAsString();
+            break;
+
+          default:
+            FieldReader fieldReader = fieldReaders.get(field);
+            if(fieldReader != null) {
+
+              fieldReader.read(parser);
+            } else {
+
+              parser.skipChildren();
+            }
+        }
+      }
+    }
+
+    if(textSegments == null) throw new IllegalArgumentException(String.format("Missing \"%s\".", Constants.JSON_KEY_TEXT_SEGMENTS));
+    handleRemaining();
+    return textSegments.size();
+  }
+
+  private void readTextSegments(JsonParser parser, JsonToken token) throws IOException {
+
+    expect(token, JsonToken.START_ARRAY, Constants.JSON_KEY_TEXT_SEGMENTS);
+    textSegments = new ArrayList<>();
+    while(parser.nextToken() != JsonToken.END_ARRAY) {
+
+      expect(parser.currentToken(), JsonToken.START_OBJECT, "text segment");
+      String text = null;
+      HashMap<String, Object> metadata = null;
+      while(parser.nextToken() == JsonToken.FIELD_NAME) {
+
+        String field = parser.getCurrentName();
+        parser.nextToken();
+        if(Constants.JSON_KEY_TEXT.equals(field)) {
+
+          text = parser.getValueAsString();
+        } else if(Constants.JSON_KEY_METADATA.equals(field)) {
+
+          metadata = parser.readValueAs(METADATA_TYPE);
+        } else {
+
+          parser.skipChildren();
+        }
+      }
+      if(text == null || metadata == null) {
+
+        throw new IllegalArgumentException(String.format("Text segment %s must hold \"%s\" and \"%s\".",
+                                                         textSegments.size(), Constants.JSON_KEY_TEXT, Constants.JSON_KEY_METADATA));
+      }
+      metadata.putAll(additionalMetadata);
+      textSegments.add(new TextSegment(text, Metadata.from(metadata)));
+    }
+  }
+
+  private void readEmbeddings(JsonParser parser, JsonToken token) throws IOException {
+
+    expect(token, JsonToken.START_ARRAY, Constants.JSON_KEY_EMBEDDINGS);
+    // Vectors can only be handed over while reading when their text segments are already known
+    boolean streaming = textSegments != null;
+    List<Embedding> batch = new ArrayList<>(streaming ? Math.min(batchSize, Math.max(1, textSegments.size())) : 0);
+    int index = 0;
+    while(parser.nextToken() != JsonToken.END_ARRAY) {
+
+      if(parser.currentToken() == JsonToken.VALUE_STRING) {
+
+        // Decoded once the encoding, which may follow, is known
+        if(encodedVectors == null) encodedVectors = new ArrayList<>();
+        encodedVectors.add(parser.getText());
+        streaming = false;
+        continue;
+      }
+
+      float[] vector = readVector(parser);
+      if(dimension == null) dimension = vector.length;
+      if(vector.length != dimension) {
+
+        throw new IllegalArgumentException(String.format("Embedding %s has dimension %s instead of %s.", index, vector.length, dimension));
+      }
+      index++;
+
+      if(streaming && encodedVectors == null) {
+
+        if(handledCount + batch.size() >= textSegments.size()) {
+
+          throw new IllegalArgumentException(String.format("More embeddings than the %s text segments.", textSegments.size()));
+        }
+        batch.add(new Embedding(vector));
+        if(batch.size() == batchSize) {
+
+          handle(batch);
+          batch = new ArrayList<>(batchSize);
+        }
+      } else {
+
+        if(vectors == null) vectors = new ArrayList<>();
+        vectors.add(vector);
+      }
+    }
+    if(!batch.isEmpty()) handle(batch);
+  }
+
+  private float[] readVector(JsonParser parser) throws IOException {
+
+    expect(parser.currentToken(), JsonToken.START_ARRAY, "embedding");
+    int length = 0;
+    while(parser.nextToken() != JsonToken.END_ARRAY) {
+
+      if(length == vectorBuffer.length) vectorBuffer = Arrays.copyOf(vectorBuffer, vectorBuffer.length * 2);
+      vectorBuffer[length++] = parser.getFloatValue();
+    }
+    return Arrays.copyOf(vectorBuffer, length);
+  }
+
+  private void readQuantizedEmbeddings(JsonParser parser, JsonToken token) throws IOException {
+
+    expect(token, JsonToken.START_ARRAY, Constants.JSON_KEY_QUANTIZED_EMBEDDINGS);
+    quantizedVectors = new ArrayList<>();
+    while(parser.nextToken() != JsonToken.END_ARRAY) {
+
+      expect(parser.currentToken(), JsonToken.START_OBJECT, "quantized embedding");
+      byte[] data = null;
+      float scale = 0;
+      float offset = 0;
+      while(parser.nextToken() == JsonToken.FIELD_NAME) {
+
+        String field = parser.getCurrentName();
+        parser.nextToken();
+        if(Constants.JSON_KEY_DATA.equals(field)) {
+
+          data = parser.getBinaryValue();
+        } else if(Constants.JSON_KEY_SCALE.equals(field)) {
+
+          scale = parser.getFloatValue();
+        } else if(Constants.JSON_KEY_OFFSET.equals(field)) {
+
+          offset = parser.getFloatValue();
+        } else {
+
+          parser.skipChildren();
+        }
+      }
+      if(data == null) throw new IllegalArgumentException(String.format("Missing \"%s\" in quantized embedding.", Constants.JSON_KEY_DATA));
+      quantizedVectors.add(new VectorUtils.QuantizedVector(data, scale, offset));
+    }
+  }
+
+  /**
+   * Hands over the embeddings not handed over while reading, decoding or dequantizing them as needed.
+   * Full precision embeddings take precedence over quantized ones.
+   */
+  private void handleRemaining() {
+
+    List<Embedding> embeddings = new ArrayList<>();
+    if(vectors != null) {
+
+      for(float[] vector : vectors) embeddings.add(new Embedding(vector));
+    } else if(encodedVectors != null) {
+
+      for(String encodedVector : encodedVectors) {
+
+        float[] vector = VectorUtils.decodeBase64(encodedVector, encoding);
+        if(dimension == null) dimension = vector.length;
+        if(vector.length != dimension) {
+
+          throw new IllegalArgumentException(String.format("Embedding %s has dimension %s instead of %s.", embeddings.size(), vector.length, dimension));
+        }
+        embeddings.add(new Embedding(vector));
+      }
+    } else if(quantizedVectors != null && handledCount == 0) {
+
+      if(quantization == null) throw new IllegalArgumentException(String.format("Missing \"%s\".", Constants.JSON_KEY_QUANTIZATION));
+      if(dimension == null) throw new IllegalArgumentException(String.format("Missing \"%s\".", Constants.JSON_KEY_DIMENSION));
+      for(VectorUtils.QuantizedVector quantizedVector : quantizedVectors) {
+
+        embeddings.add(new Embedding(VectorUtils.dequantize(quantizedVector, quantization, dimension)));
+      }
+    } else if(handledCount == 0 && !textSegments.isEmpty()) {
+
+      throw new IllegalArgumentException(String.format("Missing \"%s\".", Constants.JSON_KEY_EMBEDDINGS));
+    }
+
+    if(handledCount + embeddings.size() != textSegments.size()) {
+
+      throw new IllegalArgumentException(String.format("Received %s embeddings for %s text segments.",
+                                                       handledCount + embeddings.size(), textSegments.size()));
+    }
+    for(int start = 0; start < embeddings.size(); start += batchSize) {
+
+      handle(embeddings.subList(start, Math.min(embeddings.size(), start + batchSize)));
+    }
+  }
+
+  private void handle(List<Embedding> embeddings) {
+
+    if(dimension == null || dimension <= 0) {
+
+      throw new IllegalArgumentException(String.format("Invalid \"%s\": %s.", Constants.JSON_KEY_DIMENSION, dimension));
+    }
+    handler.handle(textSegments.subList(handledCount, handledCount + embeddings.size()), embeddings, dimension);
+    handledCount += embeddings.size();
+  }
+
+  private static void expect(JsonToken token, JsonToken expected, String name) {
+
+    if(token != expected) {
+
+      throw new IllegalArgumentException(String.format("Invalid %s: expected %s but found %s.", name, expected, token));
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package org.mule.extension.vectors.internal.helper.parameter;
+
+import org.mule.runtime.api.meta.ExpressionSupport;
+import org.mule.runtime.extension.api.annotation.Alias;
+import org.mule.runtime.extension.api.annotation.Expression;
+import org.mule.runtime.extension.api.annotation.param.Optional;
+import org.mule.runtime.extension.api.annotation.param.Parameter;
+import org.mule.runtime.extension.api.annotation.param.display.DisplayName;
+import org.mule.runtime.extension.api.annotation.param.display.Placement;
+import org.mule.runtime.extension.api.annotation.param.display.Summary;
+
+public class EmbeddingCacheParameters {
+
+  @Parameter
+  @Alias("cacheEnabled")
+  @DisplayName("Enable Embedding Cache")
+  @Summary("Cache generated embeddings in memory and reuse them for identical texts embedded with the same model.")
+  @Placement(order = 1)
+  @Expression(ExpressionSupport.NOT_SUPPORTED)
+  @Optional(defaultValue = "false")
+  private boolean cacheEnabled;
+
+  @Parameter
+  @Alias("cacheMaxEntries")
+  @DisplayName("Max Entries")
+  @Summary("Maximum number of embeddings kept in the cache. Defaults to 10000.")
+  @Placement(order = 2)
+  @Expression(ExpressionSupport.NOT_SUPPORTED)
+  @Optional(defaultValue = "10000")
+  private int cacheMaxEntries;
+
+  @Parameter
+  @Alias("cacheMaxSizeInMB")
+  @DisplayName("Max Size (MB)")
+  @Summary("Maximum memory, in megabytes, used by the cached embeddings. Defaults to 64.")
+  @Placement(order = 3)
+  @Expression(ExpressionSupport.NOT_SUPPORTED)
+  @Optional(defaultValue = "64")
+  private int cacheMaxSizeInMB;
+
+  @Parameter
+  @Alias("cacheTtlInSeconds")
+  @DisplayName("Time To Live (Seconds)")
+  @Summary("Time after which a cached embedding expires. Defaults to 3600.")
+  @Placement(order = 4)
+  @Expression(ExpressionSupport.NOT_SUPPORTED)
+  @Optional(defaultValue = "3600")
+  private long cacheTtlInSeconds;
+
+  public boolean isCacheEnabled() {
+    return cacheEnabled;
+  }
+
+  public int getCacheMaxEntries() {
+    return cacheMaxEntries;
+  }
+
+  public int getCacheMaxSizeInMB() {
+    return cacheMaxSizeInMB;
+  }
+
+  public long getCacheTtlInSeconds() {
+    return cacheTtlInSeconds;
+  }
+}
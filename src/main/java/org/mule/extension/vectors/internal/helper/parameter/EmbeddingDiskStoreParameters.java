@@ -0,0 +1,53 @@
+package org.mule.extension.vectors.internal.helper.parameter;
+
+import org.mule.runtime.api.meta.ExpressionSupport;
+import org.mule.runtime.extension.api.annotation.Alias;
+import org.mule.runtime.extension.api.annotation.Expression;
+import org.mule.runtime.extension.api.annotation.param.Optional;
+import org.mule.runtime.extension.api.annotation.param.Parameter;
+import org.mule.runtime.extension.api.annotation.param.display.DisplayName;
+import org.mule.runtime.extension.api.annotation.param.display.Placement;
+import org.mule.runtime.extension.api.annotation.param.display.Summary;
+
+public class EmbeddingDiskStoreParameters {
+
+  @Parameter
+  @Alias("diskStoreDirectory")
+  @DisplayName("Directory")
+  @Summary("Directory where generated embeddings are persisted and reused across restarts. Leave empty to disable the disk store. " +
+      "Each configuration must use its own directory.")
+  @Placement(order = 1)
+  @Expression(ExpressionSupport.NOT_SUPPORTED)
+  @Optional
+  private String diskStoreDirectory;
+
+  @Parameter
+  @Alias("diskStoreMaxSizeInMB")
+  @DisplayName("Max Size (MB)")
+  @Summary("Size of the disk store beyond which it is compacted. Defaults to 1024.")
+  @Placement(order = 2)
+  @Expression(ExpressionSupport.NOT_SUPPORTED)
+  @Optional(defaultValue = "1024")
+  private int diskStoreMaxSizeInMB;
+
+  @Parameter
+  @Alias("diskStoreCompactionRetainedPercentage")
+  @DisplayName("Retained After Compaction (%)")
+  @Summary("Percentage of the max size kept, by most recent use, when the disk store is compacted. Defaults to 75.")
+  @Placement(order = 3)
+  @Expression(ExpressionSupport.NOT_SUPPORTED)
+  @Optional(defaultValue = "75")
+  private int diskStoreCompactionRetainedPercentage;
+
+  public String getDiskStoreDirectory() {
+    return diskStoreDirectory;
+  }
+
+  public int getDiskStoreMaxSizeInMB() {
+    return diskStoreMaxSizeInMB;
+  }
+
+  public int getDiskStoreCompactionRetainedPercentage() {
+    return diskStoreCompactionRetainedPercentage;
+  }
+}
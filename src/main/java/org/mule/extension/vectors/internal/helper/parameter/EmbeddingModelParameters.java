@@ -4,6 +4,7 @@ import org.mule.extension.vectors.internal.helper.provider.EmbeddingModelNamePro
 import org.mule.runtime.api.meta.ExpressionSupport;
 import org.mule.runtime.extension.api.annotation.Alias;
 import org.mule.runtime.extension.api.annotation.Expression;
+import org.mule.runtime.extension.api.annotation.param.Optional;
 import org.mule.runtime.extension.api.annotation.param.Parameter;
 import org.mule.runtime.extension.api.annotation.param.display.DisplayName;
 import org.mule.runtime.extension.api.annotation.param.display.Placement;
@@ -21,8 +22,24 @@ public class EmbeddingModelParameters {
   @OfValues(EmbeddingModelNameProvider.class)
   private String embeddingModelName;
 
+  @Parameter
+  @Alias("targetDimension")
+  @DisplayName("Target Dimension")
+  @Summary("Dimension of the generated embeddings, lower than the model dimension. Passed to the models supporting " +
+      "shortened embeddings (text-embedding-3-small and text-embedding-3-large, including Azure OpenAI deployments " +
+      "named after them), and applied by truncating and re-normalizing the embeddings of nomic-embed-text-v1.5. " +
+      "Rejected for the other models, which are not trained for shortened (Matryoshka) embeddings.")
+  @Placement(order = 2)
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Optional
+  private Integer targetDimension;
+
   public String getEmbeddingModelName() {
     return embeddingModelName;
   }
 
+  public Integer getTargetDimension() {
+    return targetDimension;
+  }
+
 }
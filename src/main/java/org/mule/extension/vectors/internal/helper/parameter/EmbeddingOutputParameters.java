@@ -0,0 +1,65 @@
+package org.mule.extension.vectors.internal.helper.parameter;
+
+import org.mule.extension.vectors.internal.constant.Constants;
+import org.mule.extension.vectors.internal.helper.provider.EmbeddingEncodingProvider;
+import org.mule.extension.vectors.internal.helper.provider.EmbeddingQuantizationProvider;
+import org.mule.runtime.api.meta.ExpressionSupport;
+import org.mule.runtime.extension.api.annotation.Alias;
+import org.mule.runtime.extension.api.annotation.Expression;
+import org.mule.runtime.extension.api.annotation.param.Optional;
+import org.mule.runtime.extension.api.annotation.param.Parameter;
+import org.mule.runtime.extension.api.annotation.param.display.DisplayName;
+import org.mule.runtime.extension.api.annotation.param.display.Placement;
+import org.mule.runtime.extension.api.annotation.param.display.Summary;
+import org.mule.runtime.extension.api.annotation.values.OfValues;
+
+public class EmbeddingOutputParameters {
+
+  @Parameter
+  @Alias("embeddingEncoding")
+  @DisplayName("Embedding Encoding")
+  @Summary("Encoding of the embedding vectors in the response. Base64 encodings hold the little-endian float32 or " +
+      "float16 values of each vector in a single string, which is smaller and faster to write and parse than an array of numbers.")
+  @Placement(order = 1)
+  @Expression(ExpressionSupport.SUPPORTED)
+  @OfValues(EmbeddingEncodingProvider.class)
+  @Optional(defaultValue = Constants.EMBEDDING_ENCODING_FLOAT_ARRAY)
+  private String embeddingEncoding;
+
+  @Parameter
+  @Alias("quantization")
+  @DisplayName("Quantization")
+  @Summary("Adds quantized embeddings to the response: int8 scalar quantized or 1-bit binary vectors, base64 encoded, " +
+      "with the per-vector scale and offset needed to dequantize them.")
+  @Placement(order = 2)
+  @Expression(ExpressionSupport.SUPPORTED)
+  @OfValues(EmbeddingQuantizationProvider.class)
+  @Optional(defaultValue = Constants.EMBEDDING_QUANTIZATION_NONE)
+  private String quantization;
+
+  @Parameter
+  @Alias("includeFullPrecisionEmbeddings")
+  @DisplayName("Include Full Precision Embeddings")
+  @Summary("Whether full precision embeddings are written along with the quantized ones, e.g. to rescore candidates " +
+      "retrieved with quantized vectors. Ignored without quantization.")
+  @Placement(order = 3)
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Optional(defaultValue = "true")
+  private boolean includeFullPrecisionEmbeddings;
+
+  public String getEmbeddingEncoding() {
+    return embeddingEncoding;
+  }
+
+  public String getQuantization() {
+    return quantization;
+  }
+
+  public boolean isQuantized() {
+    return quantization != null && !Constants.EMBEDDING_QUANTIZATION_NONE.equals(quantization);
+  }
+
+  public boolean isIncludeFullPrecisionEmbeddings() {
+    return includeFullPrecisionEmbeddings;
+  }
+}
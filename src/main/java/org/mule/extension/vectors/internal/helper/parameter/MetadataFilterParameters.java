@@ -256,4 +256,51 @@ public abstract class MetadataFilterParameters {
     @Override
     public boolean isMetadataValueEmpty() { return metadataValue == null || metadataValue.isEmpty(); }
   }
+
+  /**
+   * Inner class representing the filter parameters of a query in a batch, read from the operation input.
+   */
+  public static class QueryFilterParameters extends MetadataFilterParameters {
+
+    private final String metadataKey;
+    private final String filterMethod;
+    private final String metadataValue;
+
+    /**
+     * @param metadataKey   the metadata key used for filtering.
+     * @param filterMethod  the filtering method, defaulting to "isEqualTo" if {@code null}.
+     * @param metadataValue the metadata value used for filtering.
+     */
+    public QueryFilterParameters(String metadataKey, String filterMethod, String metadataValue) {
+
+      this.metadataKey = metadataKey;
+      this.filterMethod = filterMethod != null ? filterMethod : Constants.METADATA_FILTER_METHOD_IS_EQUAL_TO;
+      this.metadataValue = metadataValue;
+    }
+
+    @Override
+    public String getMetadataKey() {
+      return metadataKey;
+    }
+
+    @Override
+    public String getFilterMethod() {
+      return filterMethod;
+    }
+
+    @Override
+    public Object getMetadataValue() {
+
+      return metadataValue != null && !metadataValue.isEmpty() ? Utils.convertStringToType(metadataValue) : metadataValue;
+    }
+
+    @Override
+    public boolean isMetadataKeyEmpty() { return metadataKey == null || metadataKey.isEmpty(); }
+
+    @Override
+    public boolean isFilterMethodEmpty() { return filterMethod == null || filterMethod.isEmpty(); }
+
+    @Override
+    public boolean isMetadataValueEmpty() { return metadataValue == null || metadataValue.isEmpty(); }
+  }
 }
@@ -0,0 +1,67 @@
+package org.mule.extension.vectors.internal.helper.parameter;
+
+import org.mule.runtime.api.meta.ExpressionSupport;
+import org.mule.runtime.extension.api.annotation.Alias;
+import org.mule.runtime.extension.api.annotation.Expression;
+import org.mule.runtime.extension.api.annotation.param.Optional;
+import org.mule.runtime.extension.api.annotation.param.Parameter;
+import org.mule.runtime.extension.api.annotation.param.display.DisplayName;
+import org.mule.runtime.extension.api.annotation.param.display.Placement;
+import org.mule.runtime.extension.api.annotation.param.display.Summary;
+
+public class QueryCacheParameters {
+
+  @Parameter
+  @Alias("queryCacheEnabled")
+  @DisplayName("Enable Query Cache")
+  @Summary("Cache query results in memory and reuse them for the same query on the same store. Entries of a store " +
+      "are invalidated when data is added to or removed from it through this configuration.")
+  @Placement(order = 1)
+  @Expression(ExpressionSupport.NOT_SUPPORTED)
+  @Optional(defaultValue = "false")
+  private boolean queryCacheEnabled;
+
+  @Parameter
+  @Alias("queryCacheMaxEntries")
+  @DisplayName("Max Entries")
+  @Summary("Maximum number of query results kept in the cache. Defaults to 1000.")
+  @Placement(order = 2)
+  @Expression(ExpressionSupport.NOT_SUPPORTED)
+  @Optional(defaultValue = "1000")
+  private int queryCacheMaxEntries;
+
+  @Parameter
+  @Alias("queryCacheTtlInSeconds")
+  @DisplayName("Time To Live (Seconds)")
+  @Summary("Time after which cached query results expire. Defaults to 300.")
+  @Placement(order = 3)
+  @Expression(ExpressionSupport.NOT_SUPPORTED)
+  @Optional(defaultValue = "300")
+  private long queryCacheTtlInSeconds;
+
+  @Parameter
+  @Alias("queryCacheSimilarityThreshold")
+  @DisplayName("Similarity Threshold")
+  @Summary("Minimum cosine similarity, between 0 and 1, for the results of a cached query to be reused by a query " +
+      "with a different but similar embedding. Only identical queries reuse results when not set.")
+  @Placement(order = 4)
+  @Expression(ExpressionSupport.NOT_SUPPORTED)
+  @Optional
+  private Double queryCacheSimilarityThreshold;
+
+  public boolean isQueryCacheEnabled() {
+    return queryCacheEnabled;
+  }
+
+  public int getQueryCacheMaxEntries() {
+    return queryCacheMaxEntries;
+  }
+
+  public long getQueryCacheTtlInSeconds() {
+    return queryCacheTtlInSeconds;
+  }
+
+  public Double getQueryCacheSimilarityThreshold() {
+    return queryCacheSimilarityThreshold;
+  }
+}
@@ -0,0 +1,110 @@
+package org.mule.extension.vectors.internal.helper.parameter;
+
+import org.mule.runtime.api.meta.ExpressionSupport;
+import org.mule.runtime.extension.api.annotation.Alias;
+import org.mule.runtime.extension.api.annotation.Expression;
+import org.mule.runtime.extension.api.annotation.param.Optional;
+import org.mule.runtime.extension.api.annotation.param.Parameter;
+import org.mule.runtime.extension.api.annotation.param.display.DisplayName;
+import org.mule.runtime.extension.api.annotation.param.display.Placement;
+import org.mule.runtime.extension.api.annotation.param.display.Summary;
+
+public class StoreIngestionParameters {
+
+  @Parameter
+  @Alias("chunkSize")
+  @DisplayName("Chunk Size")
+  @Summary("Number of text segments and embeddings upserted into the store per request. Defaults to 1000.")
+  @Placement(order = 1)
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Optional(defaultValue = "1000")
+  private int chunkSize;
+
+  @Parameter
+  @Alias("parallelism")
+  @DisplayName("Parallelism")
+  @Summary("Maximum number of chunks upserted into the store concurrently. Defaults to 1.")
+  @Placement(order = 2)
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Optional(defaultValue = "1")
+  private int parallelism;
+
+  @Parameter
+  @Alias("maxChunkRetries")
+  @DisplayName("Max Retries Per Chunk")
+  @Summary("Number of times a chunk failing with a transient error, such as a timeout or an overloaded store, is retried before being reported as failed. Other errors are not retried. Defaults to 2.")
+  @Placement(order = 3)
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Optional(defaultValue = "2")
+  private int maxChunkRetries;
+
+  @Parameter
+  @Alias("deterministicIds")
+  @DisplayName("Derive IDs From Content")
+  @Summary("Derive embedding IDs from the source key, segment index and content hash, so that re-ingesting a source " +
+      "upserts its segments instead of duplicating them.")
+  @Placement(order = 4)
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Optional(defaultValue = "false")
+  private boolean deterministicIds;
+
+  @Parameter
+  @Alias("sourceKey")
+  @DisplayName("Source Key")
+  @Summary("Key identifying the source of the text segments when deriving IDs. Defaults to the directory path and " +
+      "file name, URL, source or title found in the metadata of each segment.")
+  @Placement(order = 5)
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Optional
+  private String sourceKey;
+
+  @Parameter
+  @Alias("skipUnchanged")
+  @DisplayName("Skip Unchanged Segments")
+  @Summary("Check the store before each upsert and skip the segments already stored with the same content hash. " +
+      "Requires IDs derived from content.")
+  @Placement(order = 6)
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Optional(defaultValue = "false")
+  private boolean skipUnchanged;
+
+  @Parameter
+  @Alias("removeStaleSegments")
+  @DisplayName("Remove Stale Segments")
+  @Summary("Once all the chunks are ingested, remove the segments of the ingested sources left by previous " +
+      "ingestions, such as the previous versions of edited segments. Skipped if any chunk fails. The last ingestion " +
+      "of a source to complete wins, removing the segments written by concurrent ones. Requires IDs derived from " +
+      "content and cannot be combined with skipping unchanged segments, which are not rewritten.")
+  @Placement(order = 7)
+  @Expression(ExpressionSupport.SUPPORTED)
+  @Optional(defaultValue = "false")
+  private boolean removeStaleSegments;
+
+  public int getChunkSize() {
+    return Math.max(1, chunkSize);
+  }
+
+  public int getParallelism() {
+    return Math.max(1, parallelism);
+  }
+
+  public int getMaxChunkRetries() {
+    return Math.max(0, maxChunkRetries);
+  }
+
+  public boolean isDeterministicIds() {
+    return deterministicIds;
+  }
+
+  public String getSourceKey() {
+    return sourceKey;
+  }
+
+  public boolean isSkipUnchanged() {
+    return skipUnchanged;
+  }
+
+  public boolean isRemoveStaleSegments() {
+    return removeStaleSegments;
+  }
+}
@@ -0,0 +1,22 @@
+package org.mule.extension.vectors.internal.helper.provider;
+
+import java.util.Set;
+
+import org.mule.extension.vectors.internal.constant.Constants;
+import org.mule.runtime.api.value.Value;
+import org.mule.runtime.extension.api.values.ValueBuilder;
+import org.mule.runtime.extension.api.values.ValueProvider;
+import org.mule.runtime.extension.api.values.ValueResolvingException;
+
+public class EmbeddingEncodingProvider implements ValueProvider {
+
+  @Override
+  public Set<Value> resolve() throws ValueResolvingException {
+
+    return ValueBuilder.getValuesFor(
+            Constants.EMBEDDING_ENCODING_FLOAT_ARRAY,
+            Constants.EMBEDDING_ENCODING_BASE64_FLOAT32,
+            Constants.EMBEDDING_ENCODING_BASE64_FLOAT16);
+  }
+
+}
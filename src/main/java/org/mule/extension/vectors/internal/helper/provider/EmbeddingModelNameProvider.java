@@ -48,6 +48,11 @@ public class EmbeddingModelNameProvider implements ValueProvider {
       Constants.EMBEDDING_MODEL_NAME_SFDC_OPENAI_TEXT_EMBEDDING_ADA_002
   );
 
+  private static final Set<Value> VALUES_FOR_ONNX = ValueBuilder.getValuesFor(
+      Constants.EMBEDDING_MODEL_NAME_ALL_MINI_LM_L6_V2,
+      Constants.EMBEDDING_MODEL_NAME_BGE_SMALL_EN_V15
+  );
+
   @Override
   public Set<Value> resolve() throws ValueResolvingException {
 
@@ -65,6 +70,8 @@ public class EmbeddingModelNameProvider implements ValueProvider {
         return VALUES_FOR_HUGGING_FACE;
       case Constants.EMBEDDING_MODEL_SERVICE_EINSTEIN:
         return VALUES_FOR_EINSTEIN;
+      case Constants.EMBEDDING_MODEL_SERVICE_ONNX:
+        return VALUES_FOR_ONNX;
       default:
         return Collections.emptySet();
     }
@@ -0,0 +1,113 @@
+package org.mule.extension.vectors.internal.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Statistics of the calls sent to an embedding model service on behalf of one operation.
+ * <p>
+ * Embedding models are shared by all the operations using a connection, and their interface only returns embeddings
+ * and token usage. The statistics of an operation are therefore bound to the thread calling the model, where the
+ * batching and rate limiting layers record the batches they send and the retries they make. Layers handing the work
+ * over to other threads bind the same statistics there.
+ */
+public class EmbeddingCallStatistics {
+
+  private static final ThreadLocal<EmbeddingCallStatistics> CURRENT = new ThreadLocal<>();
+
+  private final AtomicInteger batchCount = new AtomicInteger();
+  private final AtomicInteger retryCount = new AtomicInteger();
+  private final AtomicLong latencyMillis = new AtomicLong();
+  private Integer inputTokenCount;
+
+  /**
+   * Returns the statistics bound to the current thread.
+   *
+   * @return the current statistics, or {@code null} if none is bound.
+   */
+  public static EmbeddingCallStatistics current() {
+
+    return CURRENT.get();
+  }
+
+  /**
+   * Runs a call with the given statistics bound to the current thread.
+   *
+   * @param statistics the statistics to bind, may be {@code null}.
+   * @param call       the call.
+   * @return the result of the call.
+   */
+  public static <T> T callWith(EmbeddingCallStatistics statistics, Supplier<T> call) {
+
+    EmbeddingCallStatistics previous = CURRENT.get();
+    CURRENT.set(statistics);
+    try {
+
+      return call.get();
+    } finally {
+
+      if(previous != null) CURRENT.set(previous); else CURRENT.remove();
+    }
+  }
+
+  /**
+   * Records a batch sent to the embedding model service into the statistics bound to the current thread, if any.
+   */
+  public static void recordBatch() {
+
+    EmbeddingCallStatistics statistics = CURRENT.get();
+    if(statistics != null) statistics.batchCount.incrementAndGet();
+  }
+
+  /**
+   * Records a retried request into the statistics bound to the current thread, if any.
+   */
+  public static void recordRetry() {
+
+    EmbeddingCallStatistics statistics = CURRENT.get();
+    if(statistics != null) statistics.retryCount.incrementAndGet();
+  }
+
+  /**
+   * Adds the counts of other statistics to these ones.
+   *
+   * @param other the statistics to add.
+   */
+  public void add(EmbeddingCallStatistics other) {
+
+    batchCount.addAndGet(other.getBatchCount());
+    retryCount.addAndGet(other.getRetryCount());
+  }
+
+  /**
+   * Records a call to the embedding model.
+   *
+   * @param latencyMillis   the duration of the call, retries included.
+   * @param inputTokenCount the number of input tokens reported by the service, {@code null} if not reported.
+   */
+  public synchronized void recordCall(long latencyMillis, Integer inputTokenCount) {
+
+    this.latencyMillis.addAndGet(latencyMillis);
+    if(inputTokenCount != null) {
+
+      this.inputTokenCount = this.inputTokenCount == null ? inputTokenCount : this.inputTokenCount + inputTokenCount;
+    }
+  }
+
+  public int getBatchCount() {
+    return batchCount.get();
+  }
+
+  public int getRetryCount() {
+    return retryCount.get();
+  }
+
+  public long getLatencyMillis() {
+    return latencyMillis.get();
+  }
+
+  public synchronized Integer getInputTokenCount() {
+    return inputTokenCount;
+  }
+}
@@ -0,0 +1,102 @@
+package org.mule.extension.vectors.internal.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cumulative metrics of the operations using an embedding model.
+ */
+public class EmbeddingMetrics implements EmbeddingMetricsMXBean {
+
+  private final LongAdder requestCount = new LongAdder();
+  private final LongAdder segmentCount = new LongAdder();
+  private final LongAdder inputTokenCount = new LongAdder();
+  private final LongAdder batchCount = new LongAdder();
+  private final LongAdder retryCount = new LongAdder();
+  private final LongAdder cacheHitCount = new LongAdder();
+  private final LongAdder diskStoreHitCount = new LongAdder();
+  private final LongAdder cacheMissCount = new LongAdder();
+  private final LongAdder totalLatencyMillis = new LongAdder();
+  private final AtomicLong maxLatencyMillis = new AtomicLong();
+
+  /**
+   * Records one operation.
+   *
+   * @param segments      the number of segments embedded.
+   * @param statistics    the statistics of the calls to the embedding model service.
+   * @param cacheHits     the number of embeddings served from the embedding cache.
+   * @param diskStoreHits the number of embeddings served from the embedding disk store.
+   * @param cacheMisses   the number of embeddings found in neither and generated by the embedding model.
+   */
+  public void record(int segments, EmbeddingCallStatistics statistics, int cacheHits, int diskStoreHits,
+                     int cacheMisses) {
+
+    requestCount.increment();
+    segmentCount.add(segments);
+    if(statistics.getInputTokenCount() != null) inputTokenCount.add(statistics.getInputTokenCount());
+    batchCount.add(statistics.getBatchCount());
+    retryCount.add(statistics.getRetryCount());
+    cacheHitCount.add(cacheHits);
+    diskStoreHitCount.add(diskStoreHits);
+    cacheMissCount.add(cacheMisses);
+    totalLatencyMillis.add(statistics.getLatencyMillis());
+    maxLatencyMillis.accumulateAndGet(statistics.getLatencyMillis(), Math::max);
+  }
+
+  @Override
+  public long getRequestCount() {
+    return requestCount.sum();
+  }
+
+  @Override
+  public long getSegmentCount() {
+    return segmentCount.sum();
+  }
+
+  @Override
+  public long getInputTokenCount() {
+    return inputTokenCount.sum();
+  }
+
+  @Override
+  public long getBatchCount() {
+    return batchCount.sum();
+  }
+
+  @Override
+  public long getRetryCount() {
+    return retryCount.sum();
+  }
+
+  @Override
+  public long getCacheHitCount() {
+    return cacheHitCount.sum();
+  }
+
+  @Override
+  public long getDiskStoreHitCount() {
+    return diskStoreHitCount.sum();
+  }
+
+  @Override
+  public long getCacheMissCount() {
+    return cacheMissCount.sum();
+  }
+
+  @Override
+  public long getTotalLatencyMillis() {
+    return totalLatencyMillis.sum();
+  }
+
+  @Override
+  public long getMaxLatencyMillis() {
+    return maxLatencyMillis.get();
+  }
+
+  @Override
+  public double getAverageLatencyMillis() {
+
+    long requests = requestCount.sum();
+    return requests == 0 ? 0 : totalLatencyMillis.sum() / (double) requests;
+  }
+}
@@ -0,0 +1,29 @@
+package org.mule.extension.vectors.internal.metrics;
+
+/**
+ * Management interface of the metrics of an embedding model, exposed through JMX.
+ */
+public interface EmbeddingMetricsMXBean {
+
+  long getRequestCount();
+
+  long getSegmentCount();
+
+  long getInputTokenCount();
+
+  long getBatchCount();
+
+  long getRetryCount();
+
+  long getCacheHitCount();
+
+  long getDiskStoreHitCount();
+
+  long getCacheMissCount();
+
+  long getTotalLatencyMillis();
+
+  long getMaxLatencyMillis();
+
+  double getAverageLatencyMillis();
+}
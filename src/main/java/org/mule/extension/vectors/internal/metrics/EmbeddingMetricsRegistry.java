@@ -0,0 +1,112 @@
+package org.mule.extension.vectors.internal.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the metrics of the embedding models used through a connection, one entry per embedding model key.
+ * <p>
+ * Each entry is also registered as an MXBean named
+ * {@code org.mule.extension.vectors:type=EmbeddingMetrics,connection=<connection id>,model=<embedding model key>},
+ * so that token usage, latency and batching can be monitored with any JMX client or exporter. The registry is owned
+ * by the connection and closed when it is disconnected, which unregisters the MXBeans so that they do not outlive
+ * the application.
+ */
+public final class EmbeddingMetricsRegistry {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(EmbeddingMetricsRegistry.class);
+
+  private static final String OBJECT_NAME_PATTERN =
+      "org.mule.extension.vectors:type=EmbeddingMetrics,connection=%s,model=%s";
+
+  private final String connectionId;
+  private final Map<String, EmbeddingMetrics> metrics = new ConcurrentHashMap<>();
+  private final Map<String, ObjectName> objectNames = new ConcurrentHashMap<>();
+  private boolean closed;
+
+  /**
+   * @param connectionId the identifier of the connection owning the registry, unique within the runtime.
+   */
+  public EmbeddingMetricsRegistry(String connectionId) {
+
+    this.connectionId = connectionId;
+  }
+
+  /**
+   * Returns the metrics of the given embedding model, registering them on first use. Once the registry is closed,
+   * metrics are still returned so that in-flight operations complete, but they are no longer registered.
+   *
+   * @param embeddingModelKey the key identifying the embedding model.
+   * @return the embedding model metrics.
+   */
+  public EmbeddingMetrics getMetrics(String embeddingModelKey) {
+
+    return metrics.computeIfAbsent(embeddingModelKey, key -> {
+
+      EmbeddingMetrics embeddingMetrics = new EmbeddingMetrics();
+      register(key, embeddingMetrics);
+      return embeddingMetrics;
+    });
+  }
+
+  /**
+   * Returns the metrics of all the embedding models used so far.
+   *
+   * @return the metrics by embedding model key.
+   */
+  public Map<String, EmbeddingMetrics> getAllMetrics() {
+
+    return Collections.unmodifiableMap(metrics);
+  }
+
+  /**
+   * Unregisters the MXBeans of the registry and forgets its metrics.
+   */
+  public synchronized void close() {
+
+    closed = true;
+    MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    for(ObjectName objectName : objectNames.values()) {
+
+      try {
+
+        mBeanServer.unregisterMBean(objectName);
+      } catch (InstanceNotFoundException e) {
+
+        // Already unregistered
+      } catch (JMException | RuntimeException e) {
+
+        LOGGER.debug(String.format("Unable to unregister the embedding metrics %s.", objectName), e);
+      }
+    }
+    objectNames.clear();
+    metrics.clear();
+  }
+
+  private synchronized void register(String key, EmbeddingMetrics embeddingMetrics) {
+
+    if(closed) return;
+    try {
+
+      MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+      ObjectName objectName = new ObjectName(
+          String.format(OBJECT_NAME_PATTERN, ObjectName.quote(connectionId), ObjectName.quote(key)));
+      // A bean left over under the same name would expose stale counters: the fresh metrics replace it
+      if(mBeanServer.isRegistered(objectName)) mBeanServer.unregisterMBean(objectName);
+      mBeanServer.registerMBean(embeddingMetrics, objectName);
+      objectNames.put(key, objectName);
+    } catch (JMException | RuntimeException e) {
+
+      LOGGER.debug(String.format("Unable to register the metrics of embedding model %s.", key), e);
+    }
+  }
+}
@@ -1,27 +1,34 @@
 package org.mule.extension.vectors.internal.model;
 
+import dev.langchain4j.data.embedding.Embedding;
 import dev.langchain4j.model.embedding.EmbeddingModel;
 import org.mule.extension.vectors.internal.config.EmbeddingConfiguration;
 import org.mule.extension.vectors.internal.connection.model.BaseModelConnection;
+import org.mule.extension.vectors.internal.connection.model.EmbeddingRateLimiter;
 import org.mule.extension.vectors.internal.connection.model.azureopenai.AzureOpenAIModelConnection;
 import org.mule.extension.vectors.internal.connection.model.einstein.EinsteinModelConnection;
 import org.mule.extension.vectors.internal.connection.model.huggingface.HuggingFaceModelConnection;
 import org.mule.extension.vectors.internal.connection.model.mistralai.MistralAIModelConnection;
 import org.mule.extension.vectors.internal.connection.model.nomic.NomicModelConnection;
+import org.mule.extension.vectors.internal.connection.model.onnx.OnnxModelConnection;
 import org.mule.extension.vectors.internal.connection.model.openai.OpenAIModelConnection;
 import org.mule.extension.vectors.internal.constant.Constants;
 import org.mule.extension.vectors.internal.error.MuleVectorsErrorType;
 import org.mule.extension.vectors.internal.helper.parameter.EmbeddingModelParameters;
+import org.mule.extension.vectors.internal.metrics.EmbeddingMetrics;
 import org.mule.extension.vectors.internal.model.azureopenai.AzureOpenAIModel;
 import org.mule.extension.vectors.internal.model.einstein.EinsteinModel;
 import org.mule.extension.vectors.internal.model.huggingface.HuggingFaceModel;
 import org.mule.extension.vectors.internal.model.mistralai.MistralAIModel;
 import org.mule.extension.vectors.internal.model.nomic.NomicModel;
+import org.mule.extension.vectors.internal.model.onnx.OnnxModel;
 import org.mule.extension.vectors.internal.model.openai.OpenAIModel;
 import org.mule.runtime.extension.api.exception.ModuleException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+
 public class BaseModel {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(BaseModel.class);
@@ -42,6 +49,173 @@ public class BaseModel {
     throw new UnsupportedOperationException("This method should be overridden by subclasses");
   }
 
+  /**
+   * Returns the embedding model for the current parameters, reusing the instance cached on the connection
+   * when available instead of building a new provider client for each call. The model is wrapped into a
+   * {@link BatchingEmbeddingModel} sized with the limits of the embedding model service, into a
+   * {@link TruncatingEmbeddingModel} when a target dimension is set and the service cannot shorten the embeddings of a
+   * model trained for it itself,
+   * and, when enabled on the connection, into a {@link CoalescingEmbeddingModel}.
+   *
+   * @return the embedding model.
+   */
+  public EmbeddingModel getEmbeddingModel() {
+
+    Integer targetDimension = getTargetDimension();
+    if(targetDimension != null && !supportsTargetDimension() && !supportsTruncation()) {
+
+      throw new ModuleException(
+          String.format("Target dimension is not supported by the embedding model \"%s\" of %s: its embeddings " +
+                            "cannot be shortened without losing most of their quality.",
+                        embeddingModelParameters.getEmbeddingModelName(), modelConnection.getEmbeddingModelService()),
+          MuleVectorsErrorType.INVALID_PARAMETERS_ERROR);
+    }
+    return modelConnection.getEmbeddingModel(getEmbeddingModelKey(), () -> {
+
+      EmbeddingModel embeddingModel = new BatchingEmbeddingModel(
+          buildEmbeddingModel(), getMaxSegmentsPerBatch(), getMaxTokensPerBatch(), getBatchRateLimiter());
+      if(targetDimension != null && !supportsTargetDimension()) {
+
+        embeddingModel = new TruncatingEmbeddingModel(embeddingModel, targetDimension);
+      }
+      if(modelConnection.isCoalescingEnabled()) {
+
+        embeddingModel = new CoalescingEmbeddingModel(
+            embeddingModel, modelConnection.getCoalescingWindowMillis(), modelConnection.getCoalescingMaxTexts(),
+            modelConnection.getCoalescingMaxWaitMillis());
+      }
+      return embeddingModel;
+    });
+  }
+
+  /**
+   * Returns the target dimension of the embeddings, if set.
+   *
+   * @return the target dimension, or {@code null} to keep the dimension of the model.
+   */
+  protected Integer getTargetDimension() {
+
+    Integer targetDimension = embeddingModelParameters.getTargetDimension();
+    if(targetDimension != null && targetDimension <= 0) {
+
+      throw new ModuleException(String.format("Target dimension must be greater than 0. Received: %s", targetDimension),
+                                MuleVectorsErrorType.INVALID_PARAMETERS_ERROR);
+    }
+    return targetDimension;
+  }
+
+  /**
+   * Returns whether the embedding model service shortens embeddings to the target dimension itself. When it does,
+   * {@link #buildEmbeddingModel()} passes the target dimension to it; otherwise embeddings are truncated and
+   * re-normalized locally.
+   *
+   * @return {@code true} if the service supports a target dimension.
+   */
+  protected boolean supportsTargetDimension() {
+
+    return false;
+  }
+
+  /**
+   * Returns whether the embeddings of the model can be truncated to the target dimension locally, which only keeps
+   * their quality for models trained with Matryoshka representation learning. A target dimension is rejected for the
+   * models neither supporting it nor truncation.
+   *
+   * @return {@code true} if the model was trained for truncated embeddings.
+   */
+  protected boolean supportsTruncation() {
+
+    return false;
+  }
+
+  /**
+   * Returns the rate limiter each batch sent to the embedding model goes through. Subclasses whose embedding model
+   * splits batches into several requests return {@code null} and apply the limiter of the connection per request.
+   *
+   * @return the rate limiter, or {@code null}.
+   */
+  protected EmbeddingRateLimiter getBatchRateLimiter() {
+
+    return modelConnection.getRateLimiter();
+  }
+
+  /**
+   * Returns the maximum number of segments the embedding model service accepts in a single request.
+   *
+   * @return the maximum number of segments per batch.
+   */
+  protected int getMaxSegmentsPerBatch() {
+
+    return 16;
+  }
+
+  /**
+   * Returns the maximum number of tokens the embedding model service accepts in a single request.
+   *
+   * @return the maximum number of tokens per batch.
+   */
+  protected int getMaxTokensPerBatch() {
+
+    return 8192;
+  }
+
+  /**
+   * Returns the dimension of the embedding model, served from the registry on the connection. On first use it is
+   * resolved from the target dimension or the dimension known up front for the model, or else from the given
+   * embeddings, so that no extra call is issued to the embedding model service.
+   *
+   * @param embeddings embeddings just generated with the model, used to resolve the dimension when unknown.
+   * @return the embedding model dimension.
+   */
+  public int getEmbeddingModelDimension(List<Embedding> embeddings) {
+
+    return modelConnection.getEmbeddingModelDimension(getEmbeddingModelKey(), () -> {
+
+      Integer knownDimension = getTargetDimension() != null ? getTargetDimension() : getKnownDimension();
+      if(knownDimension != null) return knownDimension;
+      if(embeddings != null && !embeddings.isEmpty()) return embeddings.get(0).dimension();
+      return getEmbeddingModel().dimension();
+    });
+  }
+
+  /**
+   * Returns the metrics of the embedding model, registered on the connection.
+   *
+   * @return the embedding model metrics.
+   */
+  public EmbeddingMetrics getEmbeddingMetrics() {
+
+    return modelConnection.getEmbeddingMetricsRegistry().getMetrics(getEmbeddingModelKey());
+  }
+
+  /**
+   * Returns the dimension known up front for the embedding model, if any.
+   *
+   * @return the known dimension, or {@code null} if it is not known.
+   */
+  protected Integer getKnownDimension() {
+
+    return null;
+  }
+
+  /**
+   * Returns the key identifying the embedding model built by this instance, made of the service, the model name,
+   * the target dimension and the fingerprint of the connection, so that the same model name served by different
+   * endpoints does not share cached models or embeddings. Subclasses adding parameters which affect the built model
+   * must include them in the key.
+   *
+   * @return the embedding model cache key.
+   */
+  public String getEmbeddingModelKey() {
+
+    String embeddingModelKey = modelConnection.getEmbeddingModelService() + ":" + embeddingModelParameters.getEmbeddingModelName();
+    Integer targetDimension = embeddingModelParameters.getTargetDimension();
+    if(targetDimension != null) embeddingModelKey = embeddingModelKey + ":" + targetDimension;
+    String connectionFingerprint = modelConnection.getConnectionFingerprint();
+    return connectionFingerprint != null && !connectionFingerprint.isEmpty() ?
+        embeddingModelKey + "@" + connectionFingerprint : embeddingModelKey;
+  }
+
   public static BaseModel.Builder builder() {
 
     return new BaseModel.Builder();
@@ -103,6 +277,10 @@ public class BaseModel {
           baseModel = new EinsteinModel(embeddingConfiguration, (EinsteinModelConnection) modelConnection, embeddingModelParameters);
           break;
 
+        case Constants.EMBEDDING_MODEL_SERVICE_ONNX:
+          baseModel = new OnnxModel(embeddingConfiguration, (OnnxModelConnection) modelConnection, embeddingModelParameters);
+          break;
+
         default:
           throw new ModuleException(
               String.format("Error while initializing embedding model service. \"%s\" is not supported.", modelConnection.getEmbeddingModelService()),
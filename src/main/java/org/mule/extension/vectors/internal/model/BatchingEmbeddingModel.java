@@ -0,0 +1,212 @@
+package org.mule.extension.vectors.internal.model;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
+import org.mule.extension.vectors.internal.connection.model.EmbeddingRateLimiter;
+import org.mule.extension.vectors.internal.metrics.EmbeddingCallStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Embedding model wrapper which splits the segments to embed into batches sized for the embedding model service.
+ * <p>
+ * Segments are packed, in order, into batches bounded by the number of segments and by the estimated number of tokens
+ * the service accepts per request. Both bounds are scaled by a budget factor adjusted from what is observed: it is
+ * halved when the service rejects a batch as too large (413), the rejected batch being split and retried; it is
+ * reduced when a batch takes longer than the target latency; and it grows back slowly while batches are fast. The
+ * wrapper is cached on the connection along with the model, so the budget is kept across calls.
+ * <p>
+ * Each batch goes through the rate limiter of the connection, which waits for capacity and retries rate limited
+ * batches, halving the budget on each rate limited attempt. A batch still rate limited once the retries of the
+ * limiter are exhausted fails: splitting it would only send more requests to a service asking for fewer.
+ */
+public class BatchingEmbeddingModel implements EmbeddingModel {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(BatchingEmbeddingModel.class);
+
+  // Rough estimate, for English text, of the number of characters per token across tokenizers.
+  private static final int CHARS_PER_TOKEN = 4;
+
+  private static final double MIN_BUDGET_FACTOR = 1.0 / 64;
+  private static final double LATENCY_DECREASE_FACTOR = 0.75;
+  private static final double INCREASE_STEP = 0.1;
+  private static final long TARGET_BATCH_LATENCY_MILLIS = 10000;
+  private static final int MAX_ADAPTIVE_RETRIES = 4;
+  private static final Pattern TOO_LARGE_PATTERN =
+      Pattern.compile("(?i)payload too large|request too large|too many (tokens|inputs)|max(imum)? [^.]*tokens per request");
+
+  private final EmbeddingModel delegate;
+  private final int maxSegmentsPerBatch;
+  private final int maxTokensPerBatch;
+  private final EmbeddingRateLimiter rateLimiter;
+
+  private volatile double budgetFactor = 1.0;
+
+  /**
+   * @param delegate            the embedding model actually calling the service.
+   * @param maxSegmentsPerBatch the maximum number of segments the service accepts per request.
+   * @param maxTokensPerBatch   the maximum number of tokens the service accepts per request.
+   * @param rateLimiter         the rate limiter each batch goes through, or {@code null} if the delegate applies it.
+   */
+  public BatchingEmbeddingModel(EmbeddingModel delegate, int maxSegmentsPerBatch, int maxTokensPerBatch,
+                                EmbeddingRateLimiter rateLimiter) {
+
+    this.delegate = delegate;
+    this.maxSegmentsPerBatch = Math.max(1, maxSegmentsPerBatch);
+    this.maxTokensPerBatch = Math.max(1, maxTokensPerBatch);
+    this.rateLimiter = rateLimiter;
+  }
+
+  public EmbeddingModel getDelegate() {
+    return delegate;
+  }
+
+  @Override
+  public Response<List<Embedding>> embedAll(List<TextSegment> textSegments) {
+
+    List<TextSegment> segments = new ArrayList<>(textSegments);
+    List<Embedding> embeddings = new ArrayList<>(segments.size());
+    int inputTokenCount = 0;
+    boolean hasTokenUsage = false;
+
+    int start = 0;
+    while(start < segments.size()) {
+
+      int end = nextBatchEnd(segments, start);
+      Response<List<Embedding>> response = embedBatch(segments.subList(start, end), 0);
+      embeddings.addAll(response.content());
+      if(response.tokenUsage() != null && response.tokenUsage().inputTokenCount() != null) {
+
+        inputTokenCount += response.tokenUsage().inputTokenCount();
+        hasTokenUsage = true;
+      }
+      start = end;
+    }
+
+    return Response.from(embeddings, hasTokenUsage ? new TokenUsage(inputTokenCount) : null);
+  }
+
+  @Override
+  public int dimension() {
+
+    return delegate.dimension();
+  }
+
+  /**
+   * Returns the end, exclusive, of the batch starting at the given index, within the current budget.
+   * A batch always holds at least one segment.
+   */
+  private int nextBatchEnd(List<TextSegment> segments, int start) {
+
+    double factor = budgetFactor;
+    int segmentLimit = Math.max(1, (int) (maxSegmentsPerBatch * factor));
+    long tokenLimit = Math.max(1, (long) (maxTokensPerBatch * factor));
+
+    int end = start;
+    long tokens = 0;
+    while(end < segments.size() && end - start < segmentLimit) {
+
+      long segmentTokens = estimateTokenCount(segments.get(end));
+      if(end > start && tokens + segmentTokens > tokenLimit) break;
+      tokens += segmentTokens;
+      end++;
+    }
+    return end;
+  }
+
+  private Response<List<Embedding>> embedBatch(List<TextSegment> batch, int attempt) {
+
+    long startTime = System.currentTimeMillis();
+    try {
+
+      Response<List<Embedding>> response = rateLimiter != null ?
+          rateLimiter.execute(estimateTokenCount(batch), () -> delegate.embedAll(batch), () -> decreaseBudget(0.5)) :
+          delegate.embedAll(batch);
+      onBatchCompleted(batch.size(), System.currentTimeMillis() - startTime);
+      EmbeddingCallStatistics.recordBatch();
+      return response;
+
+    } catch (RuntimeException e) {
+
+      int statusCode = resolveStatusCode(e);
+      if(statusCode != 413 || batch.size() == 1 || attempt >= MAX_ADAPTIVE_RETRIES) throw e;
+
+      decreaseBudget(0.5);
+      EmbeddingCallStatistics.recordRetry();
+      LOGGER.debug(String.format("Embedding batch of %s segment(s) rejected with status %s. Budget factor reduced to %s.",
+                                 batch.size(), statusCode, budgetFactor));
+
+      // Split the rejected batch within the reduced budget and retry each part.
+      List<Embedding> embeddings = new ArrayList<>(batch.size());
+      int inputTokenCount = 0;
+      boolean hasTokenUsage = false;
+      int start = 0;
+      while(start < batch.size()) {
+
+        int end = Math.min(nextBatchEnd(batch, start), start + Math.max(1, batch.size() / 2));
+        Response<List<Embedding>> response = embedBatch(batch.subList(start, end), attempt + 1);
+        embeddings.addAll(response.content());
+        if(response.tokenUsage() != null && response.tokenUsage().inputTokenCount() != null) {
+
+          inputTokenCount += response.tokenUsage().inputTokenCount();
+          hasTokenUsage = true;
+        }
+        start = end;
+      }
+      return Response.from(embeddings, hasTokenUsage ? new TokenUsage(inputTokenCount) : null);
+    }
+  }
+
+  private void onBatchCompleted(int batchSize, long latencyMillis) {
+
+    if(latencyMillis > TARGET_BATCH_LATENCY_MILLIS) {
+
+      decreaseBudget(LATENCY_DECREASE_FACTOR);
+      LOGGER.debug(String.format("Embedding batch of %s segment(s) took %s ms. Budget factor reduced to %s.",
+                                 batchSize, latencyMillis, budgetFactor));
+    } else if(latencyMillis < TARGET_BATCH_LATENCY_MILLIS / 2 && budgetFactor < 1.0) {
+
+      budgetFactor = Math.min(1.0, budgetFactor + INCREASE_STEP);
+    }
+  }
+
+  private void decreaseBudget(double factor) {
+
+    budgetFactor = Math.max(MIN_BUDGET_FACTOR, budgetFactor * factor);
+  }
+
+  private static long estimateTokenCount(List<TextSegment> segments) {
+
+    long tokens = 0;
+    for(TextSegment segment : segments) tokens += estimateTokenCount(segment);
+    return tokens;
+  }
+
+  private static long estimateTokenCount(TextSegment segment) {
+
+    String text = segment.text();
+    return text == null ? 1 : Math.max(1, (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN);
+  }
+
+  /**
+   * Resolves the HTTP status code of a failed call to the embedding model service. Some services reject oversized
+   * requests with a 400 status: those are recognized by message and reported as 413.
+   *
+   * @return the status code, or {@code -1} if it cannot be resolved.
+   */
+  private static int resolveStatusCode(Throwable throwable) {
+
+    for(Throwable cause = throwable; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+
+      if(cause.getMessage() != null && TOO_LARGE_PATTERN.matcher(cause.getMessage()).find()) return 413;
+    }
+    return EmbeddingRateLimiter.resolveStatusCode(throwable);
+  }
+}
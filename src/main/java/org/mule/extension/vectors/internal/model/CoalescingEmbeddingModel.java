@@ -0,0 +1,203 @@
+package org.mule.extension.vectors.internal.model;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
+import org.mule.extension.vectors.internal.error.MuleVectorsErrorType;
+import org.mule.extension.vectors.internal.metrics.EmbeddingCallStatistics;
+import org.mule.runtime.extension.api.exception.ModuleException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Embedding model wrapper which coalesces the requests of concurrent callers into a single call.
+ * <p>
+ * The first caller opens a batch and waits for the coalescing window; callers arriving meanwhile add their segments
+ * to it. The batch is closed when the window elapses or when it holds the maximum number of texts, whichever comes
+ * first. The first caller then embeds all the segments with one call to the wrapped model and hands each caller
+ * back its own embeddings. Requests holding the maximum number of texts or more are not coalesced.
+ * <p>
+ * The other callers wait for the embeddings at most for the configured maximum wait, so that they are not held
+ * indefinitely if the call of the first caller hangs. Any failure of that call, errors included, is handed to all
+ * the callers.
+ */
+public class CoalescingEmbeddingModel implements EmbeddingModel {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(CoalescingEmbeddingModel.class);
+
+  private final EmbeddingModel delegate;
+  private final long windowMillis;
+  private final int maxTexts;
+  private final long maxWaitMillis;
+
+  private final Object lock = new Object();
+  private Batch openBatch;
+
+  /**
+   * @param delegate      the embedding model called with the coalesced segments.
+   * @param windowMillis  the time the first caller waits for other requests.
+   * @param maxTexts      the number of texts which closes a batch before the window elapses.
+   * @param maxWaitMillis the time the other callers wait for the embeddings of the call of the first caller,
+   *                      {@code 0} or less to wait indefinitely.
+   */
+  public CoalescingEmbeddingModel(EmbeddingModel delegate, long windowMillis, int maxTexts, long maxWaitMillis) {
+
+    this.delegate = delegate;
+    this.windowMillis = windowMillis;
+    this.maxTexts = Math.max(1, maxTexts);
+    this.maxWaitMillis = maxWaitMillis;
+  }
+
+  @Override
+  public Response<List<Embedding>> embedAll(List<TextSegment> textSegments) {
+
+    if(textSegments.size() >= maxTexts) return delegate.embedAll(textSegments);
+
+    Request request = new Request(textSegments);
+    Batch batch;
+    boolean leader = false;
+    synchronized (lock) {
+
+      if(openBatch == null) {
+
+        openBatch = new Batch();
+        leader = true;
+      }
+      batch = openBatch;
+      batch.requests.add(request);
+      batch.textCount += textSegments.size();
+      if(batch.textCount >= maxTexts) {
+
+        close(batch);
+        lock.notifyAll();
+      }
+    }
+
+    if(leader) {
+
+      awaitWindow(batch);
+      flush(batch);
+    }
+
+    try {
+
+      // The first caller has completed the response once flushed
+      return leader || maxWaitMillis <= 0 ? request.response.get() :
+          request.response.get(windowMillis + maxWaitMillis, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+
+      throw new ModuleException(String.format("Timed out after %s ms waiting for coalesced embeddings.", windowMillis + maxWaitMillis),
+                                MuleVectorsErrorType.AI_SERVICES_FAILURE, e);
+    } catch (InterruptedException e) {
+
+      Thread.currentThread().interrupt();
+      throw new ModuleException("Interrupted while waiting for coalesced embeddings.", MuleVectorsErrorType.AI_SERVICES_FAILURE, e);
+    } catch (ExecutionException e) {
+
+      if(e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+      if(e.getCause() instanceof Error) throw (Error) e.getCause();
+      throw new ModuleException("Error while generating coalesced embeddings.", MuleVectorsErrorType.AI_SERVICES_FAILURE, e.getCause());
+    }
+  }
+
+  @Override
+  public int dimension() {
+
+    return delegate.dimension();
+  }
+
+  private void awaitWindow(Batch batch) {
+
+    synchronized (lock) {
+
+      long deadline = System.currentTimeMillis() + windowMillis;
+      long remaining;
+      try {
+
+        while(!batch.closed && (remaining = deadline - System.currentTimeMillis()) > 0) {
+          lock.wait(remaining);
+        }
+      } catch (InterruptedException e) {
+
+        // Send what has been collected so far
+        Thread.currentThread().interrupt();
+      }
+      close(batch);
+    }
+  }
+
+  private void close(Batch batch) {
+
+    batch.closed = true;
+    if(openBatch == batch) openBatch = null;
+  }
+
+  private void flush(Batch batch) {
+
+    List<TextSegment> segments = new ArrayList<>(batch.textCount);
+    long totalChars = 0;
+    for(Request request : batch.requests) {
+
+      segments.addAll(request.segments);
+      totalChars += request.chars;
+    }
+    LOGGER.debug(String.format("Embedding %s text(s) coalesced from %s request(s).", segments.size(), batch.requests.size()));
+
+    try {
+
+      // The batches and retries of the coalesced call are reported to each request it serves
+      EmbeddingCallStatistics statistics = new EmbeddingCallStatistics();
+      Response<List<Embedding>> response = EmbeddingCallStatistics.callWith(statistics, () -> delegate.embedAll(segments));
+      List<Embedding> embeddings = response.content();
+      Integer inputTokenCount = response.tokenUsage() != null ? response.tokenUsage().inputTokenCount() : null;
+
+      int offset = 0;
+      for(Request request : batch.requests) {
+
+        int count = request.segments.size();
+        // Token usage is reported for the whole call: share it between the requests by text length.
+        TokenUsage tokenUsage = inputTokenCount == null ? null :
+            new TokenUsage((int) (totalChars == 0 ? 0 : inputTokenCount * request.chars / totalChars));
+        if(request.statistics != null) request.statistics.add(statistics);
+        request.response.complete(Response.from(new ArrayList<>(embeddings.subList(offset, offset + count)), tokenUsage));
+        offset += count;
+      }
+    } catch (Throwable e) {
+
+      // Errors included, so that no caller is left waiting. Each caller rethrows it.
+      for(Request request : batch.requests) request.response.completeExceptionally(e);
+    }
+  }
+
+  private static class Batch {
+
+    private final List<Request> requests = new ArrayList<>();
+    private int textCount;
+    private boolean closed;
+  }
+
+  private static class Request {
+
+    private final List<TextSegment> segments;
+    private final long chars;
+    private final EmbeddingCallStatistics statistics = EmbeddingCallStatistics.current();
+    private final CompletableFuture<Response<List<Embedding>>> response = new CompletableFuture<>();
+
+    private Request(List<TextSegment> segments) {
+
+      this.segments = segments;
+      long chars = 0;
+      for(TextSegment segment : segments) chars += segment.text() != null ? segment.text().length() : 0;
+      this.chars = chars;
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package org.mule.extension.vectors.internal.model;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+import org.mule.extension.vectors.internal.error.MuleVectorsErrorType;
+import org.mule.runtime.extension.api.exception.ModuleException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Embedding model wrapper which shortens the embeddings of the wrapped model to a target dimension.
+ * <p>
+ * Embeddings are truncated to their first values and re-normalized to unit length, as expected for models trained
+ * with Matryoshka representation learning, whose leading dimensions hold most of the information. It is only used for
+ * such models when their service cannot shorten the embeddings itself: the prefixes of other embeddings are poor.
+ */
+public class TruncatingEmbeddingModel implements EmbeddingModel {
+
+  private final EmbeddingModel delegate;
+  private final int targetDimension;
+
+  /**
+   * @param delegate        the embedding model generating the full embeddings.
+   * @param targetDimension the dimension of the returned embeddings.
+   */
+  public TruncatingEmbeddingModel(EmbeddingModel delegate, int targetDimension) {
+
+    this.delegate = delegate;
+    this.targetDimension = targetDimension;
+  }
+
+  @Override
+  public Response<List<Embedding>> embedAll(List<TextSegment> textSegments) {
+
+    Response<List<Embedding>> response = delegate.embedAll(textSegments);
+    List<Embedding> embeddings = new ArrayList<>(response.content().size());
+    for(Embedding embedding : response.content()) embeddings.add(truncate(embedding));
+    return Response.from(embeddings, response.tokenUsage(), response.finishReason());
+  }
+
+  @Override
+  public int dimension() {
+
+    return targetDimension;
+  }
+
+  private Embedding truncate(Embedding embedding) {
+
+    float[] vector = embedding.vector();
+    if(vector.length == targetDimension) return embedding;
+    if(vector.length < targetDimension) {
+
+      throw new ModuleException(
+          String.format("Target dimension %s is greater than the embedding model dimension %s.", targetDimension, vector.length),
+          MuleVectorsErrorType.INVALID_PARAMETERS_ERROR);
+    }
+
+    float[] truncated = Arrays.copyOf(vector, targetDimension);
+    double norm = 0;
+    for(float value : truncated) norm += value * value;
+    norm = Math.sqrt(norm);
+    if(norm > 0) {
+
+      for(int i = 0; i < truncated.length; i++) truncated[i] = (float) (truncated[i] / norm);
+    }
+    return new Embedding(truncated);
+  }
+}
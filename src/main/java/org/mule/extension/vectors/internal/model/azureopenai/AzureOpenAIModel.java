@@ -5,6 +5,7 @@ import dev.langchain4j.model.azure.AzureOpenAiEmbeddingModel;
 import dev.langchain4j.model.embedding.EmbeddingModel;
 import org.mule.extension.vectors.internal.config.EmbeddingConfiguration;
 import org.mule.extension.vectors.internal.connection.model.azureopenai.AzureOpenAIModelConnection;
+import org.mule.extension.vectors.internal.constant.Constants;
 import org.mule.extension.vectors.internal.helper.parameter.EmbeddingModelParameters;
 import org.mule.extension.vectors.internal.model.BaseModel;
 import org.slf4j.Logger;
@@ -52,6 +53,32 @@ public class AzureOpenAIModel extends BaseModel {
     return AzureOpenAiEmbeddingModel.builder()
         .openAIClient(getOpenAIClient())
         .deploymentName(embeddingModelParameters.getEmbeddingModelName())
+        .dimensions(supportsTargetDimension() ? getTargetDimension() : null)
         .build();
   }
+
+  // Only the text-embedding-3 models accept the dimensions parameter. The model behind a deployment is only known from
+  // its name: deployments of those models must be named after them for the target dimension to be accepted.
+  @Override
+  protected boolean supportsTargetDimension() {
+
+    String deploymentName = embeddingModelParameters.getEmbeddingModelName();
+    return deploymentName != null &&
+        (deploymentName.contains(Constants.EMBEDDING_MODEL_NAME_TEXT_EMBEDDING_3_SMALL) ||
+            deploymentName.contains(Constants.EMBEDDING_MODEL_NAME_TEXT_EMBEDDING_3_LARGE));
+  }
+
+  // Azure OpenAI accepts up to 2048 inputs per request on recent deployments. Older deployments
+  // accepting fewer inputs reject larger batches, which shrinks the batch budget.
+  @Override
+  protected int getMaxSegmentsPerBatch() {
+
+    return 2048;
+  }
+
+  @Override
+  protected int getMaxTokensPerBatch() {
+
+    return 300000;
+  }
 }
@@ -6,14 +6,19 @@ import dev.langchain4j.internal.Utils;
 import dev.langchain4j.model.embedding.DimensionAwareEmbeddingModel;
 import dev.langchain4j.model.output.Response;
 import dev.langchain4j.model.output.TokenUsage;
-import org.json.JSONArray;
-import org.json.JSONObject;
 import org.mule.extension.vectors.internal.connection.model.einstein.EinsteinModelConnection;
 import org.mule.extension.vectors.internal.constant.Constants;
+import org.mule.extension.vectors.internal.error.MuleVectorsErrorType;
+import org.mule.extension.vectors.internal.metrics.EmbeddingCallStatistics;
+import org.mule.runtime.extension.api.exception.ModuleException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 /**
@@ -24,6 +29,10 @@ public class EinsteinEmbeddingModel extends DimensionAwareEmbeddingModel {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(EinsteinEmbeddingModel.class);
 
+  public static final int BATCH_SIZE = 16;
+  // Rough estimate of the number of characters per token, used for the tokens per minute limit.
+  private static final int CHARS_PER_TOKEN = 4;
+
   private final String modelName;
   private final Integer dimensions;
   private final EinsteinModelConnection einsteinModelConnection;
@@ -75,50 +84,95 @@ public class EinsteinEmbeddingModel extends DimensionAwareEmbeddingModel {
 
   /**
    * Internal method to process text strings and generate embeddings.
-   * Handles batching of requests to the Einstein API.
+   * Splits the texts in batches (Einstein API limit) and, when there is more than one batch, sends them concurrently
+   * from the connection's batch executor, the connection keeping at most {@code maxConcurrentBatches} of them in
+   * flight. Output ordering is preserved.
    *
    * @param texts List of text strings to embed
    * @return Response containing embeddings and token usage
    */
   private Response<List<Embedding>> embedTexts(List<String> texts) {
-    List<Embedding> embeddings = new ArrayList<>();
-    int tokenUsage = 0;
 
-    // Process texts in batches of 16 (Einstein API limit)
-    for(int x = 0; x < texts.size(); x += 16) {
-      // Extract current batch
-      List<String> batch = texts.subList(x, Math.min(x + 16, texts.size()));
+    // Split texts in batches of 16 (Einstein API limit)
+    List<List<String>> batches = new ArrayList<>();
+    for(int x = 0; x < texts.size(); x += BATCH_SIZE) {
+      batches.add(texts.subList(x, Math.min(x + BATCH_SIZE, texts.size())));
+    }
+
+    List<Response<List<Embedding>>> batchResults = new ArrayList<>(batches.size());
 
-      // Generate embeddings for current batch
-      String response = einsteinModelConnection.generateEmbeddings(batch, modelName);
-      JSONObject jsonResponse = new JSONObject(response);
+    if(batches.size() <= 1 || einsteinModelConnection.getMaxConcurrentBatches() <= 1) {
 
-      // Accumulate token usage
-      tokenUsage += jsonResponse.getJSONObject("parameters")
-          .getJSONObject("usage")
-          .getInt("total_tokens");
+      for(List<String> batch : batches) {
+        batchResults.add(embedBatch(batch));
+      }
+    } else {
 
-      // Parse embeddings from response
-      JSONArray embeddingsArray = jsonResponse.getJSONArray("embeddings");
+      // Retries of the concurrent batches are recorded into the statistics of the calling operation
+      EmbeddingCallStatistics statistics = EmbeddingCallStatistics.current();
+      List<Future<Response<List<Embedding>>>> futures = new ArrayList<>(batches.size());
 
-      // Process each embedding in the response
-      for (int i = 0; i < embeddingsArray.length(); i++) {
-        JSONObject embeddingObject = embeddingsArray.getJSONObject(i);
-        JSONArray embeddingArray = embeddingObject.getJSONArray("embedding");
+      try {
 
-        // Convert JSON array to float array
-        float[] vector = new float[embeddingArray.length()];
-        for (int y = 0; y < embeddingArray.length(); y++) {
-          vector[y] = (float) embeddingArray.getDouble(y);
+        ExecutorService executor = einsteinModelConnection.getBatchExecutor();
+        for(List<String> batch : batches) {
+          futures.add(executor.submit(() -> EmbeddingCallStatistics.callWith(statistics, () -> embedBatch(batch))));
+        }
+        for(Future<Response<List<Embedding>>> future : futures) {
+          batchResults.add(future.get());
         }
+      } catch (InterruptedException e) {
+
+        Thread.currentThread().interrupt();
+        throw new ModuleException("Interrupted while generating embeddings with \"EINSTEIN\" embedding model service.",
+                                  MuleVectorsErrorType.AI_SERVICES_FAILURE,
+                                  e);
+      } catch (RejectedExecutionException e) {
+
+        throw new ModuleException("Error while generating embeddings with \"EINSTEIN\" embedding model service.",
+                                  MuleVectorsErrorType.AI_SERVICES_FAILURE,
+                                  e);
+      } catch (ExecutionException e) {
+
+        if(e.getCause() instanceof ModuleException) throw (ModuleException) e.getCause();
+        throw new ModuleException("Error while generating embeddings with \"EINSTEIN\" embedding model service.",
+                                  MuleVectorsErrorType.AI_SERVICES_FAILURE,
+                                  e.getCause());
+      } finally {
+
+        // Do not keep sending batches whose results will be discarded
+        futures.forEach(future -> future.cancel(true));
+      }
+    }
 
-        embeddings.add(Embedding.from(vector));
+    List<Embedding> embeddings = new ArrayList<>(texts.size());
+    int tokenUsage = 0;
+    for(Response<List<Embedding>> batchResult : batchResults) {
+      embeddings.addAll(batchResult.content());
+      if(batchResult.tokenUsage() != null && batchResult.tokenUsage().totalTokenCount() != null) {
+        tokenUsage += batchResult.tokenUsage().totalTokenCount();
       }
     }
 
     return Response.from(embeddings, new TokenUsage(tokenUsage));
   }
 
+  /**
+   * Generates embeddings for a single batch through the rate limiter of the connection, which waits for capacity
+   * and backs off and retries when Einstein rejects the request because of rate limiting.
+   *
+   * @param batch List of text strings to embed, at most {@link #BATCH_SIZE}
+   * @return The embeddings and token usage of the batch
+   */
+  private Response<List<Embedding>> embedBatch(List<String> batch) {
+
+    long estimatedTokens = 0;
+    for(String text : batch) estimatedTokens += Math.max(1, text.length() / CHARS_PER_TOKEN);
+
+    return einsteinModelConnection.getRateLimiter().execute(
+        estimatedTokens, () -> einsteinModelConnection.generateEmbeddings(batch, modelName), null);
+  }
+
   /**
    * Creates a new builder instance for EinsteinEmbeddingModel.
    *
@@ -2,6 +2,7 @@ package org.mule.extension.vectors.internal.model.einstein;
 
 import dev.langchain4j.model.embedding.EmbeddingModel;
 import org.mule.extension.vectors.internal.config.EmbeddingConfiguration;
+import org.mule.extension.vectors.internal.connection.model.EmbeddingRateLimiter;
 import org.mule.extension.vectors.internal.connection.model.einstein.EinsteinModelConnection;
 import org.mule.extension.vectors.internal.helper.parameter.EmbeddingModelParameters;
 import org.mule.extension.vectors.internal.model.BaseModel;
@@ -30,4 +31,31 @@ public class EinsteinModel  extends BaseModel {
         .modelName(modelName)
         .build();
   }
+
+  @Override
+  protected Integer getKnownDimension() {
+
+    return EinsteinEmbeddingModelName.knownDimension(modelName);
+  }
+
+  // The rate limiter is applied by EinsteinEmbeddingModel to each request it sends.
+  @Override
+  protected EmbeddingRateLimiter getBatchRateLimiter() {
+
+    return null;
+  }
+
+  // Einstein accepts 16 inputs per request: EinsteinEmbeddingModel splits larger batches and sends them concurrently,
+  // so each batch holds as many segments as the connection sends at once.
+  @Override
+  protected int getMaxSegmentsPerBatch() {
+
+    return EinsteinEmbeddingModel.BATCH_SIZE * Math.max(1, einsteinModelConnection.getMaxConcurrentBatches());
+  }
+
+  @Override
+  protected int getMaxTokensPerBatch() {
+
+    return getMaxSegmentsPerBatch() * 8191;
+  }
 }
@@ -25,4 +25,17 @@ public class HuggingFaceModel  extends BaseModel {
         .modelId(embeddingModelParameters.getEmbeddingModelName())
         .build();
   }
+
+  // The Hugging Face inference API is meant for small batches.
+  @Override
+  protected int getMaxSegmentsPerBatch() {
+
+    return 32;
+  }
+
+  @Override
+  protected int getMaxTokensPerBatch() {
+
+    return 16000;
+  }
 }
@@ -25,4 +25,17 @@ public class MistralAIModel  extends BaseModel {
         .modelName(embeddingModelParameters.getEmbeddingModelName())
         .build();
   }
+
+  // Mistral AI rejects batches beyond 16384 tokens.
+  @Override
+  protected int getMaxSegmentsPerBatch() {
+
+    return 128;
+  }
+
+  @Override
+  protected int getMaxTokensPerBatch() {
+
+    return 16000;
+  }
 }
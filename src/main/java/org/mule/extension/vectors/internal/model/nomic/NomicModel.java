@@ -25,9 +25,30 @@ public class NomicModel  extends BaseModel {
         .apiKey(apiKey)
         .modelName(embeddingModelParameters.getEmbeddingModelName())
         //.taskType("clustering")
-        .maxRetries(2)
+        // Rate limited requests are retried by the rate limiter of the connection
+        .maxRetries(1)
         .logRequests(true)
         .logResponses(true)
         .build();
   }
+
+  // nomic-embed-text-v1.5 is trained with Matryoshka representation learning, unlike v1.
+  @Override
+  protected boolean supportsTruncation() {
+
+    String modelName = embeddingModelParameters.getEmbeddingModelName();
+    return modelName != null && modelName.endsWith("-v1.5");
+  }
+
+  @Override
+  protected int getMaxSegmentsPerBatch() {
+
+    return 256;
+  }
+
+  @Override
+  protected int getMaxTokensPerBatch() {
+
+    return 64000;
+  }
 }
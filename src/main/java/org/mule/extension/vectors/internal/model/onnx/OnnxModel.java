@@ -0,0 +1,72 @@
+package org.mule.extension.vectors.internal.model.onnx;
+
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.embedding.onnx.allminilml6v2.AllMiniLmL6V2EmbeddingModel;
+import dev.langchain4j.model.embedding.onnx.bgesmallenv15.BgeSmallEnV15EmbeddingModel;
+import org.mule.extension.vectors.internal.config.EmbeddingConfiguration;
+import org.mule.extension.vectors.internal.connection.model.EmbeddingRateLimiter;
+import org.mule.extension.vectors.internal.connection.model.onnx.OnnxModelConnection;
+import org.mule.extension.vectors.internal.constant.Constants;
+import org.mule.extension.vectors.internal.error.MuleVectorsErrorType;
+import org.mule.extension.vectors.internal.helper.parameter.EmbeddingModelParameters;
+import org.mule.extension.vectors.internal.model.BaseModel;
+import org.mule.runtime.extension.api.exception.ModuleException;
+
+public class OnnxModel extends BaseModel {
+
+  private static final int DIMENSION = 384;
+
+  private final OnnxModelConnection onnxModelConnection;
+
+  public OnnxModel(EmbeddingConfiguration embeddingConfiguration, OnnxModelConnection onnxModelConnection, EmbeddingModelParameters embeddingModelParameters) {
+
+    super(embeddingConfiguration, onnxModelConnection, embeddingModelParameters);
+
+    this.onnxModelConnection = onnxModelConnection;
+  }
+
+  public EmbeddingModel buildEmbeddingModel() {
+
+    // The segments of each batch are embedded in parallel on the thread pool of the connection
+    switch (embeddingModelParameters.getEmbeddingModelName()) {
+
+      case Constants.EMBEDDING_MODEL_NAME_ALL_MINI_LM_L6_V2:
+        return new AllMiniLmL6V2EmbeddingModel(onnxModelConnection.getInferenceExecutor());
+
+      case Constants.EMBEDDING_MODEL_NAME_BGE_SMALL_EN_V15:
+        return new BgeSmallEnV15EmbeddingModel(onnxModelConnection.getInferenceExecutor());
+
+      default:
+        throw new ModuleException(
+            String.format("Embedding model \"%s\" is not supported by the ONNX embedding model service.",
+                          embeddingModelParameters.getEmbeddingModelName()),
+            MuleVectorsErrorType.INVALID_PARAMETERS_ERROR);
+    }
+  }
+
+  @Override
+  protected Integer getKnownDimension() {
+
+    return DIMENSION;
+  }
+
+  // No service to protect: inference is only bounded by the thread pool of the connection.
+  @Override
+  protected EmbeddingRateLimiter getBatchRateLimiter() {
+
+    return null;
+  }
+
+  // Batches are sized to keep every inference thread busy without holding too many tokenized inputs in memory.
+  @Override
+  protected int getMaxSegmentsPerBatch() {
+
+    return 64 * onnxModelConnection.getThreadCount();
+  }
+
+  @Override
+  protected int getMaxTokensPerBatch() {
+
+    return getMaxSegmentsPerBatch() * 512;
+  }
+}
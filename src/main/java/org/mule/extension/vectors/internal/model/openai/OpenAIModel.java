@@ -4,25 +4,57 @@ import dev.langchain4j.model.embedding.EmbeddingModel;
 import dev.langchain4j.model.openai.OpenAiEmbeddingModel;
 import org.mule.extension.vectors.internal.config.EmbeddingConfiguration;
 import org.mule.extension.vectors.internal.connection.model.openai.OpenAIModelConnection;
+import org.mule.extension.vectors.internal.constant.Constants;
 import org.mule.extension.vectors.internal.helper.parameter.EmbeddingModelParameters;
 import org.mule.extension.vectors.internal.model.BaseModel;
 
+import java.time.Duration;
+
 public class OpenAIModel  extends BaseModel {
 
   private final String apiKey;
+  private final String baseUrl;
+  private final int timeout;
 
   public OpenAIModel(EmbeddingConfiguration embeddingConfiguration, OpenAIModelConnection openAIModelConnection, EmbeddingModelParameters embeddingModelParameters) {
 
     super(embeddingConfiguration, openAIModelConnection, embeddingModelParameters);
 
     this.apiKey = openAIModelConnection.getApiKey();
+    this.baseUrl = openAIModelConnection.getBaseUrl();
+    this.timeout = openAIModelConnection.getTimeout();
   }
 
   public EmbeddingModel buildEmbeddingModel() {
 
     return OpenAiEmbeddingModel.builder()
+        .baseUrl(baseUrl)
         .apiKey(apiKey)
         .modelName(embeddingModelParameters.getEmbeddingModelName())
+        .timeout(Duration.ofMillis(timeout))
+        .dimensions(supportsTargetDimension() ? getTargetDimension() : null)
         .build();
   }
+
+  // Only the text-embedding-3 models accept the dimensions parameter.
+  @Override
+  protected boolean supportsTargetDimension() {
+
+    String modelName = embeddingModelParameters.getEmbeddingModelName();
+    return Constants.EMBEDDING_MODEL_NAME_TEXT_EMBEDDING_3_SMALL.equals(modelName) ||
+        Constants.EMBEDDING_MODEL_NAME_TEXT_EMBEDDING_3_LARGE.equals(modelName);
+  }
+
+  // OpenAI accepts up to 2048 inputs and 300000 tokens per request.
+  @Override
+  protected int getMaxSegmentsPerBatch() {
+
+    return 2048;
+  }
+
+  @Override
+  protected int getMaxTokensPerBatch() {
+
+    return 300000;
+  }
 }
@@ -3,27 +3,40 @@ package org.mule.extension.vectors.internal.operation;
 import static org.mule.extension.vectors.internal.helper.ResponseHelper.createEmbeddingResponse;
 import static org.mule.runtime.extension.api.annotation.param.MediaType.APPLICATION_JSON;
 
+import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.stream.IntStream;
-
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.TreeNode;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingJsonFactory;
 import dev.langchain4j.data.document.Document;
 import dev.langchain4j.data.document.DocumentSplitter;
 import dev.langchain4j.data.document.Metadata;
-import org.apache.commons.io.IOUtils;
-import org.json.JSONArray;
-import org.json.JSONObject;
 import org.mule.extension.vectors.api.metadata.EmbeddingResponseAttributes;
+import org.mule.extension.vectors.internal.cache.EmbeddingCache;
+import org.mule.extension.vectors.internal.cache.EmbeddingDiskStore;
 import org.mule.extension.vectors.internal.config.EmbeddingConfiguration;
 import org.mule.extension.vectors.internal.connection.model.BaseModelConnection;
 import org.mule.extension.vectors.internal.constant.Constants;
 import org.mule.extension.vectors.internal.error.MuleVectorsErrorType;
 import org.mule.extension.vectors.internal.error.provider.EmbeddingErrorTypeProvider;
+import org.mule.extension.vectors.internal.helper.JsonStreamingInputStream;
 import org.mule.extension.vectors.internal.helper.parameter.*;
+import org.mule.extension.vectors.internal.metrics.EmbeddingCallStatistics;
 import org.mule.extension.vectors.internal.model.BaseModel;
+import org.mule.extension.vectors.internal.util.VectorUtils;
 import org.mule.runtime.extension.api.annotation.Alias;
 import org.mule.runtime.extension.api.annotation.error.Throws;
 import org.mule.runtime.extension.api.annotation.metadata.fixed.InputJsonType;
@@ -34,6 +47,7 @@ import dev.langchain4j.data.document.splitter.DocumentSplitters;
 import dev.langchain4j.data.embedding.Embedding;
 import dev.langchain4j.data.segment.TextSegment;
 import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
 
 import org.mule.runtime.extension.api.annotation.param.display.DisplayName;
 import org.mule.runtime.extension.api.exception.ModuleException;
@@ -47,6 +61,12 @@ public class EmbeddingOperations {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(EmbeddingOperations.class);
 
+  private static final Pattern WHITESPACE_PATTERN = Pattern.compile("\\s+");
+  // Mapping factory, so that metadata objects can be read as maps and other fields as trees
+  private static final JsonFactory JSON_FACTORY = new MappingJsonFactory();
+  private static final TypeReference<LinkedHashMap<String, Object>> METADATA_TYPE =
+      new TypeReference<LinkedHashMap<String, Object>>() {};
+
   /**
    * Generates embeddings from a given text string. The text can optionally be segmented before embedding.
    *
@@ -55,6 +75,7 @@ public class EmbeddingOperations {
    * @param text the input text to generate embeddings from.
    * @param segmentationParameters parameters defining segmentation rules for the input text.
    * @param embeddingModelParameters parameters for the embedding model to be used.
+   * @param embeddingOutputParameters parameters for the encoding of the embeddings in the response.
    * @return a {@link org.mule.runtime.extension.api.runtime.operation.Result} containing the embeddings in JSON format and metadata.
    * @throws ModuleException if an error occurs during the embedding process.
    */
@@ -68,7 +89,8 @@ public class EmbeddingOperations {
                             @Connection BaseModelConnection modelConnection,
                             @Alias("text") @DisplayName("Text") @Content String text,
                             @ParameterGroup(name = "Segmentation") SegmentationParameters segmentationParameters,
-                            @ParameterGroup(name = "Embedding Model") EmbeddingModelParameters embeddingModelParameters) {
+                            @ParameterGroup(name = "Embedding Model") EmbeddingModelParameters embeddingModelParameters,
+                            @ParameterGroup(name = "Output") EmbeddingOutputParameters embeddingOutputParameters) {
 
     try {
       BaseModel baseModel = BaseModel.builder()
@@ -77,7 +99,7 @@ public class EmbeddingOperations {
           .embeddingModelParameters(embeddingModelParameters)
           .build();
 
-      EmbeddingModel embeddingModel = baseModel.buildEmbeddingModel();
+      EmbeddingModel embeddingModel = baseModel.getEmbeddingModel();
 
       List<TextSegment> textSegments;
       if(segmentationParameters.getMaxSegmentSizeInChars() > 0) {
@@ -90,10 +112,11 @@ public class EmbeddingOperations {
         textSegments = new LinkedList<>();
         textSegments.add(TextSegment.from(text));
       }
+      HashMap<String, Object> attributes = new HashMap<>();
       List<Embedding> embeddings;
       try {
 
-        embeddings = embeddingModel.embedAll(textSegments).content();
+        embeddings = embedAll(embeddingConfiguration, baseModel, embeddingModel, textSegments, attributes);
 
       }  catch(ModuleException e) {
 
@@ -107,37 +130,32 @@ public class EmbeddingOperations {
             e);
       }
 
-      JSONObject jsonObject = new JSONObject();
-
-      JSONArray jsonTextSegments = IntStream.range(0, textSegments.size())
-          .mapToObj(i -> {
-            JSONObject jsonSegment = new JSONObject();
-            jsonSegment.put(Constants.JSON_KEY_TEXT, textSegments.get(i).text());
-            JSONObject jsonMetadata = new JSONObject();
-            jsonMetadata.put(Constants.JSON_KEY_INDEX, i);
-            jsonSegment.put(Constants.JSON_KEY_METADATA, jsonMetadata);
-            return jsonSegment;
-          })
-          .collect(JSONArray::new, JSONArray::put, JSONArray::putAll);
-
-      jsonObject.put(Constants.JSON_KEY_TEXT_SEGMENTS, jsonTextSegments);
-
-      JSONArray jsonEmbeddings = IntStream.range(0, embeddings.size())
-          .mapToObj(i -> {
-            return embeddings.get(i).vector();
-          })
-          .collect(JSONArray::new, JSONArray::put, JSONArray::putAll);
-
-      jsonObject.put(Constants.JSON_KEY_EMBEDDINGS, jsonEmbeddings);
+      int dimension = baseModel.getEmbeddingModelDimension(embeddings);
+
+      List<JsonStreamingInputStream.Step> steps = new ArrayList<>();
+      steps.add(JsonGenerator::writeStartObject);
+      steps.add(generator -> generator.writeArrayFieldStart(Constants.JSON_KEY_TEXT_SEGMENTS));
+      int index = 0;
+      for(TextSegment textSegment : textSegments) {
+
+        int segmentIndex = index++;
+        steps.add(generator -> {
+          generator.writeStartObject();
+          generator.writeStringField(Constants.JSON_KEY_TEXT, textSegment.text());
+          generator.writeObjectFieldStart(Constants.JSON_KEY_METADATA);
+          generator.writeNumberField(Constants.JSON_KEY_INDEX, segmentIndex);
+          generator.writeEndObject();
+          generator.writeEndObject();
+        });
+      }
+      steps.add(JsonGenerator::writeEndArray);
+      addEmbeddingSteps(steps, embeddings, dimension, embeddingOutputParameters);
+      steps.add(JsonGenerator::writeEndObject);
 
-      jsonObject.put(Constants.JSON_KEY_DIMENSION, embeddingModel.dimension());
+      attributes.put("embeddingModelName", embeddingModelParameters.getEmbeddingModelName());
+      attributes.put("embeddingModelDimension", dimension);
 
-      return createEmbeddingResponse(
-          jsonObject.toString(),
-          new HashMap<String, Object>() {{
-            put("embeddingModelName", embeddingModelParameters.getEmbeddingModelName());
-            put("embeddingModelDimension", embeddingModel.dimension());
-          }});
+      return createEmbeddingResponse(new JsonStreamingInputStream(steps.iterator()), attributes);
 
     } catch (ModuleException me) {
       throw me;
@@ -158,6 +176,7 @@ public class EmbeddingOperations {
    * @param modelConnection the connection to the embedding model.
    * @param content the input text segments as an {@link InputStream} in JSON format.
    * @param embeddingModelParameters parameters for the embedding model to be used.
+   * @param embeddingOutputParameters parameters for the encoding of the embeddings in the response.
    * @return a {@link org.mule.runtime.extension.api.runtime.operation.Result} containing the embeddings in JSON format and metadata.
    * @throws ModuleException if an error occurs during the embedding process.
    */
@@ -170,11 +189,15 @@ public class EmbeddingOperations {
   generateEmbeddingFromDocument(@Config EmbeddingConfiguration embeddingConfiguration,
                                 @Connection BaseModelConnection modelConnection,
                                 @Alias("textSegments") @DisplayName("Text Segments") @InputJsonType(schema = "api/metadata/DocumentLoadSingleResponse.json") @Content InputStream content,
-                                @ParameterGroup(name = "Embedding Model") EmbeddingModelParameters embeddingModelParameters) {
+                                @ParameterGroup(name = "Embedding Model") EmbeddingModelParameters embeddingModelParameters,
+                                @ParameterGroup(name = "Output") EmbeddingOutputParameters embeddingOutputParameters) {
 
     try {
 
-      String contentString = IOUtils.toString(content, StandardCharsets.UTF_8);
+      List<TextSegment> textSegments = new ArrayList<>();
+      List<Map<String, Object>> segmentMetadata = new ArrayList<>();
+      Map<String, TreeNode> otherFields = new LinkedHashMap<>();
+      readDocument(content, textSegments, segmentMetadata, otherFields);
 
       BaseModel baseModel = BaseModel.builder()
           .configuration(embeddingConfiguration)
@@ -182,24 +205,13 @@ public class EmbeddingOperations {
           .embeddingModelParameters(embeddingModelParameters)
           .build();
 
-      EmbeddingModel embeddingModel = baseModel.buildEmbeddingModel();
-
-      JSONObject jsonObject = new JSONObject(contentString);
-      JSONArray jsonTextSegments = jsonObject.getJSONArray(Constants.JSON_KEY_TEXT_SEGMENTS);
-
-      List<TextSegment> textSegments = new LinkedList<>();
-
-      IntStream.range(0, jsonTextSegments.length())
-          .mapToObj(jsonTextSegments::getJSONObject) // Convert index to JSONObject
-          .forEach(jsonTextSegment -> {
-            Metadata metadata = Metadata.from(jsonTextSegment.getJSONObject(Constants.JSON_KEY_METADATA).toMap());
-            textSegments.add(new TextSegment(jsonTextSegment.getString(Constants.JSON_KEY_TEXT), metadata));
-          });
+      EmbeddingModel embeddingModel = baseModel.getEmbeddingModel();
 
+      HashMap<String, Object> attributes = new HashMap<>();
       List<Embedding> embeddings;
       try {
 
-        embeddings = embeddingModel.embedAll(textSegments).content();
+        embeddings = embedAll(embeddingConfiguration, baseModel, embeddingModel, textSegments, attributes);
 
       } catch(ModuleException e) {
 
@@ -213,22 +225,46 @@ public class EmbeddingOperations {
             e);
       }
 
-      JSONArray jsonEmbeddings = IntStream.range(0, embeddings.size())
-          .mapToObj(i -> {
-            return embeddings.get(i).vector();
-          })
-          .collect(JSONArray::new, JSONArray::put, JSONArray::putAll);
-
-      jsonObject.put(Constants.JSON_KEY_EMBEDDINGS, jsonEmbeddings);
+      int dimension = baseModel.getEmbeddingModelDimension(embeddings);
+
+      // The input document is written back as is, with the embeddings and their dimension
+      List<JsonStreamingInputStream.Step> steps = new ArrayList<>();
+      steps.add(JsonGenerator::writeStartObject);
+      for(Map.Entry<String, TreeNode> field : otherFields.entrySet()) {
+
+        String key = field.getKey();
+        if(Constants.JSON_KEY_TEXT_SEGMENTS.equals(key)) {
+
+          steps.add(generator -> generator.writeArrayFieldStart(key));
+          for(int i = 0; i < textSegments.size(); i++) {
+
+            TextSegment textSegment = textSegments.get(i);
+            Map<String, Object> metadata = segmentMetadata.get(i);
+            steps.add(generator -> {
+              generator.writeStartObject();
+              generator.writeStringField(Constants.JSON_KEY_TEXT, textSegment.text());
+              generator.writeFieldName(Constants.JSON_KEY_METADATA);
+              generator.writeObject(metadata);
+              generator.writeEndObject();
+            });
+          }
+          steps.add(JsonGenerator::writeEndArray);
+        } else {
+
+          TreeNode value = field.getValue();
+          steps.add(generator -> {
+            generator.writeFieldName(key);
+            generator.writeTree(value);
+          });
+        }
+      }
+      addEmbeddingSteps(steps, embeddings, dimension, embeddingOutputParameters);
+      steps.add(JsonGenerator::writeEndObject);
 
-      jsonObject.put(Constants.JSON_KEY_DIMENSION, embeddingModel.dimension());
+      attributes.put("embeddingModelName", embeddingModelParameters.getEmbeddingModelName());
+      attributes.put("embeddingModelDimension", dimension);
 
-      return createEmbeddingResponse(
-          jsonObject.toString(),
-          new HashMap<String, Object>() {{
-            put("embeddingModelName", embeddingModelParameters.getEmbeddingModelName());
-            put("embeddingModelDimension", embeddingModel.dimension());
-          }});
+      return createEmbeddingResponse(new JsonStreamingInputStream(steps.iterator()), attributes);
 
     } catch (ModuleException me) {
       throw me;
@@ -241,4 +277,315 @@ public class EmbeddingOperations {
           e);
     }
   }
+
+  /**
+   * Reads a document of text segments with a streaming parser. The text and metadata of each segment are collected in
+   * order. The other fields, except those holding embeddings, are kept in order to be written back as they were,
+   * {@code text-segments} being kept as a placeholder for its position.
+   *
+   * @param content the document.
+   * @param textSegments the list receiving the text segments.
+   * @param segmentMetadata the list receiving the metadata of each text segment, as read.
+   * @param otherFields the map receiving the other fields of the document.
+   */
+  private static void readDocument(InputStream content, List<TextSegment> textSegments,
+                                   List<Map<String, Object>> segmentMetadata, Map<String, TreeNode> otherFields)
+      throws IOException {
+
+    try (JsonParser parser = JSON_FACTORY.createParser(content)) {
+
+      if(parser.nextToken() != JsonToken.START_OBJECT) throw new IllegalArgumentException("Expected a JSON object.");
+      boolean hasTextSegments = false;
+      while(parser.nextToken() == JsonToken.FIELD_NAME) {
+
+        String field = parser.getCurrentName();
+        JsonToken token = parser.nextToken();
+        if(Constants.JSON_KEY_TEXT_SEGMENTS.equals(field)) {
+
+          if(token != JsonToken.START_ARRAY) {
+
+            throw new IllegalArgumentException(String.format("\"%s\" must be an array.", Constants.JSON_KEY_TEXT_SEGMENTS));
+          }
+          hasTextSegments = true;
+          otherFields.put(field, null);
+          while(parser.nextToken() != JsonToken.END_ARRAY) readTextSegment(parser, textSegments, segmentMetadata);
+        } else if(Constants.JSON_KEY_EMBEDDINGS.equals(field) || Constants.JSON_KEY_DIMENSION.equals(field) ||
+            Constants.JSON_KEY_ENCODING.equals(field) || Constants.JSON_KEY_QUANTIZED_EMBEDDINGS.equals(field) ||
+            Constants.JSON_KEY_QUANTIZATION.equals(field)) {
+
+          parser.skipChildren();
+        } else {
+
+          otherFields.put(field, parser.readValueAsTree());
+        }
+      }
+      if(!hasTextSegments) throw new IllegalArgumentException(String.format("Missing \"%s\".", Constants.JSON_KEY_TEXT_SEGMENTS));
+    }
+  }
+
+  private static void readTextSegment(JsonParser parser, List<TextSegment> textSegments,
+                                      List<Map<String, Object>> segmentMetadata) throws IOException {
+
+    if(parser.currentToken() != JsonToken.START_OBJECT) {
+
+      throw new IllegalArgumentException(String.format("Text segment %s must be an object.", textSegments.size()));
+    }
+    String text = null;
+    Map<String, Object> metadata = null;
+    while(parser.nextToken() == JsonToken.FIELD_NAME) {
+
+      String field = parser.getCurrentName();
+      parser.nextToken();
+      if(Constants.JSON_KEY_TEXT.equals(field)) {
+
+        text = parser.getValueAsString();
+      } else if(Constants.JSON_KEY_METADATA.equals(field)) {
+
+        metadata = parser.readValueAs(METADATA_TYPE);
+      } else {
+
+        parser.skipChildren();
+      }
+    }
+    if(text == null || metadata == null) {
+
+      throw new IllegalArgumentException(String.format("Text segment %s must hold \"%s\" and \"%s\".",
+                                                       textSegments.size(), Constants.JSON_KEY_TEXT, Constants.JSON_KEY_METADATA));
+    }
+    textSegments.add(new TextSegment(text, Metadata.from(metadata)));
+    segmentMetadata.add(metadata);
+  }
+
+  /**
+   * Adds the steps writing the embeddings, one vector per step, and their dimension. Vectors are written as arrays of
+   * numbers or, for the base64 encodings, as base64 strings along with the encoding used. With quantization, the
+   * quantized vectors are written as base64 strings with their scale and offset, along with or instead of the full
+   * precision ones.
+   *
+   * @param steps the steps writing the response.
+   * @param embeddings the embeddings.
+   * @param dimension the embedding model dimension.
+   * @param outputParameters the parameters for the encoding of the embeddings.
+   */
+  private static void addEmbeddingSteps(List<JsonStreamingInputStream.Step> steps, List<Embedding> embeddings, int dimension,
+                                        EmbeddingOutputParameters outputParameters) {
+
+    String encoding = outputParameters.getEmbeddingEncoding();
+    boolean base64 = VectorUtils.isBase64Encoding(encoding);
+    if(!outputParameters.isQuantized() || outputParameters.isIncludeFullPrecisionEmbeddings()) {
+
+      steps.add(generator -> generator.writeArrayFieldStart(Constants.JSON_KEY_EMBEDDINGS));
+      for(Embedding embedding : embeddings) {
+
+        if(base64) {
+
+          steps.add(generator -> generator.writeString(VectorUtils.encodeBase64(embedding.vector(), encoding)));
+        } else {
+
+          steps.add(generator -> {
+            generator.writeStartArray();
+            for(float value : embedding.vector()) generator.writeNumber(value);
+            generator.writeEndArray();
+          });
+        }
+      }
+      steps.add(JsonGenerator::writeEndArray);
+      if(base64) steps.add(generator -> generator.writeStringField(Constants.JSON_KEY_ENCODING, encoding));
+    }
+    if(outputParameters.isQuantized()) {
+
+      String quantization = outputParameters.getQuantization();
+      if(!Constants.EMBEDDING_QUANTIZATION_INT8.equals(quantization) &&
+          !Constants.EMBEDDING_QUANTIZATION_BINARY.equals(quantization)) {
+
+        throw new ModuleException(String.format("Unsupported quantization \"%s\".", quantization),
+                                  MuleVectorsErrorType.INVALID_PARAMETERS_ERROR);
+      }
+      steps.add(generator -> generator.writeArrayFieldStart(Constants.JSON_KEY_QUANTIZED_EMBEDDINGS));
+      for(Embedding embedding : embeddings) {
+
+        steps.add(generator -> {
+          VectorUtils.QuantizedVector quantized = VectorUtils.quantize(embedding.vector(), quantization);
+          generator.writeStartObject();
+          generator.writeBinaryField(Constants.JSON_KEY_DATA, quantized.getData());
+          generator.writeNumberField(Constants.JSON_KEY_SCALE, quantized.getScale());
+          generator.writeNumberField(Constants.JSON_KEY_OFFSET, quantized.getOffset());
+          generator.writeEndObject();
+        });
+      }
+      steps.add(JsonGenerator::writeEndArray);
+      steps.add(generator -> generator.writeStringField(Constants.JSON_KEY_QUANTIZATION, quantization));
+    }
+    steps.add(generator -> generator.writeNumberField(Constants.JSON_KEY_DIMENSION, dimension));
+  }
+
+  /**
+   * Embeds the given text segments. Segments whose texts are equal once normalized (surrounding whitespace trimmed,
+   * inner whitespace runs collapsed), such as repeated page headers and footers, are embedded once and share the
+   * same embedding. The number of such duplicates is recorded into the given response attributes.
+   *
+   * @param embeddingConfiguration the configuration for the embedding service.
+   * @param baseModel the model wrapper, used to identify the embedding model in the cache.
+   * @param embeddingModel the embedding model.
+   * @param textSegments the text segments to embed.
+   * @param attributes the response attributes.
+   * @return the embeddings, in the same order as the text segments.
+   */
+  private static List<Embedding> embedAll(EmbeddingConfiguration embeddingConfiguration, BaseModel baseModel,
+                                          EmbeddingModel embeddingModel, List<TextSegment> textSegments,
+                                          HashMap<String, Object> attributes) {
+
+    List<TextSegment> uniqueSegments = new ArrayList<>();
+    int[] uniqueIndexes = new int[textSegments.size()];
+    Map<String, Integer> uniqueIndexByText = new HashMap<>();
+    int position = 0;
+    for(TextSegment textSegment : textSegments) {
+
+      String normalizedText = normalize(textSegment.text());
+      Integer uniqueIndex = uniqueIndexByText.get(normalizedText);
+      if(uniqueIndex == null) {
+
+        uniqueIndex = uniqueSegments.size();
+        uniqueIndexByText.put(normalizedText, uniqueIndex);
+        uniqueSegments.add(textSegment);
+      }
+      uniqueIndexes[position++] = uniqueIndex;
+    }
+
+    int duplicates = textSegments.size() - uniqueSegments.size();
+    attributes.put("embeddingDuplicateSegments", duplicates);
+    if(duplicates == 0) {
+
+      return embedUnique(embeddingConfiguration, baseModel, embeddingModel, textSegments, attributes);
+    }
+
+    LOGGER.debug(String.format("Embedding %s unique segment(s) out of %s.", uniqueSegments.size(), textSegments.size()));
+    List<Embedding> uniqueEmbeddings = embedUnique(embeddingConfiguration, baseModel, embeddingModel, uniqueSegments, attributes);
+    List<Embedding> embeddings = new ArrayList<>(textSegments.size());
+    for(int uniqueIndex : uniqueIndexes) embeddings.add(uniqueEmbeddings.get(uniqueIndex));
+    return embeddings;
+  }
+
+  private static String normalize(String text) {
+
+    return text == null ? "" : WHITESPACE_PATTERN.matcher(text.trim()).replaceAll(" ");
+  }
+
+  /**
+   * Embeds the given text segments. When the embedding cache or the embedding disk store are enabled on the
+   * configuration, embeddings found there are reused and only the remaining segments are sent to the embedding model,
+   * as a single batch. Generated embeddings are then added to both tiers, and disk store hits are promoted to the cache.
+   * Cache and disk store hits, and misses sent to the embedding model, are recorded into the given response attributes.
+   *
+   * @param embeddingConfiguration the configuration for the embedding service.
+   * @param baseModel the model wrapper, used to identify the embedding model in the cache.
+   * @param embeddingModel the embedding model.
+   * @param textSegments the text segments to embed.
+   * @param attributes the response attributes.
+   * @return the embeddings, in the same order as the text segments.
+   */
+  private static List<Embedding> embedUnique(EmbeddingConfiguration embeddingConfiguration, BaseModel baseModel,
+                                             EmbeddingModel embeddingModel, List<TextSegment> textSegments,
+                                             HashMap<String, Object> attributes) {
+
+    EmbeddingCache embeddingCache = embeddingConfiguration.getEmbeddingCache();
+    EmbeddingDiskStore embeddingDiskStore = embeddingConfiguration.getEmbeddingDiskStore();
+    EmbeddingCallStatistics statistics = new EmbeddingCallStatistics();
+    if(embeddingCache == null && embeddingDiskStore == null) {
+
+      List<Embedding> embeddings = callEmbeddingModel(embeddingModel, textSegments, statistics);
+      recordStatistics(baseModel, textSegments.size(), statistics, 0, 0, 0, attributes);
+      return embeddings;
+    }
+
+    String embeddingModelKey = baseModel.getEmbeddingModelKey();
+    List<TextSegment> segments = new ArrayList<>(textSegments);
+    Embedding[] embeddings = new Embedding[segments.size()];
+    String[] keys = new String[segments.size()];
+    List<Integer> missIndexes = new ArrayList<>();
+    List<TextSegment> missSegments = new ArrayList<>();
+    int cacheHits = 0;
+    int diskStoreHits = 0;
+
+    for(int i = 0; i < segments.size(); i++) {
+
+      keys[i] = EmbeddingCache.key(embeddingModelKey, segments.get(i).text());
+      if(embeddingCache != null) {
+
+        embeddings[i] = embeddingCache.get(keys[i]);
+        if(embeddings[i] != null) cacheHits++;
+      }
+      if(embeddings[i] == null && embeddingDiskStore != null) {
+
+        embeddings[i] = embeddingDiskStore.get(keys[i]);
+        if(embeddings[i] != null) {
+
+          diskStoreHits++;
+          if(embeddingCache != null) embeddingCache.put(keys[i], embeddings[i]);
+        }
+      }
+      if(embeddings[i] == null) {
+
+        missIndexes.add(i);
+        missSegments.add(segments.get(i));
+      }
+    }
+
+    if(!missSegments.isEmpty()) {
+
+      List<Embedding> generated = callEmbeddingModel(embeddingModel, missSegments, statistics);
+      Map<String, Embedding> generatedByKey = new LinkedHashMap<>();
+      for(int i = 0; i < missIndexes.size(); i++) {
+
+        int index = missIndexes.get(i);
+        embeddings[index] = generated.get(i);
+        generatedByKey.put(keys[index], generated.get(i));
+        if(embeddingCache != null) embeddingCache.put(keys[index], generated.get(i));
+      }
+      if(embeddingDiskStore != null) embeddingDiskStore.putAll(generatedByKey);
+    }
+
+    LOGGER.debug(String.format("Embedding cache: %s hit(s), disk store: %s hit(s), embedding model: %s segment(s).",
+                               cacheHits, diskStoreHits, missSegments.size()));
+    // Misses are the segments sent to the embedding model, found in neither the cache nor the disk store
+    attributes.put("embeddingCacheHits", cacheHits);
+    attributes.put("embeddingDiskStoreHits", diskStoreHits);
+    attributes.put("embeddingCacheMisses", missSegments.size());
+    recordStatistics(baseModel, segments.size(), statistics, cacheHits, diskStoreHits, missSegments.size(), attributes);
+    return Arrays.asList(embeddings);
+  }
+
+  /**
+   * Calls the embedding model, recording the duration of the call, the reported token usage, and the batches and
+   * retries it takes into the given statistics.
+   *
+   * @param embeddingModel the embedding model.
+   * @param textSegments the text segments to embed.
+   * @param statistics the statistics of the operation.
+   * @return the embeddings, in the same order as the text segments.
+   */
+  private static List<Embedding> callEmbeddingModel(EmbeddingModel embeddingModel, List<TextSegment> textSegments,
+                                                    EmbeddingCallStatistics statistics) {
+
+    long startTime = System.currentTimeMillis();
+    Response<List<Embedding>> response =
+        EmbeddingCallStatistics.callWith(statistics, () -> embeddingModel.embedAll(textSegments));
+    statistics.recordCall(System.currentTimeMillis() - startTime,
+                          response.tokenUsage() != null ? response.tokenUsage().inputTokenCount() : null);
+    return response.content();
+  }
+
+  /**
+   * Records the statistics of the operation into the response attributes and into the metrics of the embedding model.
+   */
+  private static void recordStatistics(BaseModel baseModel, int segmentCount, EmbeddingCallStatistics statistics,
+                                       int cacheHits, int diskStoreHits, int cacheMisses,
+                                       HashMap<String, Object> attributes) {
+
+    attributes.put("embeddingInputTokenCount", statistics.getInputTokenCount());
+    attributes.put("embeddingLatencyMillis", statistics.getLatencyMillis());
+    attributes.put("embeddingBatchCount", statistics.getBatchCount());
+    attributes.put("embeddingRetryCount", statistics.getRetryCount());
+    baseModel.getEmbeddingMetrics().record(segmentCount, statistics, cacheHits, diskStoreHits, cacheMisses);
+  }
 }
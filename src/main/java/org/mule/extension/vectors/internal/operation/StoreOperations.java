@@ -1,5 +1,6 @@
 package org.mule.extension.vectors.internal.operation;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import dev.langchain4j.data.document.Metadata;
 import dev.langchain4j.data.embedding.Embedding;
 import dev.langchain4j.data.segment.TextSegment;
@@ -9,19 +10,23 @@ import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
 import dev.langchain4j.store.embedding.EmbeddingSearchResult;
 import dev.langchain4j.store.embedding.EmbeddingStore;
 import dev.langchain4j.store.embedding.filter.Filter;
-import org.apache.commons.io.IOUtils;
+import dev.langchain4j.store.embedding.filter.MetadataFilterBuilder;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.mule.extension.vectors.api.metadata.StoreResponseAttributes;
+import org.mule.extension.vectors.internal.cache.QueryResultCache;
 import org.mule.extension.vectors.internal.config.StoreConfiguration;
 import org.mule.extension.vectors.internal.connection.store.BaseStoreConnection;
 import org.mule.extension.vectors.internal.constant.Constants;
 import org.mule.extension.vectors.internal.error.MuleVectorsErrorType;
 import org.mule.extension.vectors.internal.error.provider.StoreErrorTypeProvider;
 import org.mule.extension.vectors.internal.helper.EmbeddingOperationValidator;
+import org.mule.extension.vectors.internal.helper.TextSegmentsAndEmbeddingsReader;
 import org.mule.extension.vectors.internal.helper.parameter.MetadataFilterParameters;
 import org.mule.extension.vectors.internal.helper.parameter.QueryParameters;
+import org.mule.extension.vectors.internal.helper.parameter.StoreIngestionParameters;
 import org.mule.extension.vectors.internal.store.BaseStore;
+import org.mule.extension.vectors.internal.store.ChunkedIngestion;
 import org.mule.extension.vectors.internal.util.JsonUtils;
 import org.mule.extension.vectors.internal.util.MetadataUtils;
 import org.mule.runtime.extension.api.annotation.Alias;
@@ -36,12 +41,17 @@ import org.mule.runtime.extension.api.runtime.operation.Result;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.IntStream;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static java.util.stream.Collectors.joining;
 import static org.mule.extension.vectors.internal.helper.ResponseHelper.*;
@@ -54,8 +64,11 @@ public class StoreOperations {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(StoreOperations.class);
 
+  private static final TypeReference<List<Map<String, Object>>> QUERY_OPTIONS_TYPE = new TypeReference<List<Map<String, Object>>>() {};
+
   /**
    * Queries an embedding store based on the provided embedding and text segment, and applies a metadata filter.
+   * When the query cache of the configuration is enabled, results of identical or similar queries are reused.
    *
    * @param storeConfiguration the configuration of the store
    * @param storeConnection    the connection to the store
@@ -85,8 +98,8 @@ public class StoreOperations {
       @Alias("minScore") @Summary("Minimum score used to filter retrieved results (text segments).") Double minScore,
       @ParameterGroup(name = "Filter") MetadataFilterParameters.SearchFilterParameters searchFilterParams) {
 
-    List<TextSegment> textSegments = new LinkedList<>();
-    List<Embedding> embeddings = new LinkedList<>();
+    List<TextSegment> textSegments = new ArrayList<>(1);
+    List<Embedding> embeddings = new ArrayList<>(1);
     int dimension;
 
     try {
@@ -96,47 +109,26 @@ public class StoreOperations {
 
       try {
 
-        String contentString = IOUtils.toString(content, StandardCharsets.UTF_8);
-        JSONObject jsonContent = new JSONObject(contentString);
-
-        HashMap<String, Object> ingestionMetadataMap = MetadataUtils.getIngestionMetadata();
-
-        JSONArray jsonTextSegments = jsonContent.getJSONArray(Constants.JSON_KEY_TEXT_SEGMENTS);
-        IntStream.range(0, jsonTextSegments.length())
-            .mapToObj(jsonTextSegments::getJSONObject) // Convert index to JSONObject
-            .forEach(jsonTextSegment -> {
-              HashMap<String, Object> metadataMap = (HashMap<String, Object>)jsonTextSegment.getJSONObject(Constants.JSON_KEY_METADATA).toMap();
-              metadataMap.putAll(ingestionMetadataMap);
-              Metadata metadata = Metadata.from(metadataMap);
-              textSegments.add(new TextSegment(jsonTextSegment.getString(Constants.JSON_KEY_TEXT), metadata));
-            });
+        int[] dimensions = new int[1];
+        TextSegmentsAndEmbeddingsReader.readAll(content, MetadataUtils.getIngestionMetadata(), (segments, vectors, dim) -> {
+          textSegments.addAll(segments);
+          embeddings.addAll(vectors);
+          dimensions[0] = dim;
+        });
 
-        if(jsonTextSegments.length() != 1) {
+        if(textSegments.size() != 1) {
 
-          throw new ModuleException(String.format("You must provide one text segment only. Received: %s", String.valueOf(jsonTextSegments.length())),
+          throw new ModuleException(String.format("You must provide one text segment only. Received: %s", String.valueOf(textSegments.size())),
                                     MuleVectorsErrorType.INVALID_PARAMETERS_ERROR);
         }
 
-        JSONArray jsonEmbeddings = jsonContent.getJSONArray(Constants.JSON_KEY_EMBEDDINGS);
-        IntStream.range(0, jsonEmbeddings.length())
-            .mapToObj(jsonEmbeddings::getJSONArray) // Convert index to JSONObject
-            .forEach(jsonEmbedding -> {
-
-              // Convert JSONArray to float[]
-              float[] floatArray = new float[jsonEmbedding.length()];
-              for (int i = 0; i < jsonEmbedding.length(); i++) {
-                floatArray[i] = (float) jsonEmbedding.getDouble(i);
-              }
-              embeddings.add(new Embedding(floatArray));
-            });
-
         if(embeddings.size() != 1) {
 
           throw new ModuleException(String.format("You must provide one embedding only. Received: %s", String.valueOf(embeddings.size())),
                                     MuleVectorsErrorType.INVALID_PARAMETERS_ERROR);
         }
 
-        dimension = jsonContent.getInt(Constants.JSON_KEY_DIMENSION);
+        dimension = dimensions[0];
         ValidationUtils.ensureGreaterThanZero(dimension, Constants.JSON_KEY_DIMENSION);
 
       } catch (Exception e) {
@@ -154,7 +146,7 @@ public class StoreOperations {
           .createStore(false)
           .build();
 
-      EmbeddingStore<TextSegment> embeddingStore = baseStore.buildEmbeddingStore();
+      EmbeddingStore<TextSegment> embeddingStore = baseStore.getEmbeddingStore();
 
       EmbeddingSearchRequest.EmbeddingSearchRequestBuilder searchRequestBuilder = EmbeddingSearchRequest.builder()
           .queryEmbedding(embeddings.get(0))
@@ -173,8 +165,28 @@ public class StoreOperations {
 
       EmbeddingSearchRequest searchRequest = searchRequestBuilder.build();
 
-      EmbeddingSearchResult<TextSegment> searchResult = embeddingStore.search(searchRequest);
-      List<EmbeddingMatch<TextSegment>> embeddingMatches = searchResult.matches();
+      // Results are reused from the query cache, if enabled, and cached otherwise
+      QueryResultCache queryResultCache = storeConfiguration.getQueryResultCache();
+      float[] queryVector = embeddings.get(0).vector();
+      String queryKey = null;
+      long generation = 0;
+      List<EmbeddingMatch<TextSegment>> embeddingMatches = null;
+      if(queryResultCache != null) {
+
+        queryKey = QueryResultCache.queryKey(
+            storeName, searchFilterParams.areFilterParamsSet() ? searchFilterParams.getFilterDescription() : null,
+            maximumResults, minScore);
+        generation = queryResultCache.getGeneration(storeName);
+        embeddingMatches = queryResultCache.get(queryKey, queryVector);
+      }
+      boolean queryCacheHit = embeddingMatches != null;
+
+      if(!queryCacheHit) {
+
+        EmbeddingSearchResult<TextSegment> searchResult = embeddingStore.search(searchRequest);
+        embeddingMatches = searchResult.matches();
+        if(queryResultCache != null) queryResultCache.put(storeName, queryKey, queryVector, embeddingMatches, generation);
+      }
 
       String information = embeddingMatches.stream()
           .map(match -> match.embedded().text())
@@ -186,22 +198,175 @@ public class StoreOperations {
       jsonObject.put(Constants.JSON_KEY_MAX_RESULTS, maxResults);
       jsonObject.put(Constants.JSON_KEY_MIN_SCORE, minScore);
 
-      JSONArray sources = new JSONArray();
+      jsonObject.put(Constants.JSON_KEY_SOURCES, getSourcesArray(embeddingMatches));
+
+      return createStoreResponse(
+          jsonObject.toString(),
+          new HashMap<String, Object>() {{
+            put("storeName", storeName);
+            put("searchFilter", searchFilterParams);
+            put("queryCacheHit", queryCacheHit);
+          }});
+
+    } catch (ModuleException me) {
+      throw me;
+
+    } catch (Exception e) {
+
+      throw new ModuleException(
+          String.format("Error while querying embeddings from the store %s", storeName),
+          MuleVectorsErrorType.STORE_OPERATIONS_FAILURE,
+          e);
+    }
+  }
+
+  /**
+   * Queries an embedding store with a batch of embeddings and text segments, running the queries concurrently.
+   * Each query can override the maximum number of results, the minimum score and the metadata filter through the
+   * optional "queries" field of the input, in the order of the text segments.
+   *
+   * @param storeConfiguration the configuration of the store
+   * @param storeConnection    the connection to the store
+   * @param storeName          the name of the store to query
+   * @param content            the input stream containing the text segments, embeddings and optional query settings
+   * @param maxResults         the default maximum number of results to retrieve per query
+   * @param minScore           the default minimum score to filter results
+   * @param parallelism        the maximum number of queries run concurrently
+   * @param searchFilterParams the default search filter parameters
+   * @return a result containing the results of each query, keyed by query index
+   * @throws ModuleException if an error occurs during the operation
+   */
+  @MediaType(value = APPLICATION_JSON, strict = false)
+  @Alias("Query-batch")
+  @DisplayName("[Store] Query batch")
+  @Throws(StoreErrorTypeProvider.class)
+  @OutputJsonType(schema = "api/metadata/StoreQueryBatchResponse.json")
+  public Result<InputStream, StoreResponseAttributes> queryBatch(
+      @Config StoreConfiguration storeConfiguration,
+      @Connection BaseStoreConnection storeConnection,
+      @Alias("storeName") @Summary("Name of the store/collection to query.") String storeName,
+      @Alias("textSegmentsAndEmbeddings")
+          @Summary("Text Segments and Embeddings generated from questions, with optional settings per query.")
+          @DisplayName("Text Segments and Embeddings")
+          @InputJsonType(schema = "api/metadata/StoreQueryBatchRequest.json")
+          @Content InputStream content,
+      @Alias("maxResults") @Summary("Default maximum number of results (text segments) retrieved per query.") Number maxResults,
+      @Alias("minScore") @Summary("Default minimum score used to filter retrieved results (text segments).") Double minScore,
+      @Alias("parallelism") @DisplayName("Parallelism") @Summary("Maximum number of queries run concurrently. Defaults to 4.")
+          @Optional(defaultValue = "4") int parallelism,
+      @ParameterGroup(name = "Filter") MetadataFilterParameters.SearchFilterParameters searchFilterParams) {
+
+    List<TextSegment> textSegments = new ArrayList<>();
+    List<Embedding> embeddings = new ArrayList<>();
+    List<Map<String, Object>> queryOptions = new ArrayList<>();
+    int dimension;
 
-      JSONObject contentObject;
-      for (EmbeddingMatch<TextSegment> match : embeddingMatches) {
+    try {
 
-        Metadata matchMetadata = match.embedded().metadata();
-        contentObject = new JSONObject();
-        contentObject.put(Constants.JSON_KEY_EMBEDDING_ID, match.embeddingId());
-        contentObject.put(Constants.JSON_KEY_TEXT, match.embedded().text());
-        contentObject.put(Constants.JSON_KEY_SCORE, match.score());
-        JSONObject metadataObject = new JSONObject(matchMetadata.toMap());
-        contentObject.put(Constants.JSON_KEY_METADATA, metadataObject);
-        sources.put(contentObject);
+      if (minScore == null) { minScore = Constants.EMBEDDING_SEARCH_REQUEST_DEFAULT_MIN_SCORE; }
+
+      try {
+
+        int[] dimensions = new int[1];
+        new TextSegmentsAndEmbeddingsReader(MetadataUtils.getIngestionMetadata(), Integer.MAX_VALUE, (segments, vectors, dim) -> {
+          textSegments.addAll(segments);
+          embeddings.addAll(vectors);
+          dimensions[0] = dim;
+        }).withFieldReader(Constants.JSON_KEY_QUERIES, parser -> queryOptions.addAll(parser.readValueAs(QUERY_OPTIONS_TYPE)))
+            .read(content);
+
+        if(!queryOptions.isEmpty() && queryOptions.size() != textSegments.size()) {
+
+          throw new ModuleException(String.format("You must provide the settings of each query. Received %s settings for %s queries.",
+                                                  queryOptions.size(), textSegments.size()),
+                                    MuleVectorsErrorType.INVALID_PARAMETERS_ERROR);
+        }
+
+        dimension = dimensions[0];
+        if(!textSegments.isEmpty()) ValidationUtils.ensureGreaterThanZero(dimension, Constants.JSON_KEY_DIMENSION);
+
+      } catch (Exception e) {
+
+        throw new ModuleException(
+            String.format("Error while parsing Text Segments and Embeddings input."),
+            MuleVectorsErrorType.INVALID_PARAMETERS_ERROR,
+            e);
       }
 
-      jsonObject.put(Constants.JSON_KEY_SOURCES, sources);
+      List<EmbeddingSearchRequest> searchRequests = new ArrayList<>(textSegments.size());
+      for(int i = 0; i < textSegments.size(); i++) {
+
+        Map<String, Object> options = queryOptions.isEmpty() ? Collections.emptyMap() : queryOptions.get(i);
+        Object queryMaxResults = options.get(Constants.JSON_KEY_MAX_RESULTS);
+        Object queryMinScore = options.get(Constants.JSON_KEY_MIN_SCORE);
+        MetadataFilterParameters filterParams = getQueryFilterParameters(options.get(Constants.JSON_KEY_FILTER), searchFilterParams);
+
+        EmbeddingSearchRequest.EmbeddingSearchRequestBuilder searchRequestBuilder = EmbeddingSearchRequest.builder()
+            .queryEmbedding(embeddings.get(i))
+            .maxResults(queryMaxResults instanceof Number ? ((Number) queryMaxResults).intValue() : maxResults.intValue())
+            .minScore(queryMinScore instanceof Number ? ((Number) queryMinScore).doubleValue() : minScore);
+
+        if(filterParams.areFilterParamsSet()) {
+
+          EmbeddingOperationValidator.validateOperationType(
+              Constants.STORE_OPERATION_TYPE_FILTER_BY_METADATA, storeConnection.getVectorStore());
+          searchRequestBuilder.filter(filterParams.buildMetadataFilter());
+        }
+        searchRequests.add(searchRequestBuilder.build());
+      }
+
+      BaseStore baseStore = BaseStore.builder()
+          .storeName(storeName)
+          .connection(storeConnection)
+          .dimension(dimension)
+          .createStore(false)
+          .build();
+
+      List<CompletableFuture<EmbeddingSearchResult<TextSegment>>> searchResults =
+          searchRequests.isEmpty() ? Collections.emptyList() : baseStore.searchBatch(searchRequests, Math.max(1, parallelism));
+
+      JSONArray results = new JSONArray();
+      Throwable firstError = null;
+      int failedCount = 0;
+      for(int i = 0; i < searchRequests.size(); i++) {
+
+        JSONObject resultObject = new JSONObject();
+        resultObject.put(Constants.JSON_KEY_INDEX, i);
+        resultObject.put(Constants.JSON_KEY_QUESTION, textSegments.get(i).text());
+        resultObject.put(Constants.JSON_KEY_MAX_RESULTS, searchRequests.get(i).maxResults());
+        resultObject.put(Constants.JSON_KEY_MIN_SCORE, searchRequests.get(i).minScore());
+        try {
+
+          List<EmbeddingMatch<TextSegment>> embeddingMatches = searchResults.get(i).join().matches();
+          resultObject.put(Constants.JSON_KEY_RESPONSE, embeddingMatches.stream()
+              .map(match -> match.embedded().text())
+              .collect(joining("\n\n")));
+          resultObject.put(Constants.JSON_KEY_SOURCES, getSourcesArray(embeddingMatches));
+
+        } catch (CompletionException e) {
+
+          Throwable cause = e.getCause() != null ? e.getCause() : e;
+          if(firstError == null) firstError = cause;
+          failedCount++;
+          LOGGER.warn(String.format("Query %s of the batch failed on the store %s: %s", i, storeName, cause.getMessage()));
+          resultObject.put(Constants.JSON_KEY_ERROR, String.valueOf(cause.getMessage()));
+        }
+        results.put(resultObject);
+      }
+
+      if(failedCount > 0 && failedCount == searchRequests.size()) {
+
+        throw new ModuleException(
+            String.format("Error while querying embeddings from the store %s", storeName),
+            MuleVectorsErrorType.STORE_SERVICES_FAILURE,
+            firstError);
+      }
+
+      JSONObject jsonObject = new JSONObject();
+      jsonObject.put(Constants.JSON_KEY_STORE_NAME, storeName);
+      jsonObject.put(Constants.JSON_KEY_QUERY_COUNT, searchRequests.size());
+      jsonObject.put(Constants.JSON_KEY_FAILED_COUNT, failedCount);
+      jsonObject.put(Constants.JSON_KEY_RESULTS, results);
 
       return createStoreResponse(
           jsonObject.toString(),
@@ -224,12 +389,24 @@ public class StoreOperations {
 
   /**
    * Adds embeddings and text segments to the store.
+   * <p>
+   * Chunks are upserted while the input is read, so that large inputs are not held in memory. Some errors in the input,
+   * such as a count of embeddings not matching the count of text segments, are only detected once it is fully read,
+   * after earlier chunks were upserted. Those chunks are then left to complete and kept in the store, and the error
+   * reports how many segments were added and their {@code source_id} values, which a remove operation can filter on.
+   * <p>
+   * With IDs derived from content, an edited segment gets a new ID, so its previous version stays in the store. When
+   * removing stale segments, and only if every chunk was ingested, the segments of each ingested source which were not
+   * written by this ingestion, as told by their ingestion timestamp, are then removed. The cleanup is last-writer-wins:
+   * concurrent ingestions of the same source each remove the segments written by the other, so that only those of the
+   * ingestion completing last are kept.
    *
    * @param storeConfiguration the configuration of the store
    * @param storeConnection    the connection to the store
    * @param storeName          the name of the store to add data to
    * @param content            the input stream containing the text segments and embeddings
-   * @return a result containing the store response
+   * @param ingestionParameters the chunk size, parallelism, retries and ID derivation of the upsert
+   * @return a result containing the store response, with the status of each chunk
    * @throws ModuleException if an error occurs during the operation
    */
   @MediaType(value = APPLICATION_JSON, strict = false)
@@ -244,68 +421,109 @@ public class StoreOperations {
       @Alias("textSegmentsAndEmbeddings")
           @DisplayName("Text Segments and Embeddings")
           @InputJsonType(schema = "api/metadata/EmbeddingGenerateResponse.json")
-          @Content InputStream content) {
+          @Content InputStream content,
+      @ParameterGroup(name = "Ingestion") StoreIngestionParameters ingestionParameters) {
 
     try {
 
-      String contentString = IOUtils.toString(content, StandardCharsets.UTF_8);
+      if(ingestionParameters.isSkipUnchanged() && !ingestionParameters.isDeterministicIds()) {
 
-      JSONObject jsonContent = new JSONObject(contentString);
+        throw new ModuleException("Skipping unchanged segments requires IDs derived from content.",
+                                  MuleVectorsErrorType.INVALID_PARAMETERS_ERROR);
+      }
+      if(ingestionParameters.isRemoveStaleSegments()) {
 
-      HashMap<String, Object> ingestionMetadataMap = MetadataUtils.getIngestionMetadata();
+        if(!ingestionParameters.isDeterministicIds() || ingestionParameters.isSkipUnchanged()) {
 
-      JSONArray jsonTextSegments = jsonContent.getJSONArray(Constants.JSON_KEY_TEXT_SEGMENTS);
-      List<TextSegment> textSegments = new LinkedList<>();
-      IntStream.range(0, jsonTextSegments.length())
-          .mapToObj(jsonTextSegments::getJSONObject) // Convert index to JSONObject
-          .forEach(jsonTextSegment -> {
-            HashMap<String, Object> metadataMap = (HashMap<String, Object>)jsonTextSegment.getJSONObject(Constants.JSON_KEY_METADATA).toMap();
-            metadataMap.putAll(ingestionMetadataMap);
-            Metadata metadata = Metadata.from(metadataMap);
-            textSegments.add(new TextSegment(jsonTextSegment.getString(Constants.JSON_KEY_TEXT), metadata));
-          });
+          throw new ModuleException("Removing stale segments requires IDs derived from content, without skipping unchanged segments.",
+                                    MuleVectorsErrorType.INVALID_PARAMETERS_ERROR);
+        }
+        EmbeddingOperationValidator.validateOperationType(
+            Constants.STORE_OPERATION_TYPE_REMOVE_EMBEDDINGS, storeConnection.getVectorStore());
+        EmbeddingOperationValidator.validateOperationType(
+            Constants.STORE_OPERATION_TYPE_FILTER_BY_METADATA, storeConnection.getVectorStore());
+      }
 
-      JSONArray jsonEmbeddings = jsonContent.getJSONArray(Constants.JSON_KEY_EMBEDDINGS);
-      List<Embedding> embeddings = new LinkedList<>();
-      IntStream.range(0, jsonEmbeddings.length())
-          .mapToObj(jsonEmbeddings::getJSONArray) // Convert index to JSONObject
-          .forEach(jsonEmbedding -> {
+      // Segments and embeddings are upserted into the store in chunks, while the input is read
+      List<EmbeddingStore<TextSegment>> embeddingStoreHolder = new ArrayList<>(1);
+      int[] segmentPosition = new int[1];
+      Set<String> submittedSourceIds = new LinkedHashSet<>();
+      ChunkedIngestion ingestion = new ChunkedIngestion(storeName, storeConnection.getOperationExecutor(),
+                                                        ingestionParameters.getParallelism(),
+                                                        ingestionParameters.getMaxChunkRetries(),
+                                                        ingestionParameters.isSkipUnchanged());
+      Map<String, Object> ingestionMetadata = MetadataUtils.getIngestionMetadata();
+      TextSegmentsAndEmbeddingsReader reader = new TextSegmentsAndEmbeddingsReader(
+          ingestionMetadata, ingestionParameters.getChunkSize(), (textSegments, embeddings, dimension) -> {
+
+        if(embeddingStoreHolder.isEmpty()) {
+
+          BaseStore baseStore = BaseStore.builder()
+              .storeName(storeName)
+              .configuration(storeConfiguration)
+              .connection(storeConnection)
+              .dimension(dimension)
+              .build();
+
+          embeddingStoreHolder.add(baseStore.getEmbeddingStore());
+        }
 
-            // Convert JSONArray to float[]
-            float[] floatArray = new float[jsonEmbedding.length()];
-            for (int i = 0; i < jsonEmbedding.length(); i++) {
-              floatArray[i] = (float) jsonEmbedding.getDouble(i);
-            }
-            embeddings.add(new Embedding(floatArray));
-          });
+        List<String> ids = getEmbeddingIds(textSegments, segmentPosition[0], ingestionParameters);
+        segmentPosition[0] += textSegments.size();
+        for(TextSegment textSegment : textSegments) {
 
-      int dimension = jsonContent.getInt(Constants.JSON_KEY_DIMENSION);
-      ValidationUtils.ensureGreaterThanZero(dimension, Constants.JSON_KEY_DIMENSION);
+          submittedSourceIds.add(textSegment.metadata().getString(Constants.METADATA_KEY_SOURCE_ID));
+        }
+        try {
 
-      BaseStore baseStore = BaseStore.builder()
-          .storeName(storeName)
-          .configuration(storeConfiguration)
-          .connection(storeConnection)
-          .dimension(dimension)
-          .build();
+          ingestion.submit(embeddingStoreHolder.get(0), ids, textSegments, embeddings);
+        } catch (InterruptedException e) {
 
-      EmbeddingStore<TextSegment> embeddingStore = baseStore.buildEmbeddingStore();
+          Thread.currentThread().interrupt();
+          throw new IllegalStateException("Interrupted while waiting for a chunk to be ingested.", e);
+        }
+      });
 
+      List<ChunkedIngestion.ChunkStatus> chunks;
       try {
-        embeddingStore.addAll(embeddings, textSegments);
-        LOGGER.info(String.format("Ingested into %s  >> %s",
-                                  storeName,
-                                  MetadataUtils.getSourceDisplayName(textSegments.get(0).metadata())));
 
-      } catch(Exception e) {
+        reader.read(content);
+        chunks = ingestion.complete();
+        if(ingestionParameters.isRemoveStaleSegments() && !embeddingStoreHolder.isEmpty()) {
+
+          // A partial ingestion leaves the previous versions of the segments it failed to write as their only copy
+          if(isFullyIngested(chunks)) {
+
+            removeStaleSegments(embeddingStoreHolder.get(0), storeName, submittedSourceIds,
+                                (Long) ingestionMetadata.get(Constants.METADATA_KEY_INGESTION_TIMESTAMP));
+          } else {
+
+            LOGGER.warn(String.format("Not removing stale segments from store %s, as some chunks failed.", storeName));
+          }
+        }
+      } catch (IOException | IllegalArgumentException e) {
+
+        // Invalid input, possibly detected after chunks were handed over: those are completed, to report them
+        throw createPartialIngestionException(storeName, ingestion.complete(), submittedSourceIds, e);
+      } catch (Exception e) {
+
+        ingestion.cancel();
+        throw e;
+      } finally {
+
+        // Chunks may have been upserted even if the ingestion failed
+        invalidateQueryResultCache(storeConfiguration, storeName);
+      }
+
+      if(!chunks.isEmpty() && chunks.stream().noneMatch(ChunkedIngestion.ChunkStatus::isIngested)) {
 
         throw new ModuleException(
             String.format("Error while adding data to store \"%s\"", storeName),
             MuleVectorsErrorType.STORE_SERVICES_FAILURE,
-            e);
+            chunks.get(0).getError());
       }
 
-      JSONObject jsonObject = JsonUtils.createIngestionStatusObject(storeName);
+      JSONObject jsonObject = createIngestionStatusObject(storeName, chunks);
 
       return createStoreResponse(
           jsonObject.toString(),
@@ -325,6 +543,223 @@ public class StoreOperations {
     }
   }
 
+  /**
+   * Creates a JSONObject representing the ingestion status of a set of text segments upserted in chunks.
+   * The overall status is partial when some chunks failed, and each failed chunk lists the IDs it did not ingest.
+   * Segments skipped as unchanged are counted apart.
+   *
+   * @param storeName the name of the store associated with the ingestion status.
+   * @param chunks    the status of each chunk.
+   * @return a JSONObject containing the ingestion status, the ingested and failed counts and the status of each chunk.
+   */
+  private static JSONObject createIngestionStatusObject(String storeName, List<ChunkedIngestion.ChunkStatus> chunks) {
+
+    JSONObject jsonObject = JsonUtils.createIngestionStatusObject(storeName);
+    JSONArray chunkArray = new JSONArray();
+    int ingestedCount = 0;
+    int failedCount = 0;
+    int skippedCount = 0;
+    for(ChunkedIngestion.ChunkStatus chunk : chunks) {
+
+      JSONObject chunkObject = new JSONObject();
+      chunkObject.put(Constants.JSON_KEY_INDEX, chunk.getIndex());
+      chunkObject.put(Constants.JSON_KEY_ATTEMPTS, chunk.getAttempts());
+      chunkObject.put(Constants.JSON_KEY_SKIPPED_COUNT, chunk.getSkippedCount());
+      skippedCount += chunk.getSkippedCount();
+      if(chunk.isIngested()) {
+
+        int chunkIngestedCount = chunk.getIds().size() - chunk.getSkippedCount();
+        chunkObject.put(Constants.JSON_KEY_STATUS, Constants.OPERATION_STATUS_UPDATED);
+        chunkObject.put(Constants.JSON_KEY_INGESTED_COUNT, chunkIngestedCount);
+        chunkObject.put(Constants.JSON_KEY_FAILED_IDS, new JSONArray());
+        ingestedCount += chunkIngestedCount;
+      } else {
+
+        chunkObject.put(Constants.JSON_KEY_STATUS, Constants.OPERATION_STATUS_FAILED);
+        chunkObject.put(Constants.JSON_KEY_INGESTED_COUNT, 0);
+        chunkObject.put(Constants.JSON_KEY_FAILED_IDS, new JSONArray(chunk.getFailedIds()));
+        if(chunk.getError() != null) chunkObject.put(Constants.JSON_KEY_ERROR, String.valueOf(chunk.getError().getMessage()));
+        failedCount += chunk.getFailedIds().size();
+      }
+      chunkArray.put(chunkObject);
+    }
+    if(!isFullyIngested(chunks)) jsonObject.put(Constants.JSON_KEY_STATUS, Constants.OPERATION_STATUS_PARTIAL);
+    jsonObject.put(Constants.JSON_KEY_INGESTED_COUNT, ingestedCount);
+    jsonObject.put(Constants.JSON_KEY_FAILED_COUNT, failedCount);
+    jsonObject.put(Constants.JSON_KEY_SKIPPED_COUNT, skippedCount);
+    jsonObject.put(Constants.JSON_KEY_CHUNKS, chunkArray);
+    return jsonObject;
+  }
+
+  /**
+   * Tells whether every chunk was ingested, in which case the ingestion status is not partial.
+   *
+   * @param chunks the status of each chunk.
+   * @return {@code true} if no chunk failed.
+   */
+  private static boolean isFullyIngested(List<ChunkedIngestion.ChunkStatus> chunks) {
+
+    return chunks.stream().allMatch(ChunkedIngestion.ChunkStatus::isIngested);
+  }
+
+  /**
+   * Removes the segments of the given sources which were not written by the current ingestion. Must only be called
+   * once every chunk of the ingestion is ingested. Segments written meanwhile by a concurrent ingestion of the same
+   * sources are removed as well: the last ingestion to complete wins.
+   *
+   * @param embeddingStore     the store
+   * @param storeName          the name of the store
+   * @param sourceIds          the source IDs of the ingested segments
+   * @param ingestionTimestamp the ingestion timestamp of the segments written by the current ingestion
+   */
+  private static void removeStaleSegments(EmbeddingStore<TextSegment> embeddingStore, String storeName,
+                                          Set<String> sourceIds, long ingestionTimestamp) {
+
+    for(String sourceId : sourceIds) {
+
+      embeddingStore.removeAll(
+          MetadataFilterBuilder.metadataKey(Constants.METADATA_KEY_SOURCE_ID).isEqualTo(sourceId)
+              .and(MetadataFilterBuilder.metadataKey(Constants.METADATA_KEY_INGESTION_TIMESTAMP).isNotEqualTo(ingestionTimestamp)));
+    }
+    LOGGER.debug(String.format("Removed stale segments of %s source(s) from store %s.", sourceIds.size(), storeName));
+  }
+
+  /**
+   * Builds the error raised when the input of an add operation is found invalid while reading it, reporting the
+   * segments already upserted, if any.
+   *
+   * @param storeName the name of the store
+   * @param chunks    the status of the chunks handed over before the error
+   * @param sourceIds the source IDs of the segments handed over before the error
+   * @param cause     the error found in the input
+   * @return the exception to throw
+   */
+  private static ModuleException createPartialIngestionException(String storeName, List<ChunkedIngestion.ChunkStatus> chunks,
+                                                                 Set<String> sourceIds, Exception cause) {
+
+    int addedCount = 0;
+    int addedChunkCount = 0;
+    for(ChunkedIngestion.ChunkStatus chunk : chunks) {
+
+      if(!chunk.isIngested()) continue;
+      addedCount += chunk.getIds().size();
+      addedChunkCount++;
+    }
+    if(addedCount == 0) {
+
+      return new ModuleException(String.format("Error while adding data to store \"%s\": %s", storeName, cause.getMessage()),
+                                 MuleVectorsErrorType.STORE_OPERATIONS_FAILURE, cause);
+    }
+    return new ModuleException(
+        String.format("Error while adding data to store \"%s\": %s %s segment(s) were added in %s chunk(s) before the " +
+                          "error was found. They can be removed with a filter on \"%s\" in %s.",
+                      storeName, cause.getMessage(), addedCount, addedChunkCount, Constants.METADATA_KEY_SOURCE_ID, sourceIds),
+        MuleVectorsErrorType.STORE_OPERATIONS_FAILURE, cause);
+  }
+
+  /**
+   * Invalidates the cached query results of a store, once data was added to or removed from it.
+   *
+   * @param storeConfiguration the configuration of the store
+   * @param storeName          the name of the store
+   */
+  private static void invalidateQueryResultCache(StoreConfiguration storeConfiguration, String storeName) {
+
+    QueryResultCache queryResultCache = storeConfiguration.getQueryResultCache();
+    if(queryResultCache != null) queryResultCache.invalidate(storeName);
+  }
+
+  /**
+   * Returns the filter parameters of a query of a batch: those of its settings if any, else the default ones.
+   *
+   * @param filter             the filter settings of the query, a map with the filter parameters, or {@code null}.
+   * @param searchFilterParams the default filter parameters.
+   * @return the filter parameters.
+   */
+  private static MetadataFilterParameters getQueryFilterParameters(Object filter,
+                                                                   MetadataFilterParameters searchFilterParams) {
+
+    if(!(filter instanceof Map)) return searchFilterParams;
+
+    Map<?, ?> filterOptions = (Map<?, ?>) filter;
+    Object metadataKey = filterOptions.get(Constants.JSON_KEY_METADATA_KEY);
+    Object filterMethod = filterOptions.get(Constants.JSON_KEY_FILTER_METHOD);
+    Object metadataValue = filterOptions.get(Constants.JSON_KEY_METADATA_VALUE);
+    return new MetadataFilterParameters.QueryFilterParameters(
+        metadataKey != null ? String.valueOf(metadataKey) : null,
+        filterMethod != null ? String.valueOf(filterMethod) : null,
+        metadataValue != null ? String.valueOf(metadataValue) : null);
+  }
+
+  /**
+   * Converts the matches of a query into the sources of the response.
+   *
+   * @param embeddingMatches the matches.
+   * @return the sources, with the ID, text, score and metadata of each match.
+   */
+  private static JSONArray getSourcesArray(List<EmbeddingMatch<TextSegment>> embeddingMatches) {
+
+    JSONArray sources = new JSONArray();
+
+    JSONObject contentObject;
+    for (EmbeddingMatch<TextSegment> match : embeddingMatches) {
+
+      Metadata matchMetadata = match.embedded().metadata();
+      contentObject = new JSONObject();
+      contentObject.put(Constants.JSON_KEY_EMBEDDING_ID, match.embeddingId());
+      contentObject.put(Constants.JSON_KEY_TEXT, match.embedded().text());
+      contentObject.put(Constants.JSON_KEY_SCORE, match.score());
+      JSONObject metadataObject = new JSONObject(matchMetadata.toMap());
+      contentObject.put(Constants.JSON_KEY_METADATA, metadataObject);
+      sources.put(contentObject);
+    }
+    return sources;
+  }
+
+  /**
+   * Returns the embedding IDs of the given text segments: random IDs, or IDs derived from the source key, segment
+   * index and content hash of each segment. In the latter case, the content hash and a source ID derived from the
+   * source key are set in the metadata of the segments, in place of the random source ID of the ingestion.
+   *
+   * @param textSegments        the text segments.
+   * @param position            the position of the first text segment in the input, used when a segment has no index.
+   * @param ingestionParameters the ingestion parameters.
+   * @return the embedding IDs.
+   */
+  private static List<String> getEmbeddingIds(List<TextSegment> textSegments, int position,
+                                              StoreIngestionParameters ingestionParameters) {
+
+    List<String> ids = new ArrayList<>(textSegments.size());
+    for(int i = 0; i < textSegments.size(); i++) {
+
+      if(!ingestionParameters.isDeterministicIds()) {
+
+        ids.add(dev.langchain4j.internal.Utils.randomUUID());
+        continue;
+      }
+
+      TextSegment textSegment = textSegments.get(i);
+      Metadata metadata = textSegment.metadata();
+      String sourceKey = ingestionParameters.getSourceKey() != null && !ingestionParameters.getSourceKey().isEmpty() ?
+          ingestionParameters.getSourceKey() : MetadataUtils.getSourceDisplayName(metadata);
+      if(sourceKey == null) {
+
+        throw new ModuleException(
+            String.format("Unable to derive the ID of text segment %s: no source found in its metadata. Please set a source key.",
+                          position + i),
+            MuleVectorsErrorType.INVALID_PARAMETERS_ERROR);
+      }
+      Object index = metadata.toMap().get(Constants.METADATA_KEY_INDEX);
+      String contentHash = MetadataUtils.getContentHash(textSegment.text());
+
+      metadata.put(Constants.METADATA_KEY_SOURCE_ID, MetadataUtils.getSourceId(sourceKey));
+      metadata.put(Constants.METADATA_KEY_CONTENT_HASH, contentHash);
+      ids.add(MetadataUtils.getEmbeddingId(sourceKey, index != null ? String.valueOf(index) : String.valueOf(position + i),
+                                           contentHash));
+    }
+    return ids;
+  }
+
   /**
    * Lists all sources in the specified embedding store.
    *
@@ -415,11 +850,17 @@ public class StoreOperations {
           .createStore(false)
           .build();
 
-      EmbeddingStore<TextSegment> embeddingStore = baseStore.buildEmbeddingStore();
+      EmbeddingStore<TextSegment> embeddingStore = baseStore.getEmbeddingStore();
 
       Filter filter = removeFilterParams.buildMetadataFilter();
 
-      embeddingStore.removeAll(filter);
+      try {
+
+        embeddingStore.removeAll(filter);
+      } finally {
+
+        invalidateQueryResultCache(storeConfiguration, storeName);
+      }
 
       JSONObject jsonObject = new JSONObject();
       jsonObject.put(Constants.JSON_KEY_STATUS, Constants.OPERATION_STATUS_DELETED);
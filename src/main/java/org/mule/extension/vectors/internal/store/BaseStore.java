@@ -2,6 +2,8 @@ package org.mule.extension.vectors.internal.store;
 
 import dev.langchain4j.data.embedding.Embedding;
 import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.EmbeddingSearchResult;
 import dev.langchain4j.store.embedding.EmbeddingStore;
 import org.json.JSONObject;
 import org.mule.extension.vectors.internal.config.StoreConfiguration;
@@ -29,7 +31,13 @@ import org.mule.runtime.extension.api.exception.ModuleException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The {@code VectorStore} class provides a framework for interacting with various types of vector stores,
@@ -62,6 +70,68 @@ public class BaseStore {
     throw new UnsupportedOperationException("This method should be overridden by subclasses");
   }
 
+  /**
+   * Returns the embedding store for the current store name, dimension and creation flag, reusing the handle
+   * cached on the connection when available so that store setup is not repeated on each operation.
+   *
+   * @return the embedding store.
+   */
+  public EmbeddingStore<TextSegment> getEmbeddingStore() {
+
+    return storeConnection.getEmbeddingStore(storeName, dimension, createStore, this::buildEmbeddingStore);
+  }
+
+  /**
+   * Runs a batch of search requests against the embedding store, returning one result per request, in order.
+   * <p>
+   * By default, the requests are run concurrently on the operation executor of the connection, against the cached
+   * embedding store: up to the given parallelism, workers take the next pending request until all are done, the
+   * calling thread being one of them. Stores with a native multi-search override this method.
+   * A failed request completes its result exceptionally without affecting the others.
+   *
+   * @param searchRequests the search requests.
+   * @param parallelism    the maximum number of requests run concurrently.
+   * @return the results of the requests, completed once this method returns.
+   */
+  public List<CompletableFuture<EmbeddingSearchResult<TextSegment>>> searchBatch(List<EmbeddingSearchRequest> searchRequests,
+                                                                               int parallelism) {
+
+    EmbeddingStore<TextSegment> embeddingStore = getEmbeddingStore();
+    List<CompletableFuture<EmbeddingSearchResult<TextSegment>>> results = new ArrayList<>(searchRequests.size());
+    for(int i = 0; i < searchRequests.size(); i++) results.add(new CompletableFuture<>());
+
+    AtomicInteger nextRequest = new AtomicInteger();
+    Runnable worker = () -> {
+      for(int i = nextRequest.getAndIncrement(); i < searchRequests.size(); i = nextRequest.getAndIncrement()) {
+
+        try {
+
+          results.get(i).complete(embeddingStore.search(searchRequests.get(i)));
+        } catch (Exception e) {
+
+          results.get(i).completeExceptionally(e);
+        }
+      }
+    };
+
+    List<CompletableFuture<Void>> workers = new ArrayList<>();
+    ExecutorService executor = storeConnection.getOperationExecutor();
+    for(int w = 1; w < Math.min(parallelism, searchRequests.size()); w++) {
+
+      try {
+
+        workers.add(CompletableFuture.runAsync(worker, executor));
+      } catch (RejectedExecutionException e) {
+
+        LOGGER.debug(String.format("Running the batch search on %s with %s worker(s).", storeName, w));
+        break;
+      }
+    }
+    worker.run();
+    CompletableFuture.allOf(workers.toArray(new CompletableFuture[0])).join();
+    return results;
+  }
+
   /**
    * Retrieves the embedding model used by this vector store. Initializes the model if it is not already set.
    *
@@ -0,0 +1,378 @@
+package org.mule.extension.vectors.internal.store;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+import org.mule.extension.vectors.internal.connection.model.EmbeddingRateLimiter;
+import org.mule.extension.vectors.internal.constant.Constants;
+import org.mule.extension.vectors.internal.util.MetadataUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+import static dev.langchain4j.store.embedding.filter.MetadataFilterBuilder.metadataKey;
+
+/**
+ * Upserts text segments and embeddings into a store chunk by chunk.
+ * <p>
+ * Up to the given parallelism, chunks are upserted concurrently on the operation executor of the store connection,
+ * so that large ingests use several store connections instead of one. Each chunk is retried on its own, with an
+ * exponential backoff, when it fails with a transient error such as a timeout or an overloaded store. Its outcome is
+ * recorded in a {@link ChunkStatus}: a failed chunk does not fail the others.
+ * Embedding IDs are assigned by the caller before the first attempt, so that a retry upserts the same entries.
+ * <p>
+ * When skipping unchanged segments, the store is searched, before the upsert, for the entries of the chunk holding
+ * the same content hashes: those found under the same IDs are left as they are.
+ */
+public class ChunkedIngestion {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ChunkedIngestion.class);
+
+  private static final long RETRY_BASE_DELAY_MILLIS = 500;
+  // Room for segments of the same sources repeated at other indexes, when checking for unchanged segments
+  private static final int MAX_RESULTS_PER_SEGMENT = 2;
+
+  // gRPC status exceptions, not referenced directly as only some store clients use gRPC, start with their code
+  private static final Pattern TRANSIENT_GRPC_STATUS_PATTERN =
+      Pattern.compile("^(UNAVAILABLE|DEADLINE_EXCEEDED|RESOURCE_EXHAUSTED|ABORTED)\\b");
+  // Connection, transaction rollback, insufficient resources and operator intervention classes
+  private static final Pattern TRANSIENT_SQL_STATE_PATTERN = Pattern.compile("^(08|40|53|57P)");
+
+  private final String storeName;
+  private final ExecutorService executor;
+  private final int maxRetries;
+  private final boolean skipUnchanged;
+  private final Semaphore permits;
+  private final boolean parallel;
+  private final List<ChunkStatus> statuses = new ArrayList<>();
+  private final List<Future<?>> futures = new ArrayList<>();
+
+  /**
+   * @param storeName   the name of the store, for logging.
+   * @param executor    the executor upserting the chunks when the parallelism is greater than one.
+   * @param parallelism the maximum number of chunks upserted concurrently.
+   * @param maxRetries  the number of times a chunk failing with a transient error is retried.
+   * @param skipUnchanged whether segments already stored under the same ID and content hash are skipped. Their
+   *                      {@link Constants#METADATA_KEY_CONTENT_HASH} metadata must be set.
+   */
+  public ChunkedIngestion(String storeName, ExecutorService executor, int parallelism, int maxRetries,
+                          boolean skipUnchanged) {
+
+    this.storeName = storeName;
+    this.executor = executor;
+    this.maxRetries = Math.max(0, maxRetries);
+    this.skipUnchanged = skipUnchanged;
+    this.permits = new Semaphore(Math.max(1, parallelism));
+    this.parallel = parallelism > 1;
+  }
+
+  /**
+   * Upserts a chunk, waiting for a previous chunk to complete when the parallelism is reached. With a parallelism
+   * of one, or when the executor has no thread available, the chunk is upserted on the calling thread.
+   *
+   * @param embeddingStore the store.
+   * @param ids            the embedding IDs of the text segments.
+   * @param textSegments   the text segments of the chunk.
+   * @param embeddings     the embeddings of the text segments.
+   */
+  public void submit(EmbeddingStore<TextSegment> embeddingStore, List<String> ids, List<TextSegment> textSegments,
+                     List<Embedding> embeddings) throws InterruptedException {
+
+    ChunkStatus status = new ChunkStatus(statuses.size(), ids);
+    statuses.add(status);
+    // The lists handed over may be views over buffers reused by the caller
+    List<TextSegment> chunkSegments = new ArrayList<>(textSegments);
+    List<Embedding> chunkEmbeddings = new ArrayList<>(embeddings);
+
+    if(!parallel) {
+
+      upsert(embeddingStore, status, chunkSegments, chunkEmbeddings);
+      return;
+    }
+
+    permits.acquire();
+    try {
+
+      futures.add(executor.submit(() -> {
+        try {
+
+          upsert(embeddingStore, status, chunkSegments, chunkEmbeddings);
+        } finally {
+
+          permits.release();
+        }
+      }));
+    } catch (RejectedExecutionException e) {
+
+      // All the threads of the pool are busy with other operations: upsert on the calling thread
+      permits.release();
+      upsert(embeddingStore, status, chunkSegments, chunkEmbeddings);
+    }
+  }
+
+  /**
+   * Waits for all the chunks submitted to complete.
+   *
+   * @return the status of each chunk, in order.
+   */
+  public List<ChunkStatus> complete() throws InterruptedException {
+
+    for(Future<?> future : futures) {
+
+      try {
+
+        future.get();
+      } catch (ExecutionException e) {
+
+        // Upserts record their failures, this is not expected
+        LOGGER.warn(String.format("Unexpected failure while ingesting into %s.", storeName), e.getCause());
+      }
+    }
+    futures.clear();
+    return Collections.unmodifiableList(statuses);
+  }
+
+  /**
+   * Cancels the chunks not yet completed, when the ingestion is aborted.
+   */
+  public void cancel() {
+
+    for(Future<?> future : futures) future.cancel(true);
+    futures.clear();
+  }
+
+  private void upsert(EmbeddingStore<TextSegment> embeddingStore, ChunkStatus status,
+                      List<TextSegment> textSegments, List<Embedding> embeddings) {
+
+    List<String> ids = status.getIds();
+    if(skipUnchanged) {
+
+      Set<String> storedIds = findStoredIds(embeddingStore, ids, textSegments, embeddings);
+      if(!storedIds.isEmpty()) {
+
+        List<String> changedIds = new ArrayList<>(ids.size() - storedIds.size());
+        List<TextSegment> changedSegments = new ArrayList<>(changedIds.size());
+        List<Embedding> changedEmbeddings = new ArrayList<>(changedIds.size());
+        for(int i = 0; i < ids.size(); i++) {
+
+          if(storedIds.contains(ids.get(i))) continue;
+          changedIds.add(ids.get(i));
+          changedSegments.add(textSegments.get(i));
+          changedEmbeddings.add(embeddings.get(i));
+        }
+        status.skipped(storedIds.size());
+        LOGGER.debug(String.format("Skipping %s unchanged segment(s) of chunk %s for %s.", storedIds.size(), status.getIndex(), storeName));
+        if(changedIds.isEmpty()) {
+
+          status.ingested(0);
+          return;
+        }
+        ids = changedIds;
+        textSegments = changedSegments;
+        embeddings = changedEmbeddings;
+      }
+    }
+
+    for(int attempt = 1; ; attempt++) {
+
+      try {
+
+        embeddingStore.addAll(ids, embeddings, textSegments);
+        status.ingested(attempt);
+        LOGGER.info(String.format("Ingested into %s  >> %s (chunk %s, %s segment(s))",
+                                  storeName,
+                                  MetadataUtils.getSourceDisplayName(textSegments.get(0).metadata()),
+                                  status.getIndex(), textSegments.size()));
+        return;
+
+      } catch (Exception e) {
+
+        if(attempt > maxRetries || !isTransient(e)) {
+
+          status.failed(attempt, ids, e);
+          LOGGER.warn(String.format("Chunk %s of %s segment(s) could not be ingested into %s after %s attempt(s).",
+                                    status.getIndex(), textSegments.size(), storeName, attempt), e);
+          return;
+        }
+        LOGGER.debug(String.format("Chunk %s could not be ingested into %s (attempt %s): %s. Retrying.",
+                                   status.getIndex(), storeName, attempt, e.getMessage()));
+        try {
+
+          Thread.sleep(RETRY_BASE_DELAY_MILLIS << Math.min(attempt - 1, 6));
+        } catch (InterruptedException ie) {
+
+          Thread.currentThread().interrupt();
+          status.failed(attempt, ids, e);
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns whether an upsert failure is transient, so that the upsert may succeed when retried: I/O errors and
+   * timeouts, 429 and 5xx HTTP statuses, gRPC unavailability and SQL connection or resource errors. Other failures,
+   * such as invalid data, responses which cannot be parsed or rejected credentials, would fail again.
+   *
+   * @param throwable the failure.
+   * @return {@code true} if the upsert is worth retrying.
+   */
+  static boolean isTransient(Throwable throwable) {
+
+    for(Throwable cause = throwable; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+
+      // Parse errors are I/O exceptions too, but the same response would fail to parse again
+      if((cause instanceof IOException && !(cause instanceof JsonProcessingException)) ||
+          cause instanceof TimeoutException || cause instanceof SQLTransientException ||
+          cause instanceof SQLRecoverableException) return true;
+
+      if(cause instanceof SQLException) {
+
+        String sqlState = ((SQLException) cause).getSQLState();
+        if(sqlState != null && TRANSIENT_SQL_STATE_PATTERN.matcher(sqlState).find()) return true;
+      }
+      String message = cause.getMessage();
+      if(message != null && TRANSIENT_GRPC_STATUS_PATTERN.matcher(message).find()) return true;
+    }
+    int statusCode = EmbeddingRateLimiter.resolveStatusCode(throwable);
+    return statusCode == 429 || statusCode >= 500;
+  }
+
+  /**
+   * Returns the IDs of the chunk already stored with the same content hash. The search is filtered on the sources
+   * and content hashes of the chunk and only matches with an ID of the chunk are kept: as IDs are derived from the
+   * content hash, those entries are unchanged. Filtering on the sources keeps identical segments of other sources from
+   * filling the results. Segments of the same sources repeated at other indexes may still do so: the segments not
+   * found are then upserted again, as when the check fails, which is harmless, the upsert being idempotent.
+   */
+  private Set<String> findStoredIds(EmbeddingStore<TextSegment> embeddingStore, List<String> ids,
+                                    List<TextSegment> textSegments, List<Embedding> embeddings) {
+
+    try {
+
+      Set<String> sourceIds = new LinkedHashSet<>();
+      Set<String> contentHashes = new LinkedHashSet<>();
+      for(TextSegment textSegment : textSegments) {
+
+        String sourceId = textSegment.metadata().getString(Constants.METADATA_KEY_SOURCE_ID);
+        String contentHash = textSegment.metadata().getString(Constants.METADATA_KEY_CONTENT_HASH);
+        if(sourceId == null || contentHash == null) return Collections.emptySet();
+        sourceIds.add(sourceId);
+        contentHashes.add(contentHash);
+      }
+
+      EmbeddingSearchRequest searchRequest = EmbeddingSearchRequest.builder()
+          .queryEmbedding(embeddings.get(0))
+          .maxResults(ids.size() * MAX_RESULTS_PER_SEGMENT)
+          .minScore(0.0)
+          .filter(metadataKey(Constants.METADATA_KEY_SOURCE_ID).isIn(sourceIds)
+                      .and(metadataKey(Constants.METADATA_KEY_CONTENT_HASH).isIn(contentHashes)))
+          .build();
+
+      Set<String> chunkIds = new HashSet<>(ids);
+      Set<String> storedIds = new HashSet<>();
+      for(EmbeddingMatch<TextSegment> match : embeddingStore.search(searchRequest).matches()) {
+
+        if(chunkIds.contains(match.embeddingId())) storedIds.add(match.embeddingId());
+      }
+      return storedIds;
+
+    } catch (Exception e) {
+
+      LOGGER.warn(String.format("Unable to check for unchanged segments in %s, upserting all of them: %s", storeName, e.getMessage()));
+      return Collections.emptySet();
+    }
+  }
+
+  /**
+   * Outcome of the upsert of a chunk.
+   */
+  public static class ChunkStatus {
+
+    private final int index;
+    private final List<String> ids;
+    private volatile boolean ingested;
+    private volatile int attempts;
+    private volatile int skippedCount;
+    private volatile List<String> failedIds = Collections.emptyList();
+    private volatile Exception error;
+
+    ChunkStatus(int index, List<String> ids) {
+
+      this.index = index;
+      this.ids = ids;
+    }
+
+    private void ingested(int attempts) {
+
+      this.attempts = attempts;
+      this.ingested = true;
+    }
+
+    private void skipped(int skippedCount) {
+
+      this.skippedCount = skippedCount;
+    }
+
+    private void failed(int attempts, List<String> failedIds, Exception error) {
+
+      this.attempts = attempts;
+      this.failedIds = failedIds;
+      this.error = error;
+    }
+
+    public int getIndex() {
+      return index;
+    }
+
+    public List<String> getIds() {
+      return ids;
+    }
+
+    public boolean isIngested() {
+      return ingested;
+    }
+
+    /**
+     * @return the number of segments skipped as unchanged.
+     */
+    public int getSkippedCount() {
+      return skippedCount;
+    }
+
+    /**
+     * @return the IDs of the segments not ingested, if the chunk failed.
+     */
+    public List<String> getFailedIds() {
+      return failedIds;
+    }
+
+    public int getAttempts() {
+      return attempts;
+    }
+
+    public Exception getError() {
+      return error;
+    }
+  }
+}
@@ -4,8 +4,13 @@ import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.Struct;
 import com.google.protobuf.Value;
 import com.google.protobuf.util.JsonFormat;
+import dev.langchain4j.data.document.Metadata;
 import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.EmbeddingSearchResult;
 import dev.langchain4j.store.embedding.EmbeddingStore;
+import dev.langchain4j.store.embedding.RelevanceScore;
 import dev.langchain4j.store.embedding.qdrant.QdrantEmbeddingStore;
 import io.qdrant.client.QdrantClient;
 import io.qdrant.client.QdrantGrpcClient;
@@ -23,10 +28,15 @@ import org.mule.extension.vectors.internal.util.JsonUtils;
 import org.mule.runtime.extension.api.exception.ModuleException;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 public class QdrantStore extends BaseStore {
 
+    // Maximum number of searches sent in one batch request
+    private static final int MAX_SEARCHES_PER_BATCH = 100;
+
     private final String payloadTextKey;
     private QdrantClient client;
 
@@ -47,6 +57,19 @@ public class QdrantStore extends BaseStore {
             }
             this.payloadTextKey = qdrantStoreConnection.getTextSegmentKey();
 
+        } catch (Exception e) {
+
+            throw new ModuleException(
+                String.format("Error while initializing embedding store \"%s\".", qdrantStoreConnection.getVectorStore()),
+                MuleVectorsErrorType.STORE_SERVICES_FAILURE);
+        }
+    }
+
+    public EmbeddingStore<TextSegment> buildEmbeddingStore() {
+
+        // Collection setup runs here so that it happens once per cached store handle, not on every operation
+        try {
+
             if (createStore && !this.client.collectionExistsAsync(this.storeName).get() && dimension > 0) {
                 this.client.createCollectionAsync(storeName,
                         Collections.VectorParams.newBuilder().setDistance(Collections.Distance.Cosine)
@@ -56,12 +79,10 @@ public class QdrantStore extends BaseStore {
         } catch (Exception e) {
 
             throw new ModuleException(
-                String.format("Error while initializing embedding store \"%s\".", qdrantStoreConnection.getVectorStore()),
-                MuleVectorsErrorType.STORE_SERVICES_FAILURE);
+                String.format("Error while initializing embedding store \"%s\".", storeName),
+                MuleVectorsErrorType.STORE_SERVICES_FAILURE,
+                e);
         }
-    }
-
-    public EmbeddingStore<TextSegment> buildEmbeddingStore() {
 
         return QdrantEmbeddingStore.builder()
                 .client(client)
@@ -70,6 +91,143 @@ public class QdrantStore extends BaseStore {
                 .build();
     }
 
+    /**
+     * Runs the search requests without filter with the Qdrant batch search, up to {@code MAX_SEARCHES_PER_BATCH}
+     * searches per request and up to the given parallelism of requests in flight. Requests with a filter go through
+     * the embedding store, which translates the filter.
+     */
+    @Override
+    public List<CompletableFuture<EmbeddingSearchResult<TextSegment>>> searchBatch(List<EmbeddingSearchRequest> searchRequests,
+                                                                                 int parallelism) {
+
+        List<CompletableFuture<EmbeddingSearchResult<TextSegment>>> results = new ArrayList<>(searchRequests.size());
+        List<EmbeddingSearchRequest> filteredRequests = new ArrayList<>();
+        List<Integer> filteredIndexes = new ArrayList<>();
+        List<Integer> nativeIndexes = new ArrayList<>();
+        for (int i = 0; i < searchRequests.size(); i++) {
+
+            results.add(new CompletableFuture<>());
+            if (searchRequests.get(i).filter() != null) {
+
+                filteredRequests.add(searchRequests.get(i));
+                filteredIndexes.add(i);
+            } else {
+
+                nativeIndexes.add(i);
+            }
+        }
+
+        Deque<Map.Entry<List<Integer>, Future<List<Points.BatchResult>>>> inFlight = new ArrayDeque<>();
+        for (int start = 0; start < nativeIndexes.size(); start += MAX_SEARCHES_PER_BATCH) {
+
+            List<Integer> batchIndexes = nativeIndexes.subList(start, Math.min(nativeIndexes.size(), start + MAX_SEARCHES_PER_BATCH));
+            List<Points.SearchPoints> searches = new ArrayList<>(batchIndexes.size());
+            for (int index : batchIndexes) {
+
+                EmbeddingSearchRequest searchRequest = searchRequests.get(index);
+                searches.add(Points.SearchPoints.newBuilder()
+                                     .setCollectionName(storeName)
+                                     .addAllVector(searchRequest.queryEmbedding().vectorAsList())
+                                     .setLimit(searchRequest.maxResults())
+                                     .setWithPayload(Points.WithPayloadSelector.newBuilder().setEnable(true).build())
+                                     .build());
+            }
+            if (inFlight.size() >= Math.max(1, parallelism)) {
+
+                completeBatch(inFlight.poll(), searchRequests, results);
+            }
+            inFlight.add(new AbstractMap.SimpleEntry<>(batchIndexes, client.searchBatchAsync(storeName, searches, null)));
+        }
+
+        if (!filteredRequests.isEmpty()) {
+
+            List<CompletableFuture<EmbeddingSearchResult<TextSegment>>> filteredResults = super.searchBatch(filteredRequests, parallelism);
+            for (int i = 0; i < filteredIndexes.size(); i++) {
+
+                int index = filteredIndexes.get(i);
+                filteredResults.get(i).whenComplete((result, error) -> {
+                    if (error != null) results.get(index).completeExceptionally(error);
+                    else results.get(index).complete(result);
+                });
+            }
+        }
+
+        while (!inFlight.isEmpty()) {
+
+            completeBatch(inFlight.poll(), searchRequests, results);
+        }
+        return results;
+    }
+
+    private void completeBatch(Map.Entry<List<Integer>, Future<List<Points.BatchResult>>> batch,
+                               List<EmbeddingSearchRequest> searchRequests,
+                               List<CompletableFuture<EmbeddingSearchResult<TextSegment>>> results) {
+
+        List<Integer> batchIndexes = batch.getKey();
+        try {
+
+            List<Points.BatchResult> batchResults = batch.getValue().get();
+            for (int i = 0; i < batchIndexes.size(); i++) {
+
+                int index = batchIndexes.get(i);
+                double minScore = searchRequests.get(index).minScore();
+                List<EmbeddingMatch<TextSegment>> matches = new ArrayList<>();
+                for (Points.ScoredPoint point : batchResults.get(i).getResultList()) {
+
+                    // Same relevance score as the embedding store
+                    double score = RelevanceScore.fromCosineSimilarity(point.getScore());
+                    if (score < minScore) continue;
+                    String id = point.getId().hasUuid() ? point.getId().getUuid() : String.valueOf(point.getId().getNum());
+                    matches.add(new EmbeddingMatch<>(score, id, null, toTextSegment(point.getPayloadMap())));
+                }
+                results.get(index).complete(new EmbeddingSearchResult<>(matches));
+            }
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+            for (int index : batchIndexes) results.get(index).completeExceptionally(e);
+        } catch (Exception e) {
+
+            for (int index : batchIndexes) results.get(index).completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Builds the text segment of a point found by a batched search from its payload, as {@link QdrantEmbeddingStore}
+     * does for single searches: no segment for a point without text, and the other payload fields as metadata.
+     * Booleans, lists and structs, which metadata cannot hold, are kept as JSON strings.
+     */
+    private TextSegment toTextSegment(Map<String, JsonWithInt.Value> payload) throws InvalidProtocolBufferException {
+
+        JsonWithInt.Value text = payload.get(payloadTextKey);
+        if (text == null) return null;
+
+        Map<String, Object> metadata = new HashMap<>();
+        for (Map.Entry<String, JsonWithInt.Value> entry : payload.entrySet()) {
+
+            if (entry.getKey().equals(payloadTextKey)) continue;
+            JsonWithInt.Value value = entry.getValue();
+            switch (value.getKindCase()) {
+                case STRING_VALUE:
+                    metadata.put(entry.getKey(), value.getStringValue());
+                    break;
+                case INTEGER_VALUE:
+                    metadata.put(entry.getKey(), value.getIntegerValue());
+                    break;
+                case DOUBLE_VALUE:
+                    metadata.put(entry.getKey(), value.getDoubleValue());
+                    break;
+                case NULL_VALUE:
+                case KIND_NOT_SET:
+                    // No value to keep
+                    break;
+                default:
+                    metadata.put(entry.getKey(), JsonFactory.toJson(value));
+            }
+        }
+        return TextSegment.from(text.getStringValue(), Metadata.from(metadata));
+    }
+
     @Override
     public JSONObject listSources() {
         try {
@@ -123,6 +281,11 @@ final class JsonFactory {
         return JsonFormat.printer().print(structBuilder.build());
     }
 
+    public static String toJson(JsonWithInt.Value value) throws InvalidProtocolBufferException {
+
+        return JsonFormat.printer().omittingInsignificantWhitespace().print(toProtobufValue(value));
+    }
+
     private static Value toProtobufValue(io.qdrant.client.grpc.JsonWithInt.Value value) {
         switch (value.getKindCase()) {
             case NULL_VALUE:
@@ -0,0 +1,72 @@
+package org.mule.extension.vectors.internal.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Utility class for building the thread pools held by the connections.
+ * <p>
+ * All the pools are bounded, both in threads and in queued tasks, so that a burst of operations cannot exhaust the
+ * memory or the threads of the Mule runtime. Their threads are daemon threads, released when idle.
+ */
+public class ExecutorUtils {
+
+  private static final long KEEP_ALIVE_SECONDS = 60;
+
+  /**
+   * Builds a thread pool rejecting the tasks submitted while all its threads are busy and its queue is full, with a
+   * {@link RejectedExecutionException}.
+   *
+   * @param threadNamePrefix the prefix of the names of the threads.
+   * @param maxThreads       the maximum number of threads.
+   * @param queueCapacity    the maximum number of tasks waiting for a thread, {@code 0} for none.
+   * @return the thread pool.
+   */
+  public static ThreadPoolExecutor newBoundedThreadPool(String threadNamePrefix, int maxThreads, int queueCapacity) {
+
+    return newThreadPool(threadNamePrefix, maxThreads, queueCapacity, new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  /**
+   * Builds a thread pool running the tasks submitted while all its threads are busy and its queue is full on the
+   * submitting thread, which slows the submitter down instead of failing. For tasks whose submitter waits for them.
+   * Once the pool is shut down, tasks are rejected with a {@link RejectedExecutionException}.
+   *
+   * @param threadNamePrefix the prefix of the names of the threads.
+   * @param maxThreads       the maximum number of threads.
+   * @param queueCapacity    the maximum number of tasks waiting for a thread, {@code 0} for none.
+   * @return the thread pool.
+   */
+  public static ThreadPoolExecutor newCallerRunsThreadPool(String threadNamePrefix, int maxThreads, int queueCapacity) {
+
+    return newThreadPool(threadNamePrefix, maxThreads, queueCapacity, (runnable, executor) -> {
+
+      // Unlike ThreadPoolExecutor.CallerRunsPolicy, which silently discards the task once shut down
+      if(executor.isShutdown()) throw new RejectedExecutionException(String.format("%s pool is shut down.", threadNamePrefix));
+      runnable.run();
+    });
+  }
+
+  private static ThreadPoolExecutor newThreadPool(String threadNamePrefix, int maxThreads, int queueCapacity,
+                                                  RejectedExecutionHandler rejectedExecutionHandler) {
+
+    int threads = Math.max(1, maxThreads);
+    BlockingQueue<Runnable> queue = queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>();
+    AtomicInteger threadNumber = new AtomicInteger();
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(
+        // Without a queue, threads are created on demand up to the maximum. With one, they only would once it is full.
+        queueCapacity > 0 ? threads : 0, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, queue, runnable -> {
+      Thread thread = new Thread(runnable, threadNamePrefix + "-" + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }, rejectedExecutionHandler);
+    executor.allowCoreThreadTimeOut(queueCapacity > 0);
+    return executor;
+  }
+}
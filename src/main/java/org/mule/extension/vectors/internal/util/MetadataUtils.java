@@ -8,9 +8,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Utility class for handling metadata-related operations.
@@ -34,6 +38,67 @@ public class MetadataUtils {
     return ingestionMetadata;
   }
 
+  /**
+   * Computes the content hash of a text segment, as stored in its {@link Constants#METADATA_KEY_CONTENT_HASH} metadata.
+   *
+   * @param text the text of the segment.
+   * @return the hex encoded SHA-256 hash of the text.
+   */
+  public static String getContentHash(String text) {
+
+    return sha256Hex(text.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Computes the SHA-256 hash of the given bytes.
+   *
+   * @param bytes the bytes to hash.
+   * @return the hex encoded SHA-256 hash, 64 characters long.
+   */
+  public static String sha256Hex(byte[] bytes) {
+
+    try {
+
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+      StringBuilder hash = new StringBuilder(64);
+      for (byte b : digest) {
+        hash.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+      }
+      return hash.toString();
+    } catch (NoSuchAlgorithmException e) {
+
+      throw new IllegalStateException("SHA-256 is not available.", e);
+    }
+  }
+
+
+  /**
+   * Derives a source ID from a source key, so that re-ingesting the same source keeps its source ID.
+   *
+   * @param sourceKey the key identifying the source, such as its path or URL.
+   * @return a name-based UUID.
+   */
+  public static String getSourceId(String sourceKey) {
+
+    return UUID.nameUUIDFromBytes(("source:" + sourceKey).getBytes(StandardCharsets.UTF_8)).toString();
+  }
+
+  /**
+   * Derives an embedding ID from the source of a text segment, its index in the source and its content hash.
+   * Re-ingesting an unchanged segment gives the same ID, so it is upserted instead of duplicated. IDs are UUIDs,
+   * the format accepted by all the stores.
+   *
+   * @param sourceKey   the key identifying the source, such as its path or URL.
+   * @param index       the index of the segment in the source.
+   * @param contentHash the content hash of the segment.
+   * @return a name-based UUID.
+   */
+  public static String getEmbeddingId(String sourceKey, String index, String contentHash) {
+
+    String name = "segment:" + sourceKey + "\0" + index + "\0" + contentHash;
+    return UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8)).toString();
+  }
+
   /**
    * Retrieves a display name for the document source based on its metadata.
    *
@@ -0,0 +1,266 @@
+package org.mule.extension.vectors.internal.util;
+
+import org.mule.extension.vectors.internal.constant.Constants;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Base64;
+
+/**
+ * Utility class for the encodings of embedding vectors in JSON documents.
+ * <p>
+ * Vectors are written either as arrays of numbers or as base64 strings holding their values as little-endian
+ * float32 or float16 (IEEE 754 half precision), as in the base64 output of most embedding services. They can also
+ * be quantized to int8 or binary vectors, for stores indexing quantized vectors.
+ */
+public final class VectorUtils {
+
+  private VectorUtils() {}
+
+  /**
+   * Checks whether the given encoding writes vectors as base64 strings.
+   *
+   * @param encoding the embedding encoding.
+   * @return {@code true} for the base64 encodings.
+   */
+  public static boolean isBase64Encoding(String encoding) {
+
+    return Constants.EMBEDDING_ENCODING_BASE64_FLOAT32.equals(encoding) ||
+        Constants.EMBEDDING_ENCODING_BASE64_FLOAT16.equals(encoding);
+  }
+
+  /**
+   * Encodes a vector as a base64 string.
+   *
+   * @param vector   the vector.
+   * @param encoding {@link Constants#EMBEDDING_ENCODING_BASE64_FLOAT32} or {@link Constants#EMBEDDING_ENCODING_BASE64_FLOAT16}.
+   * @return the base64 string.
+   */
+  public static String encodeBase64(float[] vector, String encoding) {
+
+    ByteBuffer buffer;
+    if(Constants.EMBEDDING_ENCODING_BASE64_FLOAT16.equals(encoding)) {
+
+      buffer = ByteBuffer.allocate(vector.length * 2).order(ByteOrder.LITTLE_ENDIAN);
+      for(float value : vector) buffer.putShort(floatToHalf(value));
+    } else if(Constants.EMBEDDING_ENCODING_BASE64_FLOAT32.equals(encoding)) {
+
+      buffer = ByteBuffer.allocate(vector.length * 4).order(ByteOrder.LITTLE_ENDIAN);
+      for(float value : vector) buffer.putFloat(value);
+    } else {
+
+      throw new IllegalArgumentException(String.format("Unsupported embedding encoding \"%s\".", encoding));
+    }
+    return Base64.getEncoder().encodeToString(buffer.array());
+  }
+
+  /**
+   * Decodes a vector encoded as a base64 string.
+   *
+   * @param value    the base64 string.
+   * @param encoding the encoding, {@code null} for float32.
+   * @return the vector.
+   */
+  public static float[] decodeBase64(String value, String encoding) {
+
+    ByteBuffer buffer = ByteBuffer.wrap(Base64.getDecoder().decode(value)).order(ByteOrder.LITTLE_ENDIAN);
+    if(Constants.EMBEDDING_ENCODING_BASE64_FLOAT16.equals(encoding)) {
+
+      if(buffer.remaining() % 2 != 0) {
+        throw new IllegalArgumentException("Invalid base64 float16 embedding: odd number of bytes.");
+      }
+      float[] vector = new float[buffer.remaining() / 2];
+      for(int i = 0; i < vector.length; i++) vector[i] = halfToFloat(buffer.getShort());
+      return vector;
+    }
+    if(encoding != null && !Constants.EMBEDDING_ENCODING_BASE64_FLOAT32.equals(encoding) &&
+        !Constants.EMBEDDING_ENCODING_FLOAT_ARRAY.equals(encoding)) {
+
+      throw new IllegalArgumentException(String.format("Unsupported embedding encoding \"%s\".", encoding));
+    }
+    if(buffer.remaining() % 4 != 0) {
+      throw new IllegalArgumentException("Invalid base64 float32 embedding: number of bytes is not a multiple of 4.");
+    }
+    float[] vector = new float[buffer.remaining() / 4];
+    buffer.asFloatBuffer().get(vector);
+    return vector;
+  }
+
+  /**
+   * Quantizes a vector.
+   * <p>
+   * With {@link Constants#EMBEDDING_QUANTIZATION_INT8}, each value is mapped linearly from the range of the vector
+   * onto a signed byte: {@code value = (q + 128) * scale + offset}, with {@code offset} the minimum value of the vector.
+   * With {@link Constants#EMBEDDING_QUANTIZATION_BINARY}, each value becomes one bit, set for positive values and packed
+   * most significant bit first, and {@code value = (bit ? scale : -scale) + offset}, with {@code scale} the mean
+   * absolute value of the vector and {@code offset} zero.
+   *
+   * @param vector       the vector.
+   * @param quantization the quantization.
+   * @return the quantized vector.
+   */
+  public static QuantizedVector quantize(float[] vector, String quantization) {
+
+    if(Constants.EMBEDDING_QUANTIZATION_INT8.equals(quantization)) {
+
+      float min = Float.POSITIVE_INFINITY;
+      float max = Float.NEGATIVE_INFINITY;
+      for(float value : vector) {
+
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+      }
+      if(vector.length == 0) min = max = 0;
+      float scale = (max - min) / 255f;
+      byte[] data = new byte[vector.length];
+      for(int i = 0; i < vector.length; i++) {
+
+        int level = scale == 0 ? 0 : Math.round((vector[i] - min) / scale);
+        data[i] = (byte) (Math.max(0, Math.min(255, level)) - 128);
+      }
+      return new QuantizedVector(data, scale, min);
+    }
+    if(Constants.EMBEDDING_QUANTIZATION_BINARY.equals(quantization)) {
+
+      byte[] data = new byte[(vector.length + 7) / 8];
+      double sum = 0;
+      for(int i = 0; i < vector.length; i++) {
+
+        if(vector[i] > 0) data[i / 8] |= (byte) (0x80 >>> (i % 8));
+        sum += Math.abs(vector[i]);
+      }
+      return new QuantizedVector(data, vector.length == 0 ? 0 : (float) (sum / vector.length), 0);
+    }
+    throw new IllegalArgumentException(String.format("Unsupported embedding quantization \"%s\".", quantization));
+  }
+
+  /**
+   * Restores an approximation of a quantized vector.
+   *
+   * @param quantized    the quantized vector.
+   * @param quantization the quantization.
+   * @param dimension    the dimension of the vector, needed for binary vectors whose last byte is padded.
+   * @return the vector.
+   */
+  public static float[] dequantize(QuantizedVector quantized, String quantization, int dimension) {
+
+    byte[] data = quantized.getData();
+    if(Constants.EMBEDDING_QUANTIZATION_INT8.equals(quantization)) {
+
+      float[] vector = new float[data.length];
+      for(int i = 0; i < data.length; i++) vector[i] = (data[i] + 128) * quantized.getScale() + quantized.getOffset();
+      return vector;
+    }
+    if(Constants.EMBEDDING_QUANTIZATION_BINARY.equals(quantization)) {
+
+      if(dimension > data.length * 8) {
+        throw new IllegalArgumentException(String.format("Binary embedding of %s bytes is too short for dimension %s.",
+                                                         data.length, dimension));
+      }
+      float[] vector = new float[dimension];
+      for(int i = 0; i < dimension; i++) {
+
+        boolean bit = (data[i / 8] & (0x80 >>> (i % 8))) != 0;
+        vector[i] = (bit ? quantized.getScale() : -quantized.getScale()) + quantized.getOffset();
+      }
+      return vector;
+    }
+    throw new IllegalArgumentException(String.format("Unsupported embedding quantization \"%s\".", quantization));
+  }
+
+  /**
+   * Quantized vector, with the scale and offset needed to dequantize it.
+   */
+  public static class QuantizedVector {
+
+    private final byte[] data;
+    private final float scale;
+    private final float offset;
+
+    public QuantizedVector(byte[] data, float scale, float offset) {
+
+      this.data = data;
+      this.scale = scale;
+      this.offset = offset;
+    }
+
+    public byte[] getData() {
+      return data;
+    }
+
+    public float getScale() {
+      return scale;
+    }
+
+    public float getOffset() {
+      return offset;
+    }
+  }
+
+  /**
+   * Converts a float to IEEE 754 half precision, rounding to nearest. Finite values beyond the half range saturate to
+   * the largest finite half, of the same sign, so that a finite vector stays finite. Infinities and NaN are kept.
+   */
+  static short floatToHalf(float value) {
+
+    int bits = Float.floatToIntBits(value);
+    int sign = (bits >>> 16) & 0x8000;
+    int rounded = (bits & 0x7fffffff) + 0x1000;
+
+    if(rounded >= 0x47800000) {
+
+      // Out of the half range: NaN, infinity or overflow
+      if((bits & 0x7fffffff) >= 0x7f800000) {
+
+        // Keeps a NaN whose payload lies in the dropped low bits a NaN
+        int mantissa = (bits & 0x007fffff) >>> 13 | ((bits & 0x007fffff) != 0 ? 0x0200 : 0);
+        return (short) (sign | 0x7c00 | mantissa);
+      }
+      return (short) (sign | 0x7bff);
+    }
+    if(rounded >= 0x38800000) {
+
+      // Normal half
+      return (short) (sign | (rounded - 0x38000000) >>> 13);
+    }
+    if(rounded < 0x33000000) {
+
+      // Too small even for a subnormal half
+      return (short) sign;
+    }
+    // Subnormal half
+    int exponent = (bits & 0x7fffffff) >>> 23;
+    return (short) (sign | ((bits & 0x7fffff | 0x800000) + (0x800000 >>> exponent - 102)) >>> 126 - exponent);
+  }
+
+  /**
+   * Converts an IEEE 754 half precision value to a float.
+   */
+  static float halfToFloat(short half) {
+
+    int bits = half & 0xffff;
+    int sign = (bits & 0x8000) << 16;
+    int mantissa = bits & 0x03ff;
+    int exponent = bits & 0x7c00;
+
+    if(exponent == 0x7c00) {
+
+      // NaN or infinity
+      exponent = 0x3fc00;
+    } else if(exponent != 0) {
+
+      // Normal value
+      exponent += 0x1c000;
+    } else if(mantissa != 0) {
+
+      // Subnormal value, normalized
+      exponent = 0x1c400;
+      do {
+        mantissa <<= 1;
+        exponent -= 0x400;
+      } while((mantissa & 0x400) == 0);
+      mantissa &= 0x3ff;
+    }
+    return Float.intBitsToFloat(sign | (exponent | mantissa) << 13);
+  }
+}
@@ -0,0 +1,180 @@
+package org.mule.extension.vectors.internal.cache;
+
+import dev.langchain4j.data.embedding.Embedding;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class EmbeddingDiskStoreTest {
+
+  private static final long MAX_SIZE = 1024 * 1024;
+
+  private Path directory;
+
+  @Before
+  public void createDirectory() throws IOException {
+
+    directory = Files.createTempDirectory("embedding-disk-store");
+  }
+
+  @After
+  public void deleteDirectory() throws IOException {
+
+    try (Stream<Path> paths = Files.walk(directory)) {
+      paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+
+  @Test
+  public void embeddingsSurviveReopening() throws IOException {
+
+    try (EmbeddingDiskStore store = new EmbeddingDiskStore(directory, MAX_SIZE, 50)) {
+      store.putAll(embeddings("a", "b", "c"));
+    }
+
+    try (EmbeddingDiskStore store = new EmbeddingDiskStore(directory, MAX_SIZE, 50)) {
+
+      assertThat(store.size(), is(3));
+      assertArrayEquals(vector("b"), store.get("b").vector(), 0f);
+      assertNull(store.get("d"));
+    }
+  }
+
+  @Test
+  public void incompleteRecordIsTruncated() throws IOException {
+
+    long completeSize;
+    try (EmbeddingDiskStore store = new EmbeddingDiskStore(directory, MAX_SIZE, 50)) {
+
+      store.putAll(embeddings("a", "b"));
+      completeSize = store.getSizeInBytes();
+    }
+    // A crash in the middle of an append leaves a partial record at the end of the file
+    try (RandomAccessFile file = new RandomAccessFile(dataFile().toFile(), "rw")) {
+      file.setLength(completeSize + 10);
+    }
+
+    try (EmbeddingDiskStore store = new EmbeddingDiskStore(directory, MAX_SIZE, 50)) {
+
+      assertThat(store.size(), is(2));
+      assertThat(store.getSizeInBytes(), is(completeSize));
+      assertThat(Files.size(dataFile()), is(completeSize));
+
+      store.putAll(embeddings("c"));
+      assertNotNull(store.get("c"));
+    }
+  }
+
+  @Test
+  public void corruptedRecordIsSkipped() throws IOException {
+
+    try (EmbeddingDiskStore store = new EmbeddingDiskStore(directory, MAX_SIZE, 50)) {
+      store.putAll(embeddings("a", "b", "c"));
+    }
+    // Records have the same length: flip a byte in the vector of the second one
+    long recordLength = Files.size(dataFile()) / 3;
+    try (RandomAccessFile file = new RandomAccessFile(dataFile().toFile(), "rw")) {
+
+      file.seek(recordLength + recordLength - 8);
+      int value = file.read();
+      file.seek(recordLength + recordLength - 8);
+      file.write(value ^ 0xFF);
+    }
+
+    try (EmbeddingDiskStore store = new EmbeddingDiskStore(directory, MAX_SIZE, 50)) {
+
+      assertThat(store.size(), is(2));
+      assertNotNull(store.get("a"));
+      assertNull(store.get("b"));
+      assertArrayEquals(vector("c"), store.get("c").vector(), 0f);
+    }
+  }
+
+  @Test
+  public void compactionRetainsMostRecentlyUsed() throws IOException {
+
+    long recordLength;
+    try (EmbeddingDiskStore store = new EmbeddingDiskStore(directory, MAX_SIZE, 50)) {
+
+      store.putAll(embeddings("a"));
+      recordLength = store.getSizeInBytes();
+    }
+    deleteDirectory();
+    directory = Files.createTempDirectory("embedding-disk-store");
+
+    // Compacts beyond 4 records, down to 2
+    try (EmbeddingDiskStore store = new EmbeddingDiskStore(directory, 4 * recordLength, 50)) {
+
+      store.putAll(embeddings("a", "b", "c", "d"));
+      store.get("c");
+      store.putAll(embeddings("e"));
+
+      assertThat(store.size(), is(2));
+      assertThat(store.getSizeInBytes(), is(2 * recordLength));
+      assertNotNull(store.get("c"));
+      assertNotNull(store.get("e"));
+      assertNull(store.get("a"));
+      assertNull(store.get("d"));
+    }
+
+    try (EmbeddingDiskStore store = new EmbeddingDiskStore(directory, 4 * recordLength, 50)) {
+
+      assertThat(store.size(), is(2));
+      assertArrayEquals(vector("c"), store.get("c").vector(), 0f);
+    }
+  }
+
+  @Test
+  public void storeIsLockedWhileOpen() throws IOException {
+
+    try (EmbeddingDiskStore store = new EmbeddingDiskStore(directory, 256, 50)) {
+
+      // Compaction replaces the data file without releasing the lock
+      for(int i = 0; i < 20; i++) store.putAll(embeddings("key-" + i));
+      try (EmbeddingDiskStore other = new EmbeddingDiskStore(directory, 256, 50)) {
+        fail("The store should be locked.");
+      } catch (IOException expected) {
+        // Locked by the first store
+      }
+    }
+
+    try (EmbeddingDiskStore store = new EmbeddingDiskStore(directory, 256, 50)) {
+      assertNotNull(store);
+    }
+  }
+
+  private Path dataFile() {
+
+    return directory.resolve(EmbeddingDiskStore.DATA_FILE_NAME);
+  }
+
+  private static Map<String, Embedding> embeddings(String... keys) {
+
+    Map<String, Embedding> embeddings = new LinkedHashMap<>();
+    for(String key : keys) embeddings.put(key, Embedding.from(vector(key)));
+    return embeddings;
+  }
+
+  private static float[] vector(String key) {
+
+    float[] vector = new float[8];
+    for(int i = 0; i < vector.length; i++) vector[i] = key.hashCode() * 0.001f + i;
+    return vector;
+  }
+}
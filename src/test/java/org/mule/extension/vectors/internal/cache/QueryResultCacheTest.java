@@ -0,0 +1,161 @@
+package org.mule.extension.vectors.internal.cache;
+
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertNull;
+
+public class QueryResultCacheTest {
+
+  private static final long TTL_MILLIS = 60000;
+  private static final String STORE = "store";
+  private static final String QUERY_KEY = QueryResultCache.queryKey(STORE, null, 5, 0.7);
+
+  @Test
+  public void returnsResultsOfIdenticalQuery() {
+
+    QueryResultCache cache = new QueryResultCache(10, TTL_MILLIS, null);
+    float[] vector = {0.1f, 0.5f, 0.9f};
+    List<EmbeddingMatch<TextSegment>> matches = matches("a");
+    cache.put(STORE, QUERY_KEY, vector, matches, cache.getGeneration(STORE));
+
+    assertThat(cache.get(QUERY_KEY, vector), is(matches));
+    assertThat(cache.getHits(), is(1L));
+  }
+
+  @Test
+  public void separatesQueriesWithOtherParameters() {
+
+    QueryResultCache cache = new QueryResultCache(10, TTL_MILLIS, null);
+    float[] vector = {0.1f, 0.5f, 0.9f};
+    cache.put(STORE, QUERY_KEY, vector, matches("a"), cache.getGeneration(STORE));
+
+    assertNull(cache.get(QueryResultCache.queryKey(STORE, null, 10, 0.7), vector));
+    assertNull(cache.get(QueryResultCache.queryKey(STORE, "source_id == 1", 5, 0.7), vector));
+    assertNull(cache.get(QueryResultCache.queryKey("other", null, 5, 0.7), vector));
+    assertThat(cache.getMisses(), is(3L));
+  }
+
+  @Test
+  public void sharesEntryBetweenVectorsDifferingByNoise() {
+
+    QueryResultCache cache = new QueryResultCache(10, TTL_MILLIS, null);
+    List<EmbeddingMatch<TextSegment>> matches = matches("a");
+    cache.put(STORE, QUERY_KEY, new float[] {0f, 0.25f, 1f}, matches, cache.getGeneration(STORE));
+
+    assertThat(cache.get(QUERY_KEY, new float[] {0f, 0.2500001f, 1f}), is(matches));
+  }
+
+  @Test
+  public void doesNotCacheResultsOfQueryStartedBeforeInvalidation() {
+
+    QueryResultCache cache = new QueryResultCache(10, TTL_MILLIS, null);
+    float[] vector = {0.1f, 0.5f, 0.9f};
+    long generation = cache.getGeneration(STORE);
+    cache.invalidate(STORE);
+    cache.put(STORE, QUERY_KEY, vector, matches("a"), generation);
+
+    assertNull(cache.get(QUERY_KEY, vector));
+    assertThat(cache.size(), is(0));
+  }
+
+  @Test
+  public void invalidatesOnlyEntriesOfStore() {
+
+    QueryResultCache cache = new QueryResultCache(10, TTL_MILLIS, null);
+    float[] vector = {0.1f, 0.5f, 0.9f};
+    String otherQueryKey = QueryResultCache.queryKey("other", null, 5, 0.7);
+    List<EmbeddingMatch<TextSegment>> otherMatches = matches("b");
+    cache.put(STORE, QUERY_KEY, vector, matches("a"), cache.getGeneration(STORE));
+    cache.put("other", otherQueryKey, vector, otherMatches, cache.getGeneration("other"));
+
+    cache.invalidate(STORE);
+
+    assertNull(cache.get(QUERY_KEY, vector));
+    assertThat(cache.get(otherQueryKey, vector), is(otherMatches));
+    assertThat(cache.getGeneration(STORE), is(1L));
+    assertThat(cache.getGeneration("other"), is(0L));
+  }
+
+  @Test
+  public void reusesResultsOfSimilarQuery() {
+
+    QueryResultCache cache = new QueryResultCache(10, TTL_MILLIS, 0.95);
+    List<EmbeddingMatch<TextSegment>> matches = matches("a");
+    cache.put(STORE, QUERY_KEY, new float[] {1f, 0f, 0f}, matches, cache.getGeneration(STORE));
+
+    // Cosine similarity of about 0.99
+    assertThat(cache.get(QUERY_KEY, new float[] {0.99f, 0.14f, 0f}), is(matches));
+    // Cosine similarity of about 0.71
+    assertNull(cache.get(QUERY_KEY, new float[] {1f, 1f, 0f}));
+  }
+
+  @Test
+  public void reusesResultsOfMostSimilarQuery() {
+
+    QueryResultCache cache = new QueryResultCache(10, TTL_MILLIS, 0.9);
+    List<EmbeddingMatch<TextSegment>> closest = matches("closest");
+    cache.put(STORE, QUERY_KEY, new float[] {1f, 0.3f, 0f}, matches("farther"), cache.getGeneration(STORE));
+    cache.put(STORE, QUERY_KEY, new float[] {1f, 0.1f, 0f}, closest, cache.getGeneration(STORE));
+
+    assertThat(cache.get(QUERY_KEY, new float[] {1f, 0.05f, 0f}), is(closest));
+  }
+
+  @Test
+  public void doesNotReuseSimilarQueryWithOtherParameters() {
+
+    QueryResultCache cache = new QueryResultCache(10, TTL_MILLIS, 0.95);
+    cache.put(STORE, QUERY_KEY, new float[] {1f, 0f, 0f}, matches("a"), cache.getGeneration(STORE));
+
+    assertNull(cache.get(QueryResultCache.queryKey(STORE, null, 10, 0.7), new float[] {0.99f, 0.14f, 0f}));
+  }
+
+  @Test
+  public void doesNotReuseSimilarQueryWithoutThreshold() {
+
+    QueryResultCache cache = new QueryResultCache(10, TTL_MILLIS, null);
+    cache.put(STORE, QUERY_KEY, new float[] {1f, 0f, 0f}, matches("a"), cache.getGeneration(STORE));
+
+    assertNull(cache.get(QUERY_KEY, new float[] {0.99f, 0.14f, 0f}));
+  }
+
+  @Test
+  public void evictsLeastRecentlyUsedEntry() {
+
+    QueryResultCache cache = new QueryResultCache(2, TTL_MILLIS, null);
+    float[] a = {1f, 0f, 0f};
+    float[] b = {0f, 1f, 0f};
+    float[] c = {0f, 0f, 1f};
+    List<EmbeddingMatch<TextSegment>> matchesOfA = matches("a");
+    cache.put(STORE, QUERY_KEY, a, matchesOfA, cache.getGeneration(STORE));
+    cache.put(STORE, QUERY_KEY, b, matches("b"), cache.getGeneration(STORE));
+    cache.get(QUERY_KEY, a);
+    cache.put(STORE, QUERY_KEY, c, matches("c"), cache.getGeneration(STORE));
+
+    assertNull(cache.get(QUERY_KEY, b));
+    assertThat(cache.get(QUERY_KEY, a), is(matchesOfA));
+    assertThat(cache.size(), is(2));
+    assertThat(cache.getEvictions(), is(1L));
+  }
+
+  @Test
+  public void expiresEntries() {
+
+    QueryResultCache cache = new QueryResultCache(10, -1, 0.9);
+    float[] vector = {0.1f, 0.5f, 0.9f};
+    cache.put(STORE, QUERY_KEY, vector, matches("a"), cache.getGeneration(STORE));
+
+    assertNull(cache.get(QUERY_KEY, vector));
+  }
+
+  private static List<EmbeddingMatch<TextSegment>> matches(String text) {
+
+    return Collections.singletonList(new EmbeddingMatch<>(0.9, text, null, TextSegment.from(text)));
+  }
+}
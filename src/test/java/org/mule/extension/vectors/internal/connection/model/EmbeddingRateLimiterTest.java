@@ -0,0 +1,171 @@
+package org.mule.extension.vectors.internal.connection.model;
+
+import org.junit.Test;
+import org.mule.extension.vectors.internal.error.AIServicesException;
+import org.mule.extension.vectors.internal.error.MuleVectorsErrorType;
+import org.mule.runtime.extension.api.exception.ModuleException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.fail;
+
+public class EmbeddingRateLimiterTest {
+
+  @Test
+  public void parsesRetryAfterInSeconds() {
+
+    assertThat(EmbeddingRateLimiter.resolveRetryAfterMillis(new RuntimeException("Retry-After: 2")), is(2000L));
+    assertThat(EmbeddingRateLimiter.resolveRetryAfterMillis(new RuntimeException("Please retry after 1.5 seconds.")), is(1500L));
+    assertThat(EmbeddingRateLimiter.resolveRetryAfterMillis(new RuntimeException("retry-after=3s")), is(3000L));
+  }
+
+  @Test
+  public void parsesRetryAfterInMilliseconds() {
+
+    assertThat(EmbeddingRateLimiter.resolveRetryAfterMillis(new RuntimeException("Retry-After: 250ms")), is(250L));
+  }
+
+  @Test
+  public void parsesTryAgainHint() {
+
+    assertThat(EmbeddingRateLimiter.resolveRetryAfterMillis(
+        new RuntimeException("Rate limit reached for requests. Please try again in 20ms.")), is(20L));
+    assertThat(EmbeddingRateLimiter.resolveRetryAfterMillis(
+        new RuntimeException("Rate limit reached for tokens. Please try again in 1.2s.")), is(1200L));
+  }
+
+  @Test
+  public void capsRetryAfter() {
+
+    assertThat(EmbeddingRateLimiter.resolveRetryAfterMillis(new RuntimeException("Retry-After: 3600")), is(60000L));
+  }
+
+  @Test
+  public void findsRetryAfterInCauseChain() {
+
+    RuntimeException e = new RuntimeException("Embedding failed.", new RuntimeException("Retry-After: 4"));
+
+    assertThat(EmbeddingRateLimiter.resolveRetryAfterMillis(e), is(4000L));
+  }
+
+  @Test
+  public void reportsMissingRetryAfter() {
+
+    assertThat(EmbeddingRateLimiter.resolveRetryAfterMillis(new RuntimeException("Too many requests.")), is(-1L));
+    assertThat(EmbeddingRateLimiter.resolveRetryAfterMillis(new RuntimeException()), is(-1L));
+  }
+
+  @Test
+  public void resolvesStatusCodeFromAccessor() {
+
+    RuntimeException e = new RuntimeException("Embedding failed with status code: 503", new HttpException(429));
+
+    assertThat(EmbeddingRateLimiter.resolveStatusCode(e), is(429));
+  }
+
+  @Test
+  public void resolvesStatusCodeIntroducedAsSuch() {
+
+    assertThat(EmbeddingRateLimiter.resolveStatusCode(new RuntimeException("status code: 429, body: {}")), is(429));
+    assertThat(EmbeddingRateLimiter.resolveStatusCode(new RuntimeException("HTTP/1.1 503 Service Unavailable")), is(503));
+    assertThat(EmbeddingRateLimiter.resolveStatusCode(new RuntimeException("Received HTTP 413")), is(413));
+  }
+
+  @Test
+  public void ignoresOtherNumbersInMessages() {
+
+    assertThat(EmbeddingRateLimiter.resolveStatusCode(new RuntimeException("Input of 429 tokens exceeds 413 limit.")), is(-1));
+  }
+
+  @Test
+  public void resolvesRateLimitingErrorAs429() {
+
+    ModuleException e = new ModuleException("Rate limited.", MuleVectorsErrorType.AI_SERVICES_RATE_LIMITING_ERROR);
+
+    assertThat(EmbeddingRateLimiter.resolveStatusCode(e), is(429));
+  }
+
+  @Test
+  public void resolvesStatusCodeOfServiceError() {
+
+    AIServicesException e = new AIServicesException(
+        "Error while generating embeddings with \"EINSTEIN\" embedding model service. Response code: 503. Response {}.",
+        MuleVectorsErrorType.AI_SERVICES_FAILURE, 503);
+
+    assertThat(EmbeddingRateLimiter.resolveStatusCode(e), is(503));
+  }
+
+  @Test
+  public void retriesOverloadedServiceRequest() {
+
+    EmbeddingRateLimiter rateLimiter = new EmbeddingRateLimiter(0, 0, 2);
+    AtomicInteger attempts = new AtomicInteger();
+
+    String result = rateLimiter.execute(1, () -> {
+
+      if(attempts.incrementAndGet() == 1) {
+        throw new AIServicesException("Response code: 503. Retry after 0ms.", MuleVectorsErrorType.AI_SERVICES_FAILURE, 503);
+      }
+      return "embedded";
+    }, null);
+
+    assertThat(result, is("embedded"));
+    assertThat(attempts.get(), is(2));
+  }
+
+  @Test
+  public void retriesRateLimitedRequest() {
+
+    EmbeddingRateLimiter rateLimiter = new EmbeddingRateLimiter(0, 0, 2);
+    AtomicInteger attempts = new AtomicInteger();
+    AtomicInteger rateLimited = new AtomicInteger();
+
+    String result = rateLimiter.execute(1, () -> {
+
+      if(attempts.incrementAndGet() == 1) throw new HttpException(429);
+      return "embedded";
+    }, rateLimited::incrementAndGet);
+
+    assertThat(result, is("embedded"));
+    assertThat(attempts.get(), is(2));
+    assertThat(rateLimited.get(), is(1));
+  }
+
+  @Test
+  public void doesNotRetryOtherFailures() {
+
+    EmbeddingRateLimiter rateLimiter = new EmbeddingRateLimiter(0, 0, 2);
+    AtomicInteger attempts = new AtomicInteger();
+
+    try {
+
+      rateLimiter.execute(1, () -> {
+
+        attempts.incrementAndGet();
+        throw new HttpException(400);
+      }, null);
+      fail("Invalid request should fail.");
+    } catch (HttpException e) {
+
+      assertThat(e.code(), is(400));
+    }
+    assertThat(attempts.get(), is(1));
+  }
+
+  public static class HttpException extends RuntimeException {
+
+    private final int code;
+
+    public HttpException(int code) {
+
+      super("Retry-After: 0ms");
+      this.code = code;
+    }
+
+    public int code() {
+      return code;
+    }
+  }
+}
@@ -0,0 +1,150 @@
+package org.mule.extension.vectors.internal.connection.model.einstein;
+
+import org.junit.After;
+import org.junit.Test;
+import org.mule.runtime.api.connection.ConnectionException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class EinsteinTokenManagerTest {
+
+  private static final int THREADS = 8;
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+  private final CountingProvider provider = new CountingProvider(TimeUnit.HOURS.toMillis(1));
+  private final EinsteinTokenManager tokenManager = new EinsteinTokenManager(provider);
+
+  @After
+  public void shutdown() {
+
+    tokenManager.close();
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void reusesTokenWhileValid() throws ConnectionException {
+
+    assertThat(tokenManager.getAccessToken(), is("token-1"));
+    assertThat(tokenManager.getAccessToken(), is("token-1"));
+    assertThat(tokenManager.isValid(), is(true));
+    assertThat(provider.requests.get(), is(1));
+  }
+
+  @Test
+  public void requestsNewTokenOnceExpired() throws ConnectionException {
+
+    CountingProvider expiringProvider = new CountingProvider(-1);
+    EinsteinTokenManager expiringTokenManager = new EinsteinTokenManager(expiringProvider);
+    try {
+
+      assertThat(expiringTokenManager.getAccessToken(), is("token-1"));
+      assertThat(expiringTokenManager.isValid(), is(false));
+      assertThat(expiringTokenManager.getAccessToken(), is("token-2"));
+      assertThat(expiringProvider.requests.get(), is(2));
+    } finally {
+
+      expiringTokenManager.close();
+    }
+  }
+
+  @Test
+  public void concurrentFirstRequestsShareOneToken() throws Exception {
+
+    List<String> tokens = concurrently(tokenManager::getAccessToken);
+
+    for(String token : tokens) assertThat(token, is("token-1"));
+    assertThat(provider.requests.get(), is(1));
+  }
+
+  @Test
+  public void concurrentRefreshesOfStaleTokenShareOneToken() throws Exception {
+
+    String staleToken = tokenManager.getAccessToken();
+
+    List<String> tokens = concurrently(() -> tokenManager.refresh(staleToken));
+
+    for(String token : tokens) assertThat(token, is("token-2"));
+    assertThat(provider.requests.get(), is(2));
+  }
+
+  @Test
+  public void refreshOfAlreadyReplacedTokenKeepsCurrentToken() throws ConnectionException {
+
+    String staleToken = tokenManager.getAccessToken();
+    tokenManager.refresh(staleToken);
+
+    assertThat(tokenManager.refresh(staleToken), is("token-2"));
+    assertThat(provider.requests.get(), is(2));
+  }
+
+  @Test
+  public void closeDiscardsToken() throws ConnectionException {
+
+    tokenManager.getAccessToken();
+    tokenManager.close();
+
+    assertThat(tokenManager.isValid(), is(false));
+  }
+
+  /**
+   * Runs the task from all the threads at once, returning the result of each.
+   */
+  private List<String> concurrently(Callable<String> task) throws Exception {
+
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<String>> futures = new ArrayList<>();
+    for(int i = 0; i < THREADS; i++) {
+      futures.add(executor.submit(() -> {
+
+        start.await();
+        return task.call();
+      }));
+    }
+    start.countDown();
+
+    List<String> results = new ArrayList<>();
+    for(Future<String> future : futures) results.add(future.get(10, TimeUnit.SECONDS));
+    return results;
+  }
+
+  /**
+   * Issues numbered tokens, slowly enough for concurrent callers to overlap with the request.
+   */
+  private static class CountingProvider implements EinsteinTokenManager.AccessTokenProvider {
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final long lifetimeMillis;
+
+    private CountingProvider(long lifetimeMillis) {
+
+      this.lifetimeMillis = lifetimeMillis;
+    }
+
+    @Override
+    public EinsteinTokenManager.AccessToken requestAccessToken() throws ConnectionException {
+
+      int request = requests.incrementAndGet();
+      try {
+
+        Thread.sleep(50);
+      } catch (InterruptedException e) {
+
+        Thread.currentThread().interrupt();
+        throw new ConnectionException("Interrupted while requesting access token.", e);
+      }
+      long now = System.currentTimeMillis();
+      return new EinsteinTokenManager.AccessToken("token-" + request, now, now + lifetimeMillis);
+    }
+  }
+}
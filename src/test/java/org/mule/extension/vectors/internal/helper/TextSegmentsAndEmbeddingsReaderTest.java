@@ -0,0 +1,202 @@
+package org.mule.extension.vectors.internal.helper;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import org.junit.Test;
+import org.mule.extension.vectors.internal.constant.Constants;
+import org.mule.extension.vectors.internal.util.VectorUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.fail;
+
+public class TextSegmentsAndEmbeddingsReaderTest {
+
+  @Test
+  public void segmentsBeforeEmbeddingsAreHandedOverInBatches() throws IOException {
+
+    List<Integer> batchSizes = new ArrayList<>();
+    List<TextSegment> textSegments = new ArrayList<>();
+    List<Embedding> embeddings = new ArrayList<>();
+    TextSegmentsAndEmbeddingsReader reader = new TextSegmentsAndEmbeddingsReader(
+        Collections.singletonMap("extra", "value"), 2, (batchSegments, batchEmbeddings, dimension) -> {
+
+      assertThat(dimension, is(2));
+      assertThat(batchSegments.size(), is(batchEmbeddings.size()));
+      batchSizes.add(batchSegments.size());
+      textSegments.addAll(batchSegments);
+      embeddings.addAll(batchEmbeddings);
+    });
+
+    int count = reader.read(json("{\"text-segments\":" + segments(5) + ",\"dimension\":2," +
+                                     "\"embeddings\":[[0,0],[1,1],[2,2],[3,3],[4,4]]}"));
+
+    assertThat(count, is(5));
+    assertThat(batchSizes.toString(), is("[2, 2, 1]"));
+    for(int i = 0; i < 5; i++) {
+
+      assertThat(textSegments.get(i).text(), is("text " + i));
+      assertThat(textSegments.get(i).metadata().getString("extra"), is("value"));
+      assertArrayEquals(new float[] {i, i}, embeddings.get(i).vector(), 0f);
+    }
+  }
+
+  @Test
+  public void embeddingsBeforeSegmentsAreHandedOverInOrder() throws IOException {
+
+    List<TextSegment> textSegments = new ArrayList<>();
+    List<Embedding> embeddings = new ArrayList<>();
+    TextSegmentsAndEmbeddingsReader reader = new TextSegmentsAndEmbeddingsReader(
+        null, 2, (batchSegments, batchEmbeddings, dimension) -> {
+
+      textSegments.addAll(batchSegments);
+      embeddings.addAll(batchEmbeddings);
+    });
+
+    reader.read(json("{\"embeddings\":[[0,0],[1,1],[2,2]],\"text-segments\":" + segments(3) + "}"));
+
+    assertThat(textSegments.size(), is(3));
+    for(int i = 0; i < 3; i++) {
+
+      assertThat(textSegments.get(i).text(), is("text " + i));
+      assertArrayEquals(new float[] {i, i}, embeddings.get(i).vector(), 0f);
+    }
+  }
+
+  @Test
+  public void base64EmbeddingsAreDecodedOnceEncodingIsKnown() throws IOException {
+
+    float[] vector = {0.5f, -1.25f, 3f};
+    List<Embedding> embeddings = new ArrayList<>();
+    String encoded = VectorUtils.encodeBase64(vector, Constants.EMBEDDING_ENCODING_BASE64_FLOAT32);
+
+    TextSegmentsAndEmbeddingsReader.readAll(
+        json("{\"text-segments\":" + segments(1) + ",\"embeddings\":[\"" + encoded + "\"]," +
+                 "\"encoding\":\"" + Constants.EMBEDDING_ENCODING_BASE64_FLOAT32 + "\"}"),
+        null, (batchSegments, batchEmbeddings, dimension) -> embeddings.addAll(batchEmbeddings));
+
+    assertThat(embeddings.size(), is(1));
+    assertArrayEquals(vector, embeddings.get(0).vector(), 0f);
+  }
+
+  @Test
+  public void additionalFieldsAreReadByFieldReaders() throws IOException {
+
+    List<String> values = new ArrayList<>();
+    new TextSegmentsAndEmbeddingsReader(null, 10, (batchSegments, batchEmbeddings, dimension) -> {})
+        .withFieldReader("extra", parser -> values.add(parser.getValueAsString()))
+        .read(json("{\"extra\":\"value\",\"text-segments\":" + segments(1) + ",\"embeddings\":[[1]],\"ignored\":{\"a\":[1]}}"));
+
+    assertThat(values.toString(), is("[value]"));
+  }
+
+  @Test
+  public void fewerEmbeddingsThanSegmentsFailOnceRead() throws IOException {
+
+    List<Integer> batchSizes = new ArrayList<>();
+    TextSegmentsAndEmbeddingsReader reader = new TextSegmentsAndEmbeddingsReader(
+        null, 2, (batchSegments, batchEmbeddings, dimension) -> batchSizes.add(batchSegments.size()));
+
+    try {
+
+      reader.read(json("{\"text-segments\":" + segments(3) + ",\"embeddings\":[[0],[1]]}"));
+      fail("Missing embeddings should be rejected.");
+    } catch (IllegalArgumentException e) {
+
+      assertThat(e.getMessage(), is("Received 2 embeddings for 3 text segments."));
+    }
+    // The first batch was handed over before the end of the input was reached
+    assertThat(batchSizes.toString(), is("[2]"));
+  }
+
+  @Test
+  public void moreEmbeddingsThanSegmentsFailWhileRead() throws IOException {
+
+    try {
+
+      TextSegmentsAndEmbeddingsReader.readAll(json("{\"text-segments\":" + segments(1) + ",\"embeddings\":[[0],[1]]}"),
+                                              null, (batchSegments, batchEmbeddings, dimension) -> {});
+      fail("Extra embeddings should be rejected.");
+    } catch (IllegalArgumentException e) {
+
+      assertThat(e.getMessage(), is("More embeddings than the 1 text segments."));
+    }
+  }
+
+  @Test
+  public void embeddingsOfDifferentDimensionsAreRejected() throws IOException {
+
+    try {
+
+      TextSegmentsAndEmbeddingsReader.readAll(json("{\"text-segments\":" + segments(2) + ",\"embeddings\":[[0,0],[1]]}"),
+                                              null, (batchSegments, batchEmbeddings, dimension) -> {});
+      fail("Embeddings of different dimensions should be rejected.");
+    } catch (IllegalArgumentException e) {
+
+      assertThat(e.getMessage(), is("Embedding 1 has dimension 1 instead of 2."));
+    }
+  }
+
+  @Test
+  public void base64EmbeddingsOfDifferentDimensionsAreRejected() throws IOException {
+
+    String first = VectorUtils.encodeBase64(new float[] {0f, 0f}, Constants.EMBEDDING_ENCODING_BASE64_FLOAT32);
+    String second = VectorUtils.encodeBase64(new float[] {1f}, Constants.EMBEDDING_ENCODING_BASE64_FLOAT32);
+    try {
+
+      TextSegmentsAndEmbeddingsReader.readAll(
+          json("{\"text-segments\":" + segments(2) + ",\"embeddings\":[\"" + first + "\",\"" + second + "\"]}"),
+          null, (batchSegments, batchEmbeddings, dimension) -> {});
+      fail("Embeddings of different dimensions should be rejected.");
+    } catch (IllegalArgumentException e) {
+
+      assertThat(e.getMessage(), is("Embedding 1 has dimension 1 instead of 2."));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void declaredDimensionMustMatchEmbeddings() throws IOException {
+
+    TextSegmentsAndEmbeddingsReader.readAll(json("{\"text-segments\":" + segments(1) + ",\"embeddings\":[[0,0]],\"dimension\":3}"),
+                                            null, (batchSegments, batchEmbeddings, dimension) -> {});
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void segmentsWithoutMetadataAreRejected() throws IOException {
+
+    TextSegmentsAndEmbeddingsReader.readAll(json("{\"text-segments\":[{\"text\":\"text\"}],\"embeddings\":[[0]]}"),
+                                            null, (batchSegments, batchEmbeddings, dimension) -> {});
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void missingSegmentsAreRejected() throws IOException {
+
+    TextSegmentsAndEmbeddingsReader.readAll(json("{\"embeddings\":[[0]]}"),
+                                            null, (batchSegments, batchEmbeddings, dimension) -> {});
+  }
+
+  private static String segments(int count) {
+
+    StringBuilder segments = new StringBuilder("[");
+    for(int i = 0; i < count; i++) {
+
+      if(i > 0) segments.append(',');
+      segments.append("{\"text\":\"text ").append(i).append("\",\"metadata\":{\"index\":").append(i).append("}}");
+    }
+    return segments.append(']').toString();
+  }
+
+  private static InputStream json(String json) {
+
+    return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,222 @@
+package org.mule.extension.vectors.internal.model;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
+import org.junit.Test;
+import org.mule.extension.vectors.internal.connection.model.EmbeddingRateLimiter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.fail;
+
+public class BatchingEmbeddingModelTest {
+
+  @Test
+  public void splitsSegmentsIntoBatchesOfMaxSegments() {
+
+    RecordingModel delegate = new RecordingModel(Integer.MAX_VALUE, -1);
+    BatchingEmbeddingModel model = new BatchingEmbeddingModel(delegate, 4, 100000, null);
+
+    Response<List<Embedding>> response = model.embedAll(segments(10, "text"));
+
+    assertThat(delegate.batchSizes, is(sizes(4, 4, 2)));
+    assertEmbeddingsInOrder(response.content(), 10);
+    assertThat(response.tokenUsage().inputTokenCount(), is(10));
+  }
+
+  @Test
+  public void splitsSegmentsIntoBatchesOfMaxTokens() {
+
+    RecordingModel delegate = new RecordingModel(Integer.MAX_VALUE, -1);
+    // 41 characters each, estimated at 11 tokens: two segments per batch
+    BatchingEmbeddingModel model = new BatchingEmbeddingModel(delegate, 100, 25, null);
+
+    Response<List<Embedding>> response = model.embedAll(segments(5, "abcdefghijabcdefghijabcdefghijabcdefghij"));
+
+    assertThat(delegate.batchSizes, is(sizes(2, 2, 1)));
+    assertEmbeddingsInOrder(response.content(), 5);
+  }
+
+  @Test
+  public void splitsBatchRejectedAsTooLarge() {
+
+    RecordingModel delegate = new RecordingModel(2, 413);
+    BatchingEmbeddingModel model = new BatchingEmbeddingModel(delegate, 8, 100000, null);
+
+    Response<List<Embedding>> response = model.embedAll(segments(8, "text"));
+
+    assertThat(delegate.batchSizes.get(0), is(8));
+    for(int size : delegate.acceptedBatchSizes) assertThat(size <= 2, is(true));
+    assertEmbeddingsInOrder(response.content(), 8);
+    assertThat(response.tokenUsage().inputTokenCount(), is(8));
+  }
+
+  @Test
+  public void halvesBudgetOnTooLargeBatch() {
+
+    RecordingModel delegate = new RecordingModel(4, 413);
+    BatchingEmbeddingModel model = new BatchingEmbeddingModel(delegate, 8, 100000, null);
+
+    Response<List<Embedding>> response = model.embedAll(segments(8, "text"));
+
+    // Rejected at 8, then split within the halved budget of 4 segments
+    assertThat(delegate.batchSizes, is(sizes(8, 4, 4)));
+    assertEmbeddingsInOrder(response.content(), 8);
+  }
+
+  @Test
+  public void halvesBudgetOnRateLimitedBatch() {
+
+    RecordingModel delegate = new RecordingModel(Integer.MAX_VALUE, 429);
+    delegate.rejections = 1;
+    BatchingEmbeddingModel model = new BatchingEmbeddingModel(delegate, 8, 100000, new EmbeddingRateLimiter(0, 0, 1));
+
+    model.embedAll(segments(8, "text"));
+    delegate.batchSizes.clear();
+    model.embedAll(segments(8, "text"));
+
+    // The rate limited batch is retried whole; the budget, halved then grown back by one step, applies to the next call
+    assertThat(delegate.batchSizes.get(0), is(4));
+  }
+
+  @Test
+  public void keepsReducedBudgetForNextCalls() {
+
+    RecordingModel delegate = new RecordingModel(2, 413);
+    BatchingEmbeddingModel model = new BatchingEmbeddingModel(delegate, 8, 100000, null);
+    model.embedAll(segments(8, "text"));
+    delegate.batchSizes.clear();
+
+    model.embedAll(segments(4, "text"));
+
+    assertThat(delegate.batchSizes.get(0) < 8, is(true));
+  }
+
+  @Test
+  public void recognizesTooLargeRequestsByMessage() {
+
+    RecordingModel delegate = new RecordingModel(1, 400) {
+
+      @Override
+      protected RuntimeException reject() {
+        return new RuntimeException("Bad request: too many inputs in request");
+      }
+    };
+    BatchingEmbeddingModel model = new BatchingEmbeddingModel(delegate, 2, 100000, null);
+
+    assertEmbeddingsInOrder(model.embedAll(segments(2, "text")).content(), 2);
+  }
+
+  @Test
+  public void doesNotSplitRateLimitedBatch() {
+
+    RecordingModel delegate = new RecordingModel(2, 429);
+    BatchingEmbeddingModel model = new BatchingEmbeddingModel(delegate, 8, 100000, new EmbeddingRateLimiter(0, 0, 0));
+
+    try {
+
+      model.embedAll(segments(8, "text"));
+      fail("Rate limited batch should fail.");
+    } catch (HttpException e) {
+
+      assertThat(e.code(), is(429));
+    }
+    assertThat(delegate.batchSizes, is(sizes(8)));
+  }
+
+  @Test
+  public void doesNotSplitBatchRejectedForOtherReasons() {
+
+    RecordingModel delegate = new RecordingModel(2, 400);
+    BatchingEmbeddingModel model = new BatchingEmbeddingModel(delegate, 8, 100000, null);
+
+    try {
+
+      model.embedAll(segments(8, "text"));
+      fail("Invalid batch should fail.");
+    } catch (HttpException e) {
+
+      assertThat(e.code(), is(400));
+    }
+    assertThat(delegate.batchSizes, is(sizes(8)));
+  }
+
+  private static List<TextSegment> segments(int count, String text) {
+
+    List<TextSegment> segments = new ArrayList<>();
+    for(int i = 0; i < count; i++) segments.add(TextSegment.from(text + i));
+    return segments;
+  }
+
+  private static List<Integer> sizes(Integer... sizes) {
+
+    List<Integer> list = new ArrayList<>();
+    for(Integer size : sizes) list.add(size);
+    return list;
+  }
+
+  private static void assertEmbeddingsInOrder(List<Embedding> embeddings, int count) {
+
+    assertThat(embeddings.size(), is(count));
+    for(int i = 0; i < count; i++) assertThat(embeddings.get(i).vector()[0], is((float) i));
+  }
+
+  /**
+   * Embeds each segment as a vector holding the index ending its text, rejecting the batches larger than the given
+   * size and, if set, the given number of first batches.
+   */
+  private static class RecordingModel implements EmbeddingModel {
+
+    private final int maxBatchSize;
+    private final int rejectionStatusCode;
+    private final List<Integer> batchSizes = new ArrayList<>();
+    private final List<Integer> acceptedBatchSizes = new ArrayList<>();
+    private int rejections;
+
+    private RecordingModel(int maxBatchSize, int rejectionStatusCode) {
+
+      this.maxBatchSize = maxBatchSize;
+      this.rejectionStatusCode = rejectionStatusCode;
+    }
+
+    @Override
+    public Response<List<Embedding>> embedAll(List<TextSegment> textSegments) {
+
+      batchSizes.add(textSegments.size());
+      if(textSegments.size() > maxBatchSize || rejections-- > 0) throw reject();
+      acceptedBatchSizes.add(textSegments.size());
+
+      List<Embedding> embeddings = new ArrayList<>();
+      for(TextSegment segment : textSegments) {
+        embeddings.add(Embedding.from(new float[] {Float.parseFloat(segment.text().replaceAll("\\D+", ""))}));
+      }
+      return Response.from(embeddings, new TokenUsage(textSegments.size()));
+    }
+
+    protected RuntimeException reject() {
+
+      return new HttpException(rejectionStatusCode);
+    }
+  }
+
+  public static class HttpException extends RuntimeException {
+
+    private final int code;
+
+    public HttpException(int code) {
+
+      super("Request rejected.");
+      this.code = code;
+    }
+
+    public int code() {
+      return code;
+    }
+  }
+}
@@ -0,0 +1,172 @@
+package org.mule.extension.vectors.internal.model;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.fail;
+
+public class CoalescingEmbeddingModelTest {
+
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+
+  @After
+  public void shutdown() {
+
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void coalescesRequestsArrivingWithinWindow() throws Exception {
+
+    RecordingModel delegate = new RecordingModel();
+    CoalescingEmbeddingModel model = new CoalescingEmbeddingModel(delegate, 500, 10, 0);
+
+    Future<Response<List<Embedding>>> first = executor.submit(() -> model.embedAll(segments("a")));
+    Thread.sleep(50);
+    Response<List<Embedding>> second = model.embedAll(segments("bb", "ccc"));
+
+    assertThat(delegate.batchSizes, is(Collections.singletonList(3)));
+    // Each request gets its own embeddings back, in order
+    assertThat(first.get().content().size(), is(1));
+    assertThat(first.get().content().get(0).vector()[0], is(1f));
+    assertThat(second.content().size(), is(2));
+    assertThat(second.content().get(0).vector()[0], is(2f));
+    assertThat(second.content().get(1).vector()[0], is(3f));
+  }
+
+  @Test
+  public void callsOnceWindowElapsesWithoutOtherRequests() {
+
+    RecordingModel delegate = new RecordingModel();
+    CoalescingEmbeddingModel model = new CoalescingEmbeddingModel(delegate, 50, 10, 0);
+
+    long startTime = System.currentTimeMillis();
+    model.embedAll(segments("a"));
+
+    assertThat(System.currentTimeMillis() - startTime >= 50, is(true));
+    assertThat(delegate.batchSizes, is(Collections.singletonList(1)));
+  }
+
+  @Test
+  public void closesBatchHoldingMaxTextsBeforeWindowElapses() throws Exception {
+
+    RecordingModel delegate = new RecordingModel();
+    CoalescingEmbeddingModel model = new CoalescingEmbeddingModel(delegate, 10000, 3, 0);
+
+    long startTime = System.currentTimeMillis();
+    Future<Response<List<Embedding>>> first = executor.submit(() -> model.embedAll(segments("a")));
+    Thread.sleep(50);
+    model.embedAll(segments("bb", "ccc"));
+    first.get();
+
+    assertThat(System.currentTimeMillis() - startTime < 5000, is(true));
+    assertThat(delegate.batchSizes, is(Collections.singletonList(3)));
+  }
+
+  @Test
+  public void doesNotCoalesceRequestsOfMaxTexts() {
+
+    RecordingModel delegate = new RecordingModel();
+    CoalescingEmbeddingModel model = new CoalescingEmbeddingModel(delegate, 10000, 2, 0);
+
+    long startTime = System.currentTimeMillis();
+    model.embedAll(segments("a", "bb"));
+
+    assertThat(System.currentTimeMillis() - startTime < 5000, is(true));
+    assertThat(delegate.batchSizes, is(Collections.singletonList(2)));
+  }
+
+  @Test
+  public void splitsTokenUsageByTextLength() throws Exception {
+
+    RecordingModel delegate = new RecordingModel();
+    CoalescingEmbeddingModel model = new CoalescingEmbeddingModel(delegate, 500, 10, 0);
+
+    Future<Response<List<Embedding>>> first = executor.submit(() -> model.embedAll(segments("aaaa")));
+    Thread.sleep(50);
+    Response<List<Embedding>> second = model.embedAll(segments("bbbbbbbbbbbb"));
+
+    // 16 tokens for 16 characters, shared 4 to 12
+    assertThat(first.get().tokenUsage().inputTokenCount(), is(4));
+    assertThat(second.tokenUsage().inputTokenCount(), is(12));
+  }
+
+  @Test
+  public void handsFailureToAllRequests() throws Exception {
+
+    RecordingModel delegate = new RecordingModel() {
+
+      @Override
+      public Response<List<Embedding>> embedAll(List<TextSegment> textSegments) {
+
+        super.embedAll(textSegments);
+        throw new IllegalStateException("Service unavailable.");
+      }
+    };
+    CoalescingEmbeddingModel model = new CoalescingEmbeddingModel(delegate, 500, 10, 0);
+
+    Future<Response<List<Embedding>>> first = executor.submit(() -> model.embedAll(segments("a")));
+    Thread.sleep(50);
+    try {
+
+      model.embedAll(segments("bb"));
+      fail("Failure of the coalesced call should be handed to each request.");
+    } catch (IllegalStateException e) {
+
+      assertThat(e.getMessage(), is("Service unavailable."));
+    }
+    try {
+
+      first.get();
+      fail("Failure of the coalesced call should be handed to each request.");
+    } catch (ExecutionException e) {
+
+      assertThat(e.getCause().getMessage(), is("Service unavailable."));
+    }
+    assertThat(delegate.batchSizes, is(Collections.singletonList(2)));
+  }
+
+  private static List<TextSegment> segments(String... texts) {
+
+    List<TextSegment> segments = new ArrayList<>();
+    for(String text : texts) segments.add(TextSegment.from(text));
+    return segments;
+  }
+
+  /**
+   * Embeds each segment as a vector holding the length of its text, reporting one token per character.
+   */
+  private static class RecordingModel implements EmbeddingModel {
+
+    private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public Response<List<Embedding>> embedAll(List<TextSegment> textSegments) {
+
+      batchSizes.add(textSegments.size());
+      List<Embedding> embeddings = new ArrayList<>();
+      int tokens = 0;
+      for(TextSegment segment : textSegments) {
+
+        embeddings.add(Embedding.from(new float[] {segment.text().length()}));
+        tokens += segment.text().length();
+      }
+      return Response.from(embeddings, new TokenUsage(tokens));
+    }
+  }
+}
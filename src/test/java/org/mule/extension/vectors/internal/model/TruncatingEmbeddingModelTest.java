@@ -0,0 +1,104 @@
+package org.mule.extension.vectors.internal.model;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
+import org.junit.Test;
+import org.mule.runtime.extension.api.exception.ModuleException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class TruncatingEmbeddingModelTest {
+
+  @Test
+  public void truncatesAndRenormalizes() {
+
+    TruncatingEmbeddingModel model = new TruncatingEmbeddingModel(new FixedModel(new float[] {0.6f, 0.0f, 0.8f, 0.0f}), 2);
+
+    float[] vector = model.embedAll(segments(1)).content().get(0).vector();
+
+    // The first two values, 0.6 and 0, scaled back to unit length
+    assertArrayEquals(new float[] {1f, 0f}, vector, 1e-6f);
+  }
+
+  @Test
+  public void truncatedEmbeddingsHaveUnitLength() {
+
+    TruncatingEmbeddingModel model =
+        new TruncatingEmbeddingModel(new FixedModel(new float[] {0.1f, -0.3f, 0.2f, 0.5f, -0.4f, 0.6f}), 4);
+
+    float[] vector = model.embedAll(segments(1)).content().get(0).vector();
+    double norm = 0;
+    for(float value : vector) norm += value * value;
+
+    assertThat(vector.length, is(4));
+    assertEquals(1.0, Math.sqrt(norm), 1e-6);
+    // The direction of the prefix is kept
+    assertEquals(-3f, vector[1] / vector[0], 1e-5f);
+  }
+
+  @Test
+  public void keepsZeroPrefix() {
+
+    TruncatingEmbeddingModel model = new TruncatingEmbeddingModel(new FixedModel(new float[] {0f, 0f, 1f}), 2);
+
+    assertArrayEquals(new float[] {0f, 0f}, model.embedAll(segments(1)).content().get(0).vector(), 0f);
+  }
+
+  @Test
+  public void keepsEmbeddingsOfTargetDimension() {
+
+    FixedModel delegate = new FixedModel(new float[] {0.5f, 0.5f});
+    TruncatingEmbeddingModel model = new TruncatingEmbeddingModel(delegate, 2);
+
+    Response<List<Embedding>> response = model.embedAll(segments(2));
+
+    assertThat(response.content().size(), is(2));
+    assertSame(delegate.embedding, response.content().get(0));
+    assertThat(response.tokenUsage().inputTokenCount(), is(2));
+    assertThat(model.dimension(), is(2));
+  }
+
+  @Test(expected = ModuleException.class)
+  public void rejectsTargetDimensionGreaterThanModelDimension() {
+
+    new TruncatingEmbeddingModel(new FixedModel(new float[] {1f}), 2).embedAll(segments(1));
+  }
+
+  private static List<TextSegment> segments(int count) {
+
+    List<TextSegment> segments = new ArrayList<>();
+    for(int i = 0; i < count; i++) segments.add(TextSegment.from("text"));
+    return segments;
+  }
+
+  /**
+   * Embeds each segment as the same vector, reporting one token per segment.
+   */
+  private static class FixedModel implements EmbeddingModel {
+
+    private final Embedding embedding;
+
+    private FixedModel(float[] vector) {
+
+      this.embedding = Embedding.from(vector);
+    }
+
+    @Override
+    public Response<List<Embedding>> embedAll(List<TextSegment> textSegments) {
+
+      return Response.from(new ArrayList<>(Collections.nCopies(textSegments.size(), embedding)),
+                           new TokenUsage(textSegments.size()));
+    }
+  }
+}
@@ -0,0 +1,156 @@
+package org.mule.extension.vectors.internal.model.einstein;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
+import org.junit.After;
+import org.junit.Test;
+import org.mule.extension.vectors.internal.connection.model.einstein.EinsteinModelConnection;
+import org.mule.extension.vectors.internal.error.MuleVectorsErrorType;
+import org.mule.runtime.extension.api.exception.ModuleException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.fail;
+
+public class EinsteinEmbeddingModelTest {
+
+  private RecordingConnection connection;
+
+  @After
+  public void disconnect() {
+
+    if(connection != null) connection.disconnect();
+  }
+
+  @Test
+  public void splitsTextsInBatches() {
+
+    connection = new RecordingConnection(1, 0);
+
+    Response<List<Embedding>> response = model(connection).embedAll(segments(40));
+
+    assertThat(connection.batchSizes.toString(), is("[16, 16, 8]"));
+    assertInOrder(response, 40);
+    assertThat(response.tokenUsage().totalTokenCount(), is(40));
+  }
+
+  @Test
+  public void sendsBatchesConcurrentlyInOrder() {
+
+    connection = new RecordingConnection(4, 50);
+
+    Response<List<Embedding>> response = model(connection).embedAll(segments(8 * EinsteinEmbeddingModel.BATCH_SIZE));
+
+    assertThat(connection.batchSizes.size(), is(8));
+    assertThat(connection.maxInFlight.get() > 1, is(true));
+    assertThat(connection.maxInFlight.get() <= 4, is(true));
+    assertInOrder(response, 8 * EinsteinEmbeddingModel.BATCH_SIZE);
+    assertThat(response.tokenUsage().totalTokenCount(), is(8 * EinsteinEmbeddingModel.BATCH_SIZE));
+  }
+
+  @Test
+  public void rethrowsFailureOfConcurrentBatch() {
+
+    connection = new RecordingConnection(4, 0) {
+
+      @Override
+      public Response<List<Embedding>> generateEmbeddings(List<String> inputs, String modelName) {
+
+        if(inputs.get(0).equals("text 16")) {
+          throw new ModuleException("Batch rejected.", MuleVectorsErrorType.AI_SERVICES_FAILURE);
+        }
+        return super.generateEmbeddings(inputs, modelName);
+      }
+    };
+    try {
+
+      model(connection).embedAll(segments(48));
+      fail("Failure of a batch should fail the call.");
+    } catch (ModuleException e) {
+
+      assertThat(e.getMessage(), is("Batch rejected."));
+    }
+  }
+
+  @Test
+  public void rejectsConcurrentBatchesOnceDisconnected() {
+
+    connection = new RecordingConnection(4, 0);
+    connection.disconnect();
+    try {
+
+      model(connection).embedAll(segments(48));
+      fail("Batches should not be sent through a disconnected connection.");
+    } catch (ModuleException e) {
+
+      assertThat(e.getType(), is(MuleVectorsErrorType.AI_SERVICES_FAILURE));
+    }
+    assertThat(connection.batchSizes.isEmpty(), is(true));
+  }
+
+  private static EinsteinEmbeddingModel model(EinsteinModelConnection connection) {
+
+    return EinsteinEmbeddingModel.builder().connection(connection).build();
+  }
+
+  private static List<TextSegment> segments(int count) {
+
+    List<TextSegment> segments = new ArrayList<>();
+    for(int i = 0; i < count; i++) segments.add(TextSegment.from("text " + i));
+    return segments;
+  }
+
+  private static void assertInOrder(Response<List<Embedding>> response, int count) {
+
+    assertThat(response.content().size(), is(count));
+    for(int i = 0; i < count; i++) assertThat(response.content().get(i).vector()[0], is((float) i));
+  }
+
+  /**
+   * Embeds each text as a vector holding its number instead of calling Einstein, reporting one token per text and
+   * recording the largest number of batches in flight at once.
+   */
+  private static class RecordingConnection extends EinsteinModelConnection {
+
+    private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final long delayMillis;
+
+    private RecordingConnection(int maxConcurrentBatches, long delayMillis) {
+
+      super("https://example.my.salesforce.com", "clientId", "clientSecret", maxConcurrentBatches, 1000, 1000);
+      this.delayMillis = delayMillis;
+    }
+
+    @Override
+    public Response<List<Embedding>> generateEmbeddings(List<String> inputs, String modelName) {
+
+      batchSizes.add(inputs.size());
+      maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+      try {
+
+        if(delayMillis > 0) Thread.sleep(delayMillis);
+        List<Embedding> embeddings = new ArrayList<>();
+        for(String input : inputs) {
+          embeddings.add(Embedding.from(new float[] {Integer.parseInt(input.substring("text ".length()))}));
+        }
+        return Response.from(embeddings, new TokenUsage(inputs.size()));
+      } catch (InterruptedException e) {
+
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException(e);
+      } finally {
+
+        inFlight.decrementAndGet();
+      }
+    }
+  }
+}
@@ -0,0 +1,119 @@
+package org.mule.extension.vectors.internal.util;
+
+import org.junit.Test;
+import org.mule.extension.vectors.internal.constant.Constants;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class VectorUtilsTest {
+
+  @Test
+  public void float32RoundTripIsExact() {
+
+    float[] vector = {0.1f, -0.25f, 3.5e-7f, -1234.5678f, 0f};
+    String encoded = VectorUtils.encodeBase64(vector, Constants.EMBEDDING_ENCODING_BASE64_FLOAT32);
+
+    assertArrayEquals(vector, VectorUtils.decodeBase64(encoded, Constants.EMBEDDING_ENCODING_BASE64_FLOAT32), 0f);
+    // Base64 strings default to float32
+    assertArrayEquals(vector, VectorUtils.decodeBase64(encoded, null), 0f);
+  }
+
+  @Test
+  public void float16RoundTripKeepsHalfPrecision() {
+
+    float[] vector = {0.1f, -0.25f, 1f, -0.0123f, 0.9999f, 42.42f};
+    String encoded = VectorUtils.encodeBase64(vector, Constants.EMBEDDING_ENCODING_BASE64_FLOAT16);
+    float[] decoded = VectorUtils.decodeBase64(encoded, Constants.EMBEDDING_ENCODING_BASE64_FLOAT16);
+
+    assertThat(decoded.length, is(vector.length));
+    for(int i = 0; i < vector.length; i++) {
+      // 10 bits of mantissa: a relative error of at most 2^-11
+      assertEquals(vector[i], decoded[i], Math.abs(vector[i]) / 2048f);
+    }
+  }
+
+  @Test
+  public void halfValuesConvertExactly() {
+
+    float[] values = {0f, -0f, 1f, -2f, 0.5f, 65504f, -65504f, 6.1035156e-5f, 5.9604645e-8f, -5.9604645e-8f};
+    for(float value : values) {
+      assertThat(VectorUtils.halfToFloat(VectorUtils.floatToHalf(value)), is(value));
+    }
+  }
+
+  @Test
+  public void finiteOverflowSaturates() {
+
+    assertThat(VectorUtils.floatToHalf(65519f), is((short) 0x7bff));
+    assertThat(VectorUtils.floatToHalf(65520f), is((short) 0x7bff));
+    assertThat(VectorUtils.floatToHalf(1e10f), is((short) 0x7bff));
+    assertThat(VectorUtils.floatToHalf(-1e10f), is((short) 0xfbff));
+    assertThat(VectorUtils.floatToHalf(Float.MAX_VALUE), is((short) 0x7bff));
+  }
+
+  @Test
+  public void infinitiesAndNaNAreKept() {
+
+    assertThat(VectorUtils.floatToHalf(Float.POSITIVE_INFINITY), is((short) 0x7c00));
+    assertThat(VectorUtils.floatToHalf(Float.NEGATIVE_INFINITY), is((short) 0xfc00));
+    assertTrue(Float.isNaN(VectorUtils.halfToFloat(VectorUtils.floatToHalf(Float.NaN))));
+    // NaN whose payload only lies in the low bits dropped by the conversion
+    assertTrue(Float.isNaN(VectorUtils.halfToFloat(VectorUtils.floatToHalf(Float.intBitsToFloat(0x7f800001)))));
+  }
+
+  @Test
+  public void tinyValuesUnderflowToSignedZero() {
+
+    assertThat(VectorUtils.floatToHalf(1e-10f), is((short) 0));
+    assertThat(VectorUtils.floatToHalf(-1e-10f), is((short) 0x8000));
+  }
+
+  @Test
+  public void int8RoundTripIsWithinHalfAStep() {
+
+    float[] vector = {-0.8f, -0.1f, 0f, 0.05f, 0.3f, 0.75f, 1.2f};
+    VectorUtils.QuantizedVector quantized = VectorUtils.quantize(vector, Constants.EMBEDDING_QUANTIZATION_INT8);
+    float[] restored = VectorUtils.dequantize(quantized, Constants.EMBEDDING_QUANTIZATION_INT8, vector.length);
+
+    assertThat(quantized.getData().length, is(vector.length));
+    assertThat(quantized.getData()[0], is((byte) -128));
+    assertThat(quantized.getData()[vector.length - 1], is((byte) 127));
+    for(int i = 0; i < vector.length; i++) {
+      assertEquals(vector[i], restored[i], quantized.getScale() / 2 + 1e-6f);
+    }
+  }
+
+  @Test
+  public void int8OfConstantVectorRestoresIt() {
+
+    float[] vector = {0.4f, 0.4f, 0.4f};
+    VectorUtils.QuantizedVector quantized = VectorUtils.quantize(vector, Constants.EMBEDDING_QUANTIZATION_INT8);
+
+    assertArrayEquals(vector, VectorUtils.dequantize(quantized, Constants.EMBEDDING_QUANTIZATION_INT8, vector.length), 0f);
+  }
+
+  @Test
+  public void binaryRoundTripKeepsSigns() {
+
+    float[] vector = {0.5f, -0.5f, 0.25f, -0.25f, 1f, -1f, 0.1f, -0.1f, 0.3f};
+    VectorUtils.QuantizedVector quantized = VectorUtils.quantize(vector, Constants.EMBEDDING_QUANTIZATION_BINARY);
+    float[] restored = VectorUtils.dequantize(quantized, Constants.EMBEDDING_QUANTIZATION_BINARY, vector.length);
+
+    assertThat(quantized.getData().length, is(2));
+    assertThat(quantized.getData()[0], is((byte) 0xaa));
+    assertThat(quantized.getData()[1], is((byte) 0x80));
+    for(int i = 0; i < vector.length; i++) {
+      assertThat(Math.signum(restored[i]), is(Math.signum(vector[i])));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsFloat16OfOddLength() {
+
+    VectorUtils.decodeBase64("AAAA", Constants.EMBEDDING_ENCODING_BASE64_FLOAT16);
+  }
+}